@@ -16,6 +16,8 @@
 package io.aeron.benchmarks.aeron;
 
 import io.aeron.Aeron;
+import io.aeron.ChannelUri;
+import io.aeron.ChannelUriStringBuilder;
 import io.aeron.CncFileDescriptor;
 import io.aeron.ExclusivePublication;
 import io.aeron.Image;
@@ -25,12 +27,17 @@ import io.aeron.archive.ArchiveMarkFile;
 import io.aeron.archive.client.AeronArchive;
 import io.aeron.archive.client.ArchiveException;
 import io.aeron.archive.client.RecordingDescriptorConsumer;
+import io.aeron.cluster.MillisecondClusterClock;
+import io.aeron.cluster.NanosecondClusterClock;
+import io.aeron.cluster.service.ClusterClock;
 import io.aeron.cluster.service.ClusterMarkFile;
 import io.aeron.driver.MediaDriver;
 import io.aeron.exceptions.AeronException;
+import io.aeron.logbuffer.BlockHandler;
 import io.aeron.logbuffer.BufferClaim;
 import io.aeron.logbuffer.FragmentHandler;
 import org.agrona.BitUtil;
+import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
 import org.agrona.IoUtil;
 import org.agrona.MutableDirectBuffer;
@@ -57,16 +64,31 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BooleanSupplier;
 
+import static io.aeron.Aeron.NULL_VALUE;
 import static io.aeron.CncFileDescriptor.createCountersMetaDataBuffer;
 import static io.aeron.CncFileDescriptor.createCountersValuesBuffer;
+import static io.aeron.CommonContext.ALIAS_PARAM_NAME;
+import static io.aeron.CommonContext.ENDPOINT_PARAM_NAME;
 import static io.aeron.CommonContext.IPC_CHANNEL;
+import static io.aeron.CommonContext.LINGER_PARAM_NAME;
+import static io.aeron.CommonContext.MDC_CONTROL_MODE_MANUAL;
+import static io.aeron.CommonContext.MDC_CONTROL_MODE_PARAM_NAME;
+import static io.aeron.CommonContext.MTU_LENGTH_PARAM_NAME;
+import static io.aeron.CommonContext.RECEIVER_WINDOW_LENGTH_PARAM_NAME;
+import static io.aeron.CommonContext.SOCKET_RCVBUF_PARAM_NAME;
+import static io.aeron.CommonContext.SOCKET_SNDBUF_PARAM_NAME;
+import static io.aeron.CommonContext.TERM_LENGTH_PARAM_NAME;
 import static io.aeron.Publication.*;
 import static io.aeron.archive.status.RecordingPos.findCounterIdBySession;
 import static io.aeron.archive.status.RecordingPos.getRecordingId;
+import static io.aeron.protocol.DataHeaderFlyweight.HDR_TYPE_PAD;
+import static io.aeron.protocol.DataHeaderFlyweight.HEADER_LENGTH;
+import static io.aeron.protocol.DataHeaderFlyweight.TYPE_FIELD_OFFSET;
 import static java.lang.Boolean.getBoolean;
 import static java.lang.Integer.getInteger;
 import static java.lang.Long.MAX_VALUE;
@@ -74,6 +96,7 @@ import static java.lang.System.getProperty;
 import static java.nio.ByteOrder.LITTLE_ENDIAN;
 import static java.nio.charset.StandardCharsets.US_ASCII;
 import static java.nio.file.StandardOpenOption.*;
+import static org.agrona.BitUtil.SIZE_OF_INT;
 import static org.agrona.BitUtil.SIZE_OF_LONG;
 import static org.agrona.Strings.isEmpty;
 import static org.agrona.SystemUtil.parseDuration;
@@ -86,13 +109,37 @@ public final class AeronUtil
     public static final int TIMESTAMP_OFFSET = 0;
     public static final int RECEIVER_INDEX_OFFSET = TIMESTAMP_OFFSET + SIZE_OF_LONG;
     public static final int MIN_MESSAGE_LENGTH = RECEIVER_INDEX_OFFSET + SIZE_OF_LONG + SIZE_OF_LONG;
+    public static final int CLUSTER_BATCH_HEADER_LENGTH = SIZE_OF_INT;
+    public static final int CLUSTER_INGRESS_TIME_OFFSET = TIMESTAMP_OFFSET + SIZE_OF_LONG;
 
     public static final String RECEIVER_INDEX_PROP_NAME = "io.aeron.benchmarks.aeron.receiver.index";
     public static final String NUMBER_OF_RECEIVERS_PROP_NAME =
         "io.aeron.benchmarks.aeron.receiver.count";
     public static final String CLUSTER_SERVICE_PROP_NAME = "io.aeron.benchmarks.aeron.cluster.service";
+    public static final String CLUSTER_SERVICE_ROUTING_PROP_NAME = "io.aeron.benchmarks.aeron.cluster.service.routing";
     public static final String SNAPSHOT_SIZE_PROP_NAME = "io.aeron.benchmarks.aeron.cluster.snapshot.size";
     public static final long DEFAULT_SNAPSHOT_SIZE = 0;
+    public static final String CLUSTER_WORKING_SET_SIZE_PROP_NAME =
+        "io.aeron.benchmarks.aeron.cluster.working.set.size";
+    public static final int DEFAULT_CLUSTER_WORKING_SET_SIZE = 1_000_000;
+    public static final String CLUSTER_UPDATES_PER_MESSAGE_PROP_NAME =
+        "io.aeron.benchmarks.aeron.cluster.updates.per.message";
+    public static final int DEFAULT_CLUSTER_UPDATES_PER_MESSAGE = 1;
+    public static final String CLUSTER_TIMERS_PER_MESSAGE_PROP_NAME =
+        "io.aeron.benchmarks.aeron.cluster.timers.per.message";
+    public static final int DEFAULT_CLUSTER_TIMERS_PER_MESSAGE = 1;
+    public static final String CLUSTER_TIMER_CANCELS_PER_MESSAGE_PROP_NAME =
+        "io.aeron.benchmarks.aeron.cluster.timer.cancels.per.message";
+    public static final int DEFAULT_CLUSTER_TIMER_CANCELS_PER_MESSAGE = 0;
+    public static final String CLUSTER_TIMER_DELAY_PROP_NAME = "io.aeron.benchmarks.aeron.cluster.timer.delay";
+    public static final long DEFAULT_CLUSTER_TIMER_DELAY_NS = TimeUnit.MILLISECONDS.toNanos(10);
+    public static final String CLUSTER_SESSIONS_PROP_NAME = "io.aeron.benchmarks.aeron.cluster.sessions";
+    public static final String CLUSTER_INGRESS_BATCH_SIZE_PROP_NAME =
+        "io.aeron.benchmarks.aeron.cluster.ingress.batch.size";
+    public static final String CLUSTER_REPLY_PER_MESSAGE_PROP_NAME =
+        "io.aeron.benchmarks.aeron.cluster.reply.per.message";
+    public static final String CLUSTER_IN_CLUSTER_TIME_PROP_NAME =
+        "io.aeron.benchmarks.aeron.cluster.in.cluster.time";
     public static final String DESTINATION_CHANNEL_PROP_NAME =
         "io.aeron.benchmarks.aeron.destination.channel";
     public static final String DESTINATION_STREAM_PROP_NAME =
@@ -103,6 +150,13 @@ public final class AeronUtil
     public static final String RECORD_STREAM_PROP_NAME = "io.aeron.benchmarks.aeron.record.stream";
     public static final String REPLAY_CHANNEL_PROP_NAME = "io.aeron.benchmarks.aeron.replay.channel";
     public static final String REPLAY_STREAM_PROP_NAME = "io.aeron.benchmarks.aeron.replay.stream";
+    public static final String SPY_CHANNEL_PROP_NAME = "io.aeron.benchmarks.aeron.spy.channel";
+    public static final String SPY_STREAM_PROP_NAME = "io.aeron.benchmarks.aeron.spy.stream";
+    public static final String ECHO_PROCESSING_DELAY_PROP_NAME = "io.aeron.benchmarks.aeron.echo.processing.delay";
+    public static final String ECHO_PAUSE_INTERVAL_PROP_NAME = "io.aeron.benchmarks.aeron.echo.pause.interval";
+    public static final String ECHO_PAUSE_DURATION_PROP_NAME = "io.aeron.benchmarks.aeron.echo.pause.duration";
+    public static final String ECHO_PASSIVE_PROP_NAME = "io.aeron.benchmarks.aeron.echo.passive";
+    public static final String MDS_SUBSCRIPTION_PROP_NAME = "io.aeron.benchmarks.aeron.mds.subscription";
     public static final String EMBEDDED_MEDIA_DRIVER_PROP_NAME =
         "io.aeron.benchmarks.aeron.embedded.media.driver";
     public static final String FRAGMENT_LIMIT_PROP_NAME = "io.aeron.benchmarks.aeron.fragment.limit";
@@ -117,8 +171,56 @@ public final class AeronUtil
         "io.aeron.benchmarks.aeron.cluster.failover.control.endpoints";
     public static final String FAILOVER_DELAY_PROP_NAME =
         "io.aeron.benchmarks.aeron.cluster.failover.delay";
+    public static final String REPLAY_THROUGHPUT_RECORDING_LENGTH_PROP_NAME =
+        "io.aeron.benchmarks.aeron.replay.throughput.recording.length";
+    public static final String REPLAY_THROUGHPUT_RECORD_STREAM_PROP_NAME =
+        "io.aeron.benchmarks.aeron.replay.throughput.record.stream";
+    public static final String REPLAY_THROUGHPUT_REPLAY_LENGTH_PROP_NAME =
+        "io.aeron.benchmarks.aeron.replay.throughput.replay.length";
+    public static final String REPLAY_THROUGHPUT_REPLAY_COUNT_PROP_NAME =
+        "io.aeron.benchmarks.aeron.replay.throughput.replay.count";
+    public static final String REPLAY_THROUGHPUT_CONTINUOUS_PROP_NAME =
+        "io.aeron.benchmarks.aeron.replay.throughput.continuous";
+    public static final String REPLAY_THROUGHPUT_CONCURRENCY_PROP_NAME =
+        "io.aeron.benchmarks.aeron.replay.throughput.concurrency";
+    public static final String REPLAY_THROUGHPUT_RECORDINGS_PROP_NAME =
+        "io.aeron.benchmarks.aeron.replay.throughput.recordings";
+    public static final String REPLAY_THROUGHPUT_ARCHIVE_NODE_PROP_NAME =
+        "io.aeron.benchmarks.aeron.replay.throughput.archive.node";
+    public static final String LIVE_RECORDING_POSITION_COUNTER_PROP_NAME =
+        "io.aeron.benchmarks.aeron.live.recording.position.counter";
+    public static final String REPLICATION_SOURCE_CONTROL_CHANNEL_PROP_NAME =
+        "io.aeron.benchmarks.aeron.replication.source.control.channel";
+    public static final String REPLICATION_SOURCE_CONTROL_STREAM_PROP_NAME =
+        "io.aeron.benchmarks.aeron.replication.source.control.stream";
+    public static final String REPLICATION_LIVE_DESTINATION_PROP_NAME =
+        "io.aeron.benchmarks.aeron.replication.live.destination";
+    public static final String REPLAY_MERGE_LIVE_DESTINATION_PROP_NAME =
+        "io.aeron.benchmarks.aeron.replay.merge.live.destination";
+    public static final String REPLAY_MERGE_REPLAY_DESTINATION_PROP_NAME =
+        "io.aeron.benchmarks.aeron.replay.merge.replay.destination";
+    public static final String REPLAY_MERGE_JOIN_DELAY_PROP_NAME =
+        "io.aeron.benchmarks.aeron.replay.merge.join.delay";
+    public static final String CATALOG_RECORDINGS_PROP_NAME = "io.aeron.benchmarks.aeron.catalog.recordings";
+    public static final String CATALOG_LOOKUPS_PROP_NAME = "io.aeron.benchmarks.aeron.catalog.lookups";
+    public static final String REPLAY_CHANNEL_TUNING_PROP_NAME =
+        "io.aeron.benchmarks.aeron.replay.channel.tuning";
+    public static final String ARCHIVE_NODE_BLOCK_PIPE_PROP_NAME =
+        "io.aeron.benchmarks.aeron.archive.node.block.pipe";
+    public static final String PERSISTED_ECHO_TOPOLOGY_PROP_NAME =
+        "io.aeron.benchmarks.aeron.persisted.echo.topology";
+    public static final String PERSISTED_ECHO_RECORD_CHANNEL_PROP_NAME =
+        "io.aeron.benchmarks.aeron.persisted.echo.record.channel";
     private static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSSZ");
     private static final int SEND_ATTEMPTS = 3;
+    static final int RECORDING_LOOKUP_WINDOW = 1024;
+    private static final List<String> REPLAY_CHANNEL_TUNING_PARAMS = List.of(
+        MTU_LENGTH_PARAM_NAME,
+        TERM_LENGTH_PARAM_NAME,
+        SOCKET_SNDBUF_PARAM_NAME,
+        SOCKET_RCVBUF_PARAM_NAME,
+        LINGER_PARAM_NAME,
+        RECEIVER_WINDOW_LENGTH_PARAM_NAME);
 
     private AeronUtil()
     {
@@ -134,6 +236,47 @@ public final class AeronUtil
         return Integer.getInteger(RECEIVER_INDEX_PROP_NAME, 0);
     }
 
+    public static int clusterSessions()
+    {
+        final int sessions = Integer.getInteger(CLUSTER_SESSIONS_PROP_NAME, 1);
+        if (sessions <= 0)
+        {
+            throw new IllegalArgumentException(CLUSTER_SESSIONS_PROP_NAME + " must be positive: " + sessions);
+        }
+
+        return sessions;
+    }
+
+    public static long clusterTimerDelayNs()
+    {
+        final String value = getProperty(CLUSTER_TIMER_DELAY_PROP_NAME);
+        return isEmpty(value) ? DEFAULT_CLUSTER_TIMER_DELAY_NS : parseDuration(CLUSTER_TIMER_DELAY_PROP_NAME, value);
+    }
+
+    public static int clusterIngressBatchSize()
+    {
+        final int batchSize = Integer.getInteger(CLUSTER_INGRESS_BATCH_SIZE_PROP_NAME, 1);
+        if (batchSize <= 0)
+        {
+            throw new IllegalArgumentException(
+                CLUSTER_INGRESS_BATCH_SIZE_PROP_NAME + " must be positive: " + batchSize);
+        }
+
+        return batchSize;
+    }
+
+    /**
+     * Put the epoch time at which a cluster message is sent.
+     *
+     * @param buffer        of the message.
+     * @param msgOffset     of the message.
+     * @param ingressTimeNs epoch time in nanoseconds.
+     */
+    public static void putIngressTime(final MutableDirectBuffer buffer, final int msgOffset, final long ingressTimeNs)
+    {
+        buffer.putLong(msgOffset + CLUSTER_INGRESS_TIME_OFFSET, ingressTimeNs, LITTLE_ENDIAN);
+    }
+
     public static void validateMessageLength(final int messageLength)
     {
         if (messageLength < MIN_MESSAGE_LENGTH)
@@ -239,6 +382,305 @@ public final class AeronUtil
         return Integer.parseInt(property);
     }
 
+    public static String spyChannel()
+    {
+        final String property = getProperty(SPY_CHANNEL_PROP_NAME);
+        if (isEmpty(property))
+        {
+            return destinationChannel();
+        }
+
+        return property;
+    }
+
+    public static int spyStreamId()
+    {
+        final String property = getProperty(SPY_STREAM_PROP_NAME);
+        if (isEmpty(property))
+        {
+            return destinationStreamId();
+        }
+
+        return Integer.parseInt(property);
+    }
+
+    public static long echoProcessingDelayNs()
+    {
+        return durationNs(ECHO_PROCESSING_DELAY_PROP_NAME);
+    }
+
+    public static long echoPauseIntervalNs()
+    {
+        return durationNs(ECHO_PAUSE_INTERVAL_PROP_NAME);
+    }
+
+    public static long echoPauseDurationNs()
+    {
+        return durationNs(ECHO_PAUSE_DURATION_PROP_NAME);
+    }
+
+    public static boolean echoPassive()
+    {
+        return getBoolean(ECHO_PASSIVE_PROP_NAME);
+    }
+
+    /**
+     * Should the {@link EchoMessageTransceiver} receive the echoed messages via a multi-destination subscription, see
+     * {@link #MDS_SUBSCRIPTION_PROP_NAME} and {@link #addMdsSubscription(Aeron, String, int, int)}.
+     *
+     * @return {@code true} if a multi-destination subscription is used.
+     */
+    public static boolean mdsSubscription()
+    {
+        return getBoolean(MDS_SUBSCRIPTION_PROP_NAME);
+    }
+
+    public static boolean liveRecordingPositionCounter()
+    {
+        return getBoolean(LIVE_RECORDING_POSITION_COUNTER_PROP_NAME);
+    }
+
+    public static boolean archiveNodeBlockPipe()
+    {
+        return getBoolean(ARCHIVE_NODE_BLOCK_PIPE_PROP_NAME);
+    }
+
+    public static boolean clusterReplyPerMessage()
+    {
+        return getBoolean(CLUSTER_REPLY_PER_MESSAGE_PROP_NAME);
+    }
+
+    /**
+     * Should the {@link EchoClusteredService} record the time spent in the cluster, see
+     * {@link #CLUSTER_IN_CLUSTER_TIME_PROP_NAME}.
+     *
+     * @return {@code true} if the in-cluster time is recorded.
+     */
+    public static boolean clusterInClusterTime()
+    {
+        return getBoolean(CLUSTER_IN_CLUSTER_TIME_PROP_NAME);
+    }
+
+    /**
+     * Clock of the consensus module, i.e. a {@link NanosecondClusterClock} if the in-cluster time is recorded, so that
+     * the log timestamps can be compared with the time at which the client sent a message, or the default
+     * {@link MillisecondClusterClock} otherwise.
+     *
+     * @return clock of the consensus module.
+     */
+    public static ClusterClock clusterClock()
+    {
+        return clusterInClusterTime() ? new NanosecondClusterClock() : new MillisecondClusterClock();
+    }
+
+    public static String replicationSourceControlChannel()
+    {
+        final String property = getProperty(REPLICATION_SOURCE_CONTROL_CHANNEL_PROP_NAME);
+        if (isEmpty(property))
+        {
+            throw new IllegalStateException(REPLICATION_SOURCE_CONTROL_CHANNEL_PROP_NAME + " must be set");
+        }
+        return property;
+    }
+
+    public static int replicationSourceControlStream()
+    {
+        final String property = getProperty(REPLICATION_SOURCE_CONTROL_STREAM_PROP_NAME);
+        if (isEmpty(property))
+        {
+            return AeronArchive.Configuration.CONTROL_STREAM_ID_DEFAULT;
+        }
+        return Integer.parseInt(property);
+    }
+
+    /**
+     * Destination of the live stream to merge the replication with, i.e. no merge if not set.
+     *
+     * @return destination of the live stream or {@code null} if not set.
+     */
+    public static String replicationLiveDestination()
+    {
+        final String property = getProperty(REPLICATION_LIVE_DESTINATION_PROP_NAME);
+        return isEmpty(property) ? null : property;
+    }
+
+    public static String replayMergeLiveDestination()
+    {
+        final String property = getProperty(REPLAY_MERGE_LIVE_DESTINATION_PROP_NAME);
+        if (isEmpty(property))
+        {
+            throw new IllegalStateException(REPLAY_MERGE_LIVE_DESTINATION_PROP_NAME + " must be set");
+        }
+        return property;
+    }
+
+    public static String replayMergeReplayDestination()
+    {
+        final String property = getProperty(REPLAY_MERGE_REPLAY_DESTINATION_PROP_NAME);
+        if (isEmpty(property))
+        {
+            return "aeron:udp?endpoint=localhost:0";
+        }
+        return property;
+    }
+
+    /**
+     * Delay after the start of the measurement before a late joiner subscribes via
+     * {@link io.aeron.archive.client.ReplayMerge}.
+     *
+     * @return join delay in nanoseconds, defaults to 5 seconds.
+     */
+    public static long replayMergeJoinDelayNs()
+    {
+        final String value = getProperty(REPLAY_MERGE_JOIN_DELAY_PROP_NAME);
+        if (isEmpty(value))
+        {
+            return TimeUnit.SECONDS.toNanos(5);
+        }
+
+        return parseDuration(REPLAY_MERGE_JOIN_DELAY_PROP_NAME, value);
+    }
+
+    /**
+     * Channel on which a remote archive subscribes to the stream sent by the persisted echo client, i.e. as seen from
+     * the archive host.
+     *
+     * @return record channel, defaults to the {@link #destinationChannel()}.
+     */
+    public static String persistedEchoRecordChannel()
+    {
+        final String property = getProperty(PERSISTED_ECHO_RECORD_CHANNEL_PROP_NAME);
+        if (isEmpty(property))
+        {
+            return destinationChannel();
+        }
+        return property;
+    }
+
+    /**
+     * Apply the parameters of {@link #REPLAY_CHANNEL_TUNING_PROP_NAME}, e.g. {@code mtu=8k|term-length=1m|rcv-wnd=2m},
+     * to a replay channel replacing the values which are set on the channel. The supported parameters are
+     * {@code mtu}, {@code term-length}, {@code so-sndbuf}, {@code so-rcvbuf}, {@code linger} and {@code rcv-wnd}.
+     *
+     * @param channel to replay on.
+     * @return tuned channel or the channel itself if no tuning is set.
+     */
+    public static String tuneReplayChannel(final String channel)
+    {
+        return tuneChannel(channel, REPLAY_CHANNEL_TUNING_PARAMS);
+    }
+
+    /**
+     * Apply the {@code mtu} and {@code term-length} of {@link #REPLAY_CHANNEL_TUNING_PROP_NAME} to the channel which is
+     * recorded, as the archive replays a recording with the MTU and term length it was recorded with.
+     *
+     * @param channel to record.
+     * @return tuned channel or the channel itself if no tuning is set.
+     */
+    public static String tuneRecordChannel(final String channel)
+    {
+        return tuneChannel(channel, List.of(MTU_LENGTH_PARAM_NAME, TERM_LENGTH_PARAM_NAME));
+    }
+
+    private static String tuneChannel(final String channel, final List<String> paramNames)
+    {
+        final String tuning = getProperty(REPLAY_CHANNEL_TUNING_PROP_NAME);
+        if (isEmpty(tuning))
+        {
+            return channel;
+        }
+
+        final ChannelUri uri = ChannelUri.parse(channel);
+        for (final String param : tuning.split("\\|"))
+        {
+            final int separatorIndex = param.indexOf('=');
+            final String name = separatorIndex > 0 ? param.substring(0, separatorIndex).trim() : "";
+            if (!REPLAY_CHANNEL_TUNING_PARAMS.contains(name))
+            {
+                throw new IllegalArgumentException(
+                    "unsupported " + REPLAY_CHANNEL_TUNING_PROP_NAME + " parameter: " + param);
+            }
+
+            if (paramNames.contains(name))
+            {
+                uri.put(name, param.substring(separatorIndex + 1).trim());
+            }
+        }
+
+        return uri.toString();
+    }
+
+    /**
+     * Derive a distinct channel per receiver by offsetting the endpoint port with the receiver index, so that multiple
+     * receivers can bind on the same host.
+     *
+     * @param channel       shared by all receivers.
+     * @param receiverIndex of the receiver.
+     * @return channel for the given receiver.
+     */
+    public static String receiverChannel(final String channel, final int receiverIndex)
+    {
+        final ChannelUri uri = ChannelUri.parse(channel);
+        final String endpoint = uri.get(ENDPOINT_PARAM_NAME);
+        if (0 == receiverIndex || null == endpoint)
+        {
+            return channel;
+        }
+
+        final int separatorIndex = endpoint.lastIndexOf(':');
+        final int port = Integer.parseInt(endpoint.substring(separatorIndex + 1));
+        if (0 == port)
+        {
+            return channel;
+        }
+
+        uri.put(ENDPOINT_PARAM_NAME, endpoint.substring(0, separatorIndex + 1) + (port + receiverIndex));
+        return uri.toString();
+    }
+
+    /**
+     * Add a multi-destination subscription (MDS), i.e. fan-in of several sources into a single subscription, with a
+     * destination per receiver as derived by {@link #receiverChannel(String, int)}.
+     *
+     * @param aeron         client.
+     * @param channel       shared by all receivers, it must have an endpoint.
+     * @param streamId      of the subscription.
+     * @param receiverCount number of destinations to add.
+     * @return multi-destination subscription.
+     */
+    public static Subscription addMdsSubscription(
+        final Aeron aeron, final String channel, final int streamId, final int receiverCount)
+    {
+        final ChannelUri uri = ChannelUri.parse(channel);
+        if (null == uri.get(ENDPOINT_PARAM_NAME))
+        {
+            throw new IllegalArgumentException("MDS requires a channel with an endpoint: " + channel);
+        }
+
+        uri.remove(ENDPOINT_PARAM_NAME);
+        uri.put(MDC_CONTROL_MODE_PARAM_NAME, MDC_CONTROL_MODE_MANUAL);
+
+        final Subscription subscription = aeron.addSubscription(uri.toString(), streamId);
+        for (int i = 0; i < receiverCount; i++)
+        {
+            final String endpoint = ChannelUri.parse(receiverChannel(channel, i)).get(ENDPOINT_PARAM_NAME);
+            subscription.addDestination("aeron:udp?" + ENDPOINT_PARAM_NAME + "=" + endpoint);
+        }
+
+        return subscription;
+    }
+
+    private static long durationNs(final String propertyName)
+    {
+        final String value = getProperty(propertyName);
+        if (isEmpty(value))
+        {
+            return 0;
+        }
+
+        return parseDuration(propertyName, value);
+    }
+
     public static boolean embeddedMediaDriver()
     {
         return getBoolean(EMBEDDED_MEDIA_DRIVER_PROP_NAME);
@@ -279,10 +721,58 @@ public final class AeronUtil
         return getRecordingId(counters, counterId);
     }
 
+    /**
+     * Channel fragment to find the recordings of a channel, i.e. its alias if set or its media otherwise.
+     *
+     * @param channel which was recorded.
+     * @return channel fragment for {@link AeronArchive#listRecordingsForUri}.
+     */
+    public static String recordingChannelFragment(final String channel)
+    {
+        final ChannelUri uri = ChannelUri.parse(channel);
+        final String alias = uri.get(ALIAS_PARAM_NAME);
+        return null != alias ? ALIAS_PARAM_NAME + "=" + alias : "aeron:" + uri.media();
+    }
+
+    /**
+     * Find the newest recording of a channel and stream, awaiting it for up to {@link #connectionTimeoutNs()} if there
+     * is none yet, see {@link #scanLastRecordingId(AeronArchive, String, int)}.
+     *
+     * @param aeronArchive      to query.
+     * @param recordingChannel  channel fragment to match, see {@link #recordingChannelFragment(String)}.
+     * @param recordingStreamId stream id to match.
+     * @return id of the newest matching recording.
+     * @throws IllegalStateException if there is no matching recording within the timeout.
+     */
     public static long findLastRecordingId(
         final AeronArchive aeronArchive, final String recordingChannel, final int recordingStreamId)
     {
-        final MutableLong lastRecordingId = new MutableLong();
+        final long connectionTimeoutNs = connectionTimeoutNs();
+        final long deadlineNs = System.nanoTime() + connectionTimeoutNs;
+        long recordingId;
+        while (NULL_VALUE == (recordingId = scanLastRecordingId(aeronArchive, recordingChannel, recordingStreamId)))
+        {
+            awaitRecording(deadlineNs, connectionTimeoutNs, recordingChannel, recordingStreamId);
+        }
+
+        return recordingId;
+    }
+
+    /**
+     * Find the newest recording of a channel and stream without awaiting it. Instead of scanning the whole catalog
+     * from the start it locates the highest recording id and then scans the catalog backwards from there, doubling the
+     * window on every step. Every step scans until the end of the catalog, so doubling the window keeps the total
+     * number of descriptors scanned linear in the distance of the match from the end of the catalog.
+     *
+     * @param aeronArchive      to query.
+     * @param recordingChannel  channel fragment to match, see {@link #recordingChannelFragment(String)}.
+     * @param recordingStreamId stream id to match.
+     * @return id of the newest matching recording or {@link Aeron#NULL_VALUE} if there is none.
+     */
+    public static long scanLastRecordingId(
+        final AeronArchive aeronArchive, final String recordingChannel, final int recordingStreamId)
+    {
+        final MutableLong lastRecordingId = new MutableLong(NULL_VALUE);
 
         final RecordingDescriptorConsumer consumer =
             (controlSessionId,
@@ -300,52 +790,242 @@ public final class AeronUtil
             streamId,
             strippedChannel,
             originalChannel,
-            sourceIdentity) -> lastRecordingId.set(recordingId);
+            sourceIdentity) -> lastRecordingId.set(Math.max(lastRecordingId.get(), recordingId));
 
-        int foundCount;
-        do
+        // an underestimated highest id only costs time, i.e. the recordings after it are scanned by every step
+        final long endRecordingId = findHighestRecordingId(aeronArchive) + 1;
+        long fromRecordingId = endRecordingId;
+        long window = RECORDING_LOOKUP_WINDOW;
+        while (NULL_VALUE == lastRecordingId.get() && fromRecordingId > 0)
         {
-            foundCount = aeronArchive.listRecordingsForUri(0, 1, recordingChannel, recordingStreamId, consumer);
+            fromRecordingId = Math.max(0, endRecordingId - window);
+            aeronArchive.listRecordingsForUri(
+                fromRecordingId, Integer.MAX_VALUE, recordingChannel, recordingStreamId, consumer);
+            window <<= 1;
         }
-        while (0 == foundCount);
 
         return lastRecordingId.get();
     }
 
+    /**
+     * Find the newest recording of a channel, stream and session via {@link AeronArchive#findLastMatchingRecording},
+     * i.e. a single request which scans the catalog backwards on the archive side, awaiting it for up to
+     * {@link #connectionTimeoutNs()} if there is none yet.
+     *
+     * @param aeronArchive      to query.
+     * @param recordingChannel  channel fragment to match, see {@link #recordingChannelFragment(String)}.
+     * @param recordingStreamId stream id to match.
+     * @param sessionId         session id to match.
+     * @return id of the newest matching recording.
+     * @throws IllegalStateException if there is no matching recording within the timeout.
+     */
+    public static long findLastRecordingId(
+        final AeronArchive aeronArchive,
+        final String recordingChannel,
+        final int recordingStreamId,
+        final int sessionId)
+    {
+        final long connectionTimeoutNs = connectionTimeoutNs();
+        final long deadlineNs = System.nanoTime() + connectionTimeoutNs;
+        long recordingId;
+        while (NULL_VALUE ==
+            (recordingId = aeronArchive.findLastMatchingRecording(0, recordingChannel, recordingStreamId, sessionId)))
+        {
+            awaitRecording(deadlineNs, connectionTimeoutNs, recordingChannel, recordingStreamId);
+        }
+
+        return recordingId;
+    }
+
+    /**
+     * Highest id in the catalog found via an exponential and then a binary search using
+     * {@link AeronArchive#listRecording(long, RecordingDescriptorConsumer)}, i.e. a logarithmic number of requests
+     * each of which is a direct lookup in the catalog. The result can be lower than the highest id if recordings in
+     * between were removed from the catalog.
+     *
+     * @param aeronArchive to query.
+     * @return highest recording id or {@link Aeron#NULL_VALUE} if the first recording does not exist.
+     */
+    public static long findHighestRecordingId(final AeronArchive aeronArchive)
+    {
+        final RecordingDescriptorConsumer noOp =
+            (controlSessionId,
+            correlationId,
+            recordingId,
+            startTimestamp,
+            stopTimestamp,
+            startPosition,
+            stopPosition,
+            initialTermId,
+            segmentFileLength,
+            termBufferLength,
+            mtuLength,
+            sessionId,
+            streamId,
+            strippedChannel,
+            originalChannel,
+            sourceIdentity) -> {};
+
+        if (0 == aeronArchive.listRecording(0, noOp))
+        {
+            return NULL_VALUE;
+        }
+
+        long low = 0;
+        long step = 1;
+        while (0 != aeronArchive.listRecording(low + step, noOp))
+        {
+            low += step;
+            step <<= 1;
+        }
+
+        long high = low + step;
+        while (high - low > 1)
+        {
+            final long mid = (low + high) >>> 1;
+            if (0 != aeronArchive.listRecording(mid, noOp))
+            {
+                low = mid;
+            }
+            else
+            {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+
     public static void pipeMessages(
-        final Subscription subscription, final ExclusivePublication publication, final AtomicBoolean running)
+        final Subscription subscription,
+        final ExclusivePublication publication,
+        final AtomicBoolean running,
+        final PipeStatistics statistics)
     {
         final IdleStrategy idleStrategy = idleStrategy();
         final BufferClaim bufferClaim = new BufferClaim();
-        final FragmentHandler dataHandler =
-            (buffer, offset, length, header) ->
+        final FragmentHandler dataHandler = (buffer, offset, length, header) ->
+            pipeFragment(publication, bufferClaim, buffer, offset, length, header.flags());
+
+        final Image image = subscription.imageAtIndex(0);
+        while (true)
+        {
+            final long position = image.position();
+            final long startNs = System.nanoTime();
+            final int fragmentsRead = image.poll(dataHandler, FRAGMENT_LIMIT);
+            if (0 == fragmentsRead)
             {
-                long result;
-                while ((result = publication.tryClaim(length, bufferClaim)) <= 0)
+                if (!running.get() || image.isClosed())
                 {
-                    checkPublicationResult(result);
+                    break;
                 }
+            }
+            else
+            {
+                statistics.onWork(image.position() - position, System.nanoTime() - startNs);
+            }
 
-                bufferClaim
-                    .flags(header.flags())
-                    .putBytes(buffer, offset, length)
-                    .commit();
-            };
+            idleStrategy.idle(fragmentsRead);
+        }
+    }
 
+    /**
+     * Block oriented variant of {@link #pipeMessages(Subscription, ExclusivePublication, AtomicBoolean,
+     * PipeStatistics)} which moves all available frames of a term at once via {@link Image#blockPoll} and
+     * {@link ExclusivePublication#offerBlock}, i.e. straight from the term buffer of the image into the term of the
+     * publication with a single copy and without a claim per fragment.
+     * <p>
+     * The frames are offered as they are, therefore the publication must mirror the image, see
+     * {@link #mirrorChannel(String, Image)}, and be on the same stream. The padding at the end of a term of the image
+     * is appended to the publication as padding of the same length, which rotates both to the next term together.
+     *
+     * @param subscription to read from.
+     * @param publication  to re-publish to, mirroring the image of the subscription.
+     * @param running      flag to stop the pipe.
+     * @param statistics   to accumulate the work done by the pipe.
+     */
+    public static void pipeBlocks(
+        final Subscription subscription,
+        final ExclusivePublication publication,
+        final AtomicBoolean running,
+        final PipeStatistics statistics)
+    {
+        final IdleStrategy idleStrategy = idleStrategy();
         final Image image = subscription.imageAtIndex(0);
+        final int blockLengthLimit = image.termBufferLength();
+        // the image hands out its term buffer which offerBlock modifies temporarily while appending the block
+        final BlockHandler blockHandler = (buffer, offset, length, sessionId, termId) ->
+            offerBlock(publication, (MutableDirectBuffer)buffer, offset, length);
+
         while (true)
         {
-            final int fragmentsRead = image.poll(dataHandler, FRAGMENT_LIMIT);
-            if (0 == fragmentsRead)
+            final long position = image.position();
+            final long startNs = System.nanoTime();
+            final int bytesRead = image.blockPoll(blockHandler, blockLengthLimit);
+            if (0 == bytesRead)
             {
                 if (!running.get() || image.isClosed())
                 {
                     break;
                 }
             }
+            else
+            {
+                statistics.onWork(image.position() - position, System.nanoTime() - startNs);
+            }
 
-            idleStrategy.idle(fragmentsRead);
+            idleStrategy.idle(bytesRead);
+        }
+    }
+
+    /**
+     * Channel for a publication which mirrors the image, i.e. with its session id, initial term id, term length and
+     * MTU, starting at the current position of the image. The frames of the image are then valid for the publication
+     * as they are, see {@link #pipeBlocks(Subscription, ExclusivePublication, AtomicBoolean, PipeStatistics)}.
+     *
+     * @param channel to mirror the image on.
+     * @param image   to mirror.
+     * @return channel with the session id, initial position, term length and MTU of the image.
+     */
+    public static String mirrorChannel(final String channel, final Image image)
+    {
+        return new ChannelUriStringBuilder(channel)
+            .sessionId(image.sessionId())
+            .initialPosition(image.position(), image.initialTermId(), image.termBufferLength())
+            .mtu(image.mtuLength())
+            .build();
+    }
+
+    private static void offerBlock(
+        final ExclusivePublication publication, final MutableDirectBuffer buffer, final int offset, final int length)
+    {
+        final boolean padding = HDR_TYPE_PAD == (buffer.getShort(offset + TYPE_FIELD_OFFSET, LITTLE_ENDIAN) & 0xFFFF);
+        long result;
+        while ((result = padding ?
+            publication.appendPadding(length - HEADER_LENGTH) : publication.offerBlock(buffer, offset, length)) <= 0)
+        {
+            checkPublicationResult(result);
+        }
+    }
+
+    private static void pipeFragment(
+        final ExclusivePublication publication,
+        final BufferClaim bufferClaim,
+        final DirectBuffer buffer,
+        final int offset,
+        final int length,
+        final byte flags)
+    {
+        long result;
+        while ((result = publication.tryClaim(length, bufferClaim)) <= 0)
+        {
+            checkPublicationResult(result);
         }
+
+        bufferClaim
+            .flags(flags)
+            .putBytes(buffer, offset, length)
+            .commit();
     }
 
     public static int sendMessages(
@@ -437,6 +1117,23 @@ public final class AeronUtil
         }
     }
 
+    private static void awaitRecording(
+        final long deadlineNs,
+        final long connectionTimeoutNs,
+        final String recordingChannel,
+        final int recordingStreamId)
+    {
+        if (System.nanoTime() - deadlineNs < 0)
+        {
+            yieldUninterruptedly();
+        }
+        else
+        {
+            throw new IllegalStateException("No recording of " + recordingChannel + " and stream " +
+                recordingStreamId + " found within timeout of " + connectionTimeoutNs + "ns");
+        }
+    }
+
     public static void checkPublicationResult(final long result)
     {
         if (result == CLOSED ||
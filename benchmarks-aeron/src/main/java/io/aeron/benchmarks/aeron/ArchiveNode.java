@@ -39,6 +39,13 @@ import static io.aeron.benchmarks.PropertiesUtil.mergeWithSystemProperties;
 /**
  * Remote node which archives received messages and replays persisted messages back to the sender.
  * Counterpart for the {@link LiveReplayMessageTransceiver}.
+ * <p>
+ * The received messages are re-published into the recorded publication fragment by fragment, setting
+ * {@link AeronUtil#ARCHIVE_NODE_BLOCK_PIPE_PROP_NAME} moves whole blocks of frames instead, see
+ * {@link AeronUtil#pipeBlocks}. For the block pipe the recorded publication mirrors the image of the received
+ * messages, i.e. it takes over its session id, initial position, term length and MTU, so that the blocks are offered
+ * straight from the term buffer of the image. As the frames are not rewritten the record stream must then be the
+ * destination stream. The work done by the pipe is saved as {@code archive-node-pipe.csv} into the logs directory.
  */
 public final class ArchiveNode implements AutoCloseable, Runnable
 {
@@ -46,8 +53,12 @@ public final class ArchiveNode implements AutoCloseable, Runnable
     private final ArchivingMediaDriver archivingMediaDriver;
     private final AeronArchive aeronArchive;
     private final boolean ownsArchiveClient;
-    private final ExclusivePublication publication;
     private final Subscription subscription;
+    private final String recordChannel;
+    private final int recordStreamId;
+    private final boolean blockPipe;
+    private final PipeStatistics pipeStatistics;
+    private ExclusivePublication publication;
 
     ArchiveNode(final AtomicBoolean running)
     {
@@ -64,30 +75,51 @@ public final class ArchiveNode implements AutoCloseable, Runnable
         this.archivingMediaDriver = archivingMediaDriver;
         this.aeronArchive = aeronArchive;
         this.ownsArchiveClient = ownsArchiveClient;
+        blockPipe = archiveNodeBlockPipe();
+        pipeStatistics = new PipeStatistics(blockPipe ? "block" : "fragment");
 
         final Aeron aeron = aeronArchive.context().aeron();
 
-        subscription = aeron.addSubscription(destinationChannel(), destinationStreamId());
-
-        final String recordChannel = recordChannel();
-        final int recordStreamId = recordStream();
-        publication = aeron.addExclusivePublication(recordChannel, recordStreamId);
+        recordChannel = tuneRecordChannel(recordChannel());
+        recordStreamId = recordStream();
+        final int destinationStreamId = destinationStreamId();
+        if (blockPipe && recordStreamId != destinationStreamId)
+        {
+            throw new IllegalArgumentException("the block pipe records the frames as received, " +
+                RECORD_STREAM_PROP_NAME + "=" + recordStreamId + " must match " +
+                DESTINATION_STREAM_PROP_NAME + "=" + destinationStreamId);
+        }
 
-        final int publicationSessionId = publication.sessionId();
-        final String channel = addSessionId(recordChannel, publicationSessionId);
-        aeronArchive.startRecording(channel, recordStreamId, LOCAL, true);
+        subscription = aeron.addSubscription(destinationChannel(), destinationStreamId);
     }
 
     public void run()
     {
-        awaitConnected(
-            () -> subscription.isConnected() && publication.availableWindow() > 0,
-            connectionTimeoutNs(),
-            SystemNanoClock.INSTANCE);
+        final long connectionTimeoutNs = connectionTimeoutNs();
+        awaitConnected(subscription::isConnected, connectionTimeoutNs, SystemNanoClock.INSTANCE);
+
+        final Aeron aeron = aeronArchive.context().aeron();
+        final String channel = blockPipe ? mirrorChannel(recordChannel, subscription.imageAtIndex(0)) : recordChannel;
+        publication = aeron.addExclusivePublication(channel, recordStreamId);
+        aeronArchive.startRecording(addSessionId(channel, publication.sessionId()), recordStreamId, LOCAL, true);
+
+        awaitConnected(() -> publication.availableWindow() > 0, connectionTimeoutNs, SystemNanoClock.INSTANCE);
 
         awaitRecordingStart(aeronArchive.context().aeron(), publication.sessionId(), aeronArchive.archiveId());
 
-        pipeMessages(subscription, publication, running);
+        if (blockPipe)
+        {
+            pipeBlocks(subscription, publication, running, pipeStatistics);
+        }
+        else
+        {
+            pipeMessages(subscription, publication, running, pipeStatistics);
+        }
+    }
+
+    PipeStatistics pipeStatistics()
+    {
+        return pipeStatistics;
     }
 
     public void close()
@@ -116,6 +148,7 @@ public final class ArchiveNode implements AutoCloseable, Runnable
             server.run();
 
             final String prefix = "archive-node-";
+            server.pipeStatistics.save(outputDir.resolve(prefix + "pipe.csv"));
             AeronUtil.dumpArchiveErrors(
                 server.archivingMediaDriver.archive.context().archiveDir(),
                 outputDir.resolve(prefix + "archive-errors.txt"));
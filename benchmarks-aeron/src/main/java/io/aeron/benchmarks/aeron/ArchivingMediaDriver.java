@@ -43,22 +43,32 @@ final class ArchivingMediaDriver implements AutoCloseable
         return new ArchivingMediaDriver(null, Archive.launch(new Archive.Context().deleteArchiveOnStart(true)));
     }
 
+    static ArchivingMediaDriver launchDriverWithoutArchive()
+    {
+        return new ArchivingMediaDriver(AeronUtil.launchEmbeddedMediaDriverIfConfigured(), null);
+    }
+
     static ArchivingMediaDriver launchArchiveWithEmbeddedDriver()
+    {
+        return launchArchiveWithEmbeddedDriver(
+            new MediaDriver.Context()
+                .dirDeleteOnStart(true)
+                .dirDeleteOnShutdown(true)
+                .spiesSimulateConnection(true),
+            new Archive.Context()
+                .deleteArchiveOnStart(true));
+    }
+
+    static ArchivingMediaDriver launchArchiveWithEmbeddedDriver(
+        final MediaDriver.Context driverCtx, final Archive.Context archiveCtx)
     {
         MediaDriver driver = null;
         Archive archive = null;
         try
         {
-            final MediaDriver.Context driverCtx = new MediaDriver.Context()
-                .dirDeleteOnStart(true)
-                .dirDeleteOnShutdown(true)
-                .spiesSimulateConnection(true);
-
             driver = MediaDriver.launch(driverCtx);
 
-            final Archive.Context archiveCtx = new Archive.Context()
-                .aeronDirectoryName(driverCtx.aeronDirectoryName())
-                .deleteArchiveOnStart(true);
+            archiveCtx.aeronDirectoryName(driverCtx.aeronDirectoryName());
 
             final int errorCounterId = SystemCounterDescriptor.ERRORS.id();
             final AtomicCounter errorCounter = null != archiveCtx.errorCounter() ?
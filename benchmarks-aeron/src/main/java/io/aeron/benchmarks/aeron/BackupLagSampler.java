@@ -0,0 +1,330 @@
+/*
+ * Copyright 2015-2025 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.aeron.benchmarks.aeron;
+
+import io.aeron.ChannelUri;
+import io.aeron.archive.client.AeronArchive;
+import io.aeron.benchmarks.PersistedHistogram;
+import io.aeron.cluster.ClusterBackupEventsListener;
+import io.aeron.cluster.ClusterMember;
+import io.aeron.cluster.ConsensusModule;
+import io.aeron.cluster.RecordingLog;
+import org.HdrHistogram.Histogram;
+import org.agrona.CloseHelper;
+import org.agrona.ErrorHandler;
+import org.agrona.concurrent.EpochClock;
+import org.agrona.concurrent.SystemEpochClock;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static io.aeron.Aeron.NULL_VALUE;
+import static io.aeron.CommonContext.ENDPOINT_PARAM_NAME;
+import static io.aeron.benchmarks.PersistedHistogram.FILE_EXTENSION;
+import static io.aeron.benchmarks.aeron.AeronUtil.scanLastRecordingId;
+import static java.lang.System.getProperty;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.agrona.Strings.isEmpty;
+import static org.agrona.SystemUtil.parseDuration;
+
+/**
+ * Samples the replication lag of a {@link io.aeron.cluster.ClusterBackup} at a fixed interval, i.e. the recorded log
+ * position in the archive of the member which the backup replicates from minus the live log position of the backup.
+ * The source member is reported by the backup response, so set {@code aeron.cluster.backup.source.type=LEADER} to
+ * measure the lag against the leader. Every sample is written to {@code <prefix>backup-lag.csv} and the lag in bytes
+ * is recorded in a histogram. The catch-up time is the time from the start until the backup has replicated the log
+ * which the source had recorded at the first sample.
+ */
+public final class BackupLagSampler implements ClusterBackupEventsListener, AutoCloseable
+{
+    /**
+     * Name of the system property to configure the sampling interval, e.g. {@code 100ms}. The sampling is disabled
+     * unless it is set to a positive value.
+     */
+    public static final String SAMPLE_INTERVAL_PROP_NAME = "io.aeron.benchmarks.aeron.cluster.backup.sample.interval";
+
+    private final Histogram lagHistogram = new Histogram(3);
+    private final EpochClock epochClock;
+    private final PrintWriter writer;
+    private final ErrorHandler errorHandler;
+    private final long intervalNs;
+    private final long startNs;
+    private final Thread thread;
+    private AeronArchive.Context clusterArchiveContext;
+    private AeronArchive sourceArchive;
+    private String connectedEndpoint;
+    private long sourceRecordingId = NULL_VALUE;
+    private long catchUpPosition = NULL_VALUE;
+    private long catchUpTimeNs = NULL_VALUE;
+    private volatile String sourceArchiveEndpoint;
+    private volatile long backupPosition;
+    private volatile boolean running = true;
+
+    BackupLagSampler(
+        final EpochClock epochClock,
+        final Path file,
+        final ErrorHandler errorHandler,
+        final long intervalNs,
+        final long startNs)
+    {
+        this.epochClock = epochClock;
+        this.errorHandler = errorHandler;
+        this.intervalNs = intervalNs;
+        this.startNs = startNs;
+
+        try
+        {
+            writer = new PrintWriter(Files.newBufferedWriter(file, US_ASCII, WRITE, CREATE, TRUNCATE_EXISTING));
+        }
+        catch (final IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+
+        writer.println("timestamp (ms),source position (bytes),backup position (bytes),lag (bytes)");
+
+        thread = new Thread(this::run, "backup-lag-sampler");
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Create a sampler which writes to {@code <prefix>backup-lag.csv} if enabled via
+     * {@link #SAMPLE_INTERVAL_PROP_NAME}. It must be set as the events listener of the backup and started once the
+     * backup is launched.
+     *
+     * @param outputDir    where to write the samples.
+     * @param prefix       of the file name.
+     * @param errorHandler for the failures to query the source archive.
+     * @return new sampler or {@code null} if it is disabled.
+     */
+    public static BackupLagSampler createIfConfigured(
+        final Path outputDir, final String prefix, final ErrorHandler errorHandler)
+    {
+        final String value = getProperty(SAMPLE_INTERVAL_PROP_NAME);
+        final long intervalNs = isEmpty(value) ? 0 : parseDuration(SAMPLE_INTERVAL_PROP_NAME, value);
+        if (intervalNs <= 0)
+        {
+            return null;
+        }
+
+        return new BackupLagSampler(
+            SystemEpochClock.INSTANCE,
+            outputDir.resolve(prefix + "backup-lag.csv"),
+            errorHandler,
+            intervalNs,
+            System.nanoTime());
+    }
+
+    /**
+     * Start sampling.
+     *
+     * @param clusterArchiveContext of the backup for the archives of the cluster members, i.e. used to connect to the
+     *                              archive of the source member.
+     */
+    public void start(final AeronArchive.Context clusterArchiveContext)
+    {
+        this.clusterArchiveContext = clusterArchiveContext;
+        thread.start();
+    }
+
+    public void onBackupQuery()
+    {
+    }
+
+    public void onPossibleFailure(final Exception ex)
+    {
+    }
+
+    public void onBackupResponse(
+        final ClusterMember[] clusterMembers,
+        final ClusterMember logSourceMember,
+        final List<RecordingLog.Snapshot> snapshotsToRetrieve)
+    {
+        sourceArchiveEndpoint = logSourceMember.archiveEndpoint();
+    }
+
+    public void onUpdatedRecordingLog(
+        final RecordingLog recordingLog, final List<RecordingLog.Snapshot> snapshotsRetrieved)
+    {
+    }
+
+    public void onLiveLogProgress(final long recordingId, final long recordingPosCounterId, final long logPosition)
+    {
+        backupPosition = logPosition;
+    }
+
+    /**
+     * Save the histogram of the lag in bytes as {@code <prefix>backup-lag.hdr} and the catch-up time as
+     * {@code <prefix>backup-catch-up.csv}.
+     *
+     * @param outputDir where to save the results.
+     * @param prefix    of the file names.
+     */
+    public void saveResults(final Path outputDir, final String prefix)
+    {
+        try (PrintWriter catchUpWriter = new PrintWriter(
+            Files.newBufferedWriter(outputDir.resolve(prefix + "backup-catch-up.csv"), US_ASCII)))
+        {
+            PersistedHistogram.saveToFile(lagHistogram, outputDir.resolve(prefix + "backup-lag" + FILE_EXTENSION));
+
+            catchUpWriter.println("catch-up position (bytes),catch-up time (ms)");
+            catchUpWriter.print(catchUpPosition);
+            catchUpWriter.print(',');
+            catchUpWriter.println(NULL_VALUE == catchUpTimeNs ?
+                NULL_VALUE : TimeUnit.NANOSECONDS.toMillis(catchUpTimeNs));
+        }
+        catch (final IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public void close()
+    {
+        running = false;
+        LockSupport.unpark(thread);
+        try
+        {
+            if (thread.isAlive())
+            {
+                thread.join();
+            }
+        }
+        catch (final InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+        }
+        finally
+        {
+            CloseHelper.quietClose(sourceArchive);
+            sourceArchive = null;
+            writer.close();
+        }
+    }
+
+    Histogram lagHistogram()
+    {
+        return lagHistogram;
+    }
+
+    long catchUpTimeNs()
+    {
+        return catchUpTimeNs;
+    }
+
+    void sample(final long sourcePosition, final long nowNs)
+    {
+        final long backupPosition = this.backupPosition;
+        final long lag = Math.max(0, sourcePosition - backupPosition);
+        lagHistogram.recordValue(lag);
+
+        if (NULL_VALUE == catchUpPosition)
+        {
+            catchUpPosition = sourcePosition;
+        }
+
+        if (NULL_VALUE == catchUpTimeNs && backupPosition >= catchUpPosition)
+        {
+            catchUpTimeNs = nowNs - startNs;
+        }
+
+        writer.print(epochClock.time());
+        writer.print(',');
+        writer.print(sourcePosition);
+        writer.print(',');
+        writer.print(backupPosition);
+        writer.print(',');
+        writer.println(lag);
+    }
+
+    // (re)connect to the archive of the source member whenever the backup switches to another one, the log recording
+    // is looked up with a single bounded scan per sample so that close is never blocked by awaiting it
+    private boolean connectToSource()
+    {
+        final String endpoint = sourceArchiveEndpoint;
+        if (null == endpoint)
+        {
+            return false;
+        }
+
+        if (!Objects.equals(endpoint, connectedEndpoint))
+        {
+            CloseHelper.quietClose(sourceArchive);
+            sourceArchive = null;
+            connectedEndpoint = null;
+
+            final ChannelUri requestChannel = ChannelUri.parse(clusterArchiveContext.controlRequestChannel());
+            requestChannel.put(ENDPOINT_PARAM_NAME, endpoint);
+            sourceArchive = AeronArchive.connect(new AeronArchive.Context()
+                .aeron(clusterArchiveContext.aeron())
+                .ownsAeronClient(false)
+                .controlRequestChannel(requestChannel.toString())
+                .controlRequestStreamId(clusterArchiveContext.controlRequestStreamId())
+                .controlResponseChannel(clusterArchiveContext.controlResponseChannel())
+                .controlResponseStreamId(clusterArchiveContext.controlResponseStreamId()));
+            sourceRecordingId = NULL_VALUE;
+            connectedEndpoint = endpoint;
+        }
+
+        if (NULL_VALUE == sourceRecordingId)
+        {
+            sourceRecordingId = scanLastRecordingId(sourceArchive, "", ConsensusModule.Configuration.logStreamId());
+        }
+
+        return NULL_VALUE != sourceRecordingId;
+    }
+
+    private void run()
+    {
+        long nextSampleNs = System.nanoTime() + intervalNs;
+        while (running)
+        {
+            final long nowNs = System.nanoTime();
+            if (nowNs - nextSampleNs >= 0)
+            {
+                try
+                {
+                    if (connectToSource())
+                    {
+                        sample(sourceArchive.getMaxRecordedPosition(sourceRecordingId), nowNs);
+                    }
+                }
+                catch (final RuntimeException ex)
+                {
+                    errorHandler.onError(ex);
+                    connectedEndpoint = null;
+                }
+                nextSampleNs = System.nanoTime() + intervalNs;
+            }
+            else
+            {
+                LockSupport.parkNanos(nextSampleNs - nowNs);
+            }
+        }
+
+        writer.flush();
+    }
+}
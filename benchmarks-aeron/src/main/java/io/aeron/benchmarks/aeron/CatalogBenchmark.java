@@ -0,0 +1,335 @@
+/*
+ * Copyright 2015-2025 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.aeron.benchmarks.aeron;
+
+import io.aeron.Aeron;
+import io.aeron.ExclusivePublication;
+import io.aeron.archive.client.AeronArchive;
+import io.aeron.archive.client.RecordingDescriptorConsumer;
+import io.aeron.benchmarks.Configuration;
+import io.aeron.benchmarks.PersistedHistogram;
+import org.HdrHistogram.Histogram;
+import org.agrona.concurrent.NanoClock;
+import org.agrona.concurrent.SystemNanoClock;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+import static io.aeron.Aeron.NULL_VALUE;
+import static io.aeron.ChannelUri.addSessionId;
+import static io.aeron.archive.codecs.SourceLocation.LOCAL;
+import static io.aeron.benchmarks.PersistedHistogram.FILE_EXTENSION;
+import static io.aeron.benchmarks.PropertiesUtil.loadPropertiesFiles;
+import static io.aeron.benchmarks.PropertiesUtil.mergeWithSystemProperties;
+import static io.aeron.benchmarks.aeron.AeronUtil.*;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.file.StandardOpenOption.*;
+import static org.agrona.CloseHelper.closeAll;
+import static org.agrona.PropertyAction.PRESERVE;
+import static org.agrona.PropertyAction.REPLACE;
+
+/**
+ * Measures the latency of the catalog queries of an archive with many recordings, e.g. the lookups done on the startup
+ * of the {@link ReplayNode} or the {@link LiveReplayMessageTransceiver}. First the catalog is populated with a
+ * configurable number of empty filler recordings (existing ones are reused) followed by a single target recording,
+ * i.e. the newest recording, which is then looked up by the following operations:
+ * <ul>
+ *     <li>{@code list-recordings} - {@link AeronArchive#listRecordings} of the whole catalog.</li>
+ *     <li>{@code list-recordings-for-uri} - {@link AeronArchive#listRecordingsForUri} of the whole catalog.</li>
+ *     <li>{@code list-recordings-for-uri-first} - {@link AeronArchive#listRecordingsForUri} of the first match only,
+ *     which finds the oldest instead of the newest match.</li>
+ *     <li>{@code find-last-matching-recording} - {@link AeronArchive#findLastMatchingRecording}, which requires the
+ *     session id of the recording.</li>
+ *     <li>{@code find-last-recording-id} - {@link AeronUtil#findLastRecordingId(AeronArchive, String, int)}.</li>
+ *     <li>{@code get-stop-position} - {@link AeronArchive#getStopPosition} of the target recording.</li>
+ * </ul>
+ * The percentiles of every operation are written to {@code <prefix>catalog.csv} and the histograms are saved as
+ * {@code <prefix><operation>.hdr}.
+ */
+public final class CatalogBenchmark implements AutoCloseable
+{
+    static final String FILLER_CHANNEL = "aeron:ipc?alias=catalog-filler|term-length=64k";
+    static final String TARGET_CHANNEL = "aeron:ipc?alias=catalog-target|term-length=64k";
+    private static final int PROGRESS_INTERVAL = 10_000;
+    private static final RecordingDescriptorConsumer NO_OP_CONSUMER =
+        (controlSessionId,
+        correlationId,
+        recordingId,
+        startTimestamp,
+        stopTimestamp,
+        startPosition,
+        stopPosition,
+        initialTermId,
+        segmentFileLength,
+        termBufferLength,
+        mtuLength,
+        sessionId,
+        streamId,
+        strippedChannel,
+        originalChannel,
+        sourceIdentity) -> {};
+
+    private final Map<String, Histogram> histograms = new LinkedHashMap<>();
+    private final CatalogConfiguration configuration;
+    private final AtomicBoolean running;
+    private final ArchivingMediaDriver archivingMediaDriver;
+    private final AeronArchive aeronArchive;
+    private final boolean ownsArchiveClient;
+    private final NanoClock nanoClock;
+    private long targetRecordingId = NULL_VALUE;
+    private int targetSessionId;
+    private int lastSessionId;
+
+    CatalogBenchmark(final CatalogConfiguration configuration, final AtomicBoolean running)
+    {
+        this(configuration, running, embeddedMediaDriver() ? launchArchivingMediaDriver() : null);
+    }
+
+    private CatalogBenchmark(
+        final CatalogConfiguration configuration,
+        final AtomicBoolean running,
+        final ArchivingMediaDriver archivingMediaDriver)
+    {
+        this(configuration, running, archivingMediaDriver, AeronArchive.connect(), true, SystemNanoClock.INSTANCE);
+    }
+
+    CatalogBenchmark(
+        final CatalogConfiguration configuration,
+        final AtomicBoolean running,
+        final ArchivingMediaDriver archivingMediaDriver,
+        final AeronArchive aeronArchive,
+        final boolean ownsArchiveClient,
+        final NanoClock nanoClock)
+    {
+        this.configuration = configuration;
+        this.running = running;
+        this.archivingMediaDriver = archivingMediaDriver;
+        this.aeronArchive = aeronArchive;
+        this.ownsArchiveClient = ownsArchiveClient;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Record the missing filler recordings and a new target recording.
+     *
+     * @return id of the target recording.
+     */
+    long populate()
+    {
+        final int fillerStreamId = configuration.fillerStreamId();
+        final String fillerChannel = recordingChannelFragment(FILLER_CHANNEL);
+        int fillers = aeronArchive.listRecordingsForUri(
+            0, Integer.MAX_VALUE, fillerChannel, fillerStreamId, NO_OP_CONSUMER);
+        final long startNs = nanoClock.nanoTime();
+        final int existingFillers = fillers;
+
+        while (fillers < configuration.recordings() && running.get())
+        {
+            record(FILLER_CHANNEL, fillerStreamId);
+            if (0 == ++fillers % PROGRESS_INTERVAL)
+            {
+                System.out.println("Recorded " + fillers + " filler recordings");
+            }
+        }
+
+        System.out.format("Recorded %d filler recordings in %d ms, reused %d%n",
+            fillers - existingFillers, (nanoClock.nanoTime() - startNs) / 1_000_000, existingFillers);
+
+        targetRecordingId = record(TARGET_CHANNEL, configuration.targetStreamId());
+        targetSessionId = lastSessionId;
+
+        return targetRecordingId;
+    }
+
+    /**
+     * Time every lookup operation {@link CatalogConfiguration#lookups()} times and write the percentiles to
+     * {@code <prefix>catalog.csv}.
+     *
+     * @param outputDir where to write the results.
+     * @param prefix    of the file names.
+     */
+    void run(final Path outputDir, final String prefix)
+    {
+        if (NULL_VALUE == targetRecordingId)
+        {
+            populate();
+        }
+
+        final String targetChannel = recordingChannelFragment(TARGET_CHANNEL);
+        final int targetStreamId = configuration.targetStreamId();
+        final long recordings = findHighestRecordingId(aeronArchive) + 1;
+
+        final Path file = outputDir.resolve(prefix + "catalog.csv");
+        try (PrintWriter writer =
+            new PrintWriter(Files.newBufferedWriter(file, US_ASCII, WRITE, CREATE, TRUNCATE_EXISTING)))
+        {
+            writer.println("operation,recordings,lookups,p50 (us),p99 (us),max (us)");
+
+            measure(writer, recordings, "list-recordings",
+                () -> aeronArchive.listRecordings(0, Integer.MAX_VALUE, NO_OP_CONSUMER));
+            measure(writer, recordings, "list-recordings-for-uri",
+                () -> aeronArchive.listRecordingsForUri(
+                    0, Integer.MAX_VALUE, targetChannel, targetStreamId, NO_OP_CONSUMER));
+            measure(writer, recordings, "list-recordings-for-uri-first",
+                () -> aeronArchive.listRecordingsForUri(0, 1, targetChannel, targetStreamId, NO_OP_CONSUMER));
+            measure(writer, recordings, "find-last-matching-recording",
+                () -> checkTarget(aeronArchive.findLastMatchingRecording(
+                    0, targetChannel, targetStreamId, targetSessionId)));
+            measure(writer, recordings, "find-last-recording-id",
+                () -> checkTarget(findLastRecordingId(aeronArchive, targetChannel, targetStreamId)));
+            measure(writer, recordings, "get-stop-position",
+                () -> aeronArchive.getStopPosition(targetRecordingId));
+        }
+        catch (final IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Latency histograms of the lookup operations in the order of execution.
+     *
+     * @return histograms in nanoseconds by the name of the operation.
+     */
+    Map<String, Histogram> histograms()
+    {
+        return histograms;
+    }
+
+    /**
+     * Save the latency histogram of every operation as {@code <prefix><operation>.hdr}.
+     *
+     * @param outputDir where to save the histograms.
+     * @param prefix    of the file names.
+     */
+    void saveHistograms(final Path outputDir, final String prefix)
+    {
+        try
+        {
+            for (final Map.Entry<String, Histogram> entry : histograms.entrySet())
+            {
+                PersistedHistogram.saveToFile(
+                    entry.getValue(), outputDir.resolve(prefix + entry.getKey() + FILE_EXTENSION));
+            }
+        }
+        catch (final IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    void printSummary(final PrintStream out)
+    {
+        for (final Map.Entry<String, Histogram> entry : histograms.entrySet())
+        {
+            final Histogram histogram = entry.getValue();
+            out.format(Locale.UK, "%s: p50=%.3f us, p99=%.3f us, max=%.3f us%n",
+                entry.getKey(),
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+        }
+    }
+
+    public void close()
+    {
+        if (ownsArchiveClient)
+        {
+            closeAll(aeronArchive, archivingMediaDriver);
+        }
+    }
+
+    private void measure(
+        final PrintWriter writer, final long recordings, final String operation, final LongSupplier lookup)
+    {
+        final Histogram histogram = new Histogram(3);
+        histograms.put(operation, histogram);
+
+        for (int i = 0; i < configuration.lookups() && running.get(); i++)
+        {
+            final long startNs = nanoClock.nanoTime();
+            lookup.getAsLong();
+            histogram.recordValue(nanoClock.nanoTime() - startNs);
+        }
+
+        writer.format(Locale.UK, "%s,%d,%d,%.3f,%.3f,%.3f%n",
+            operation,
+            recordings,
+            histogram.getTotalCount(),
+            histogram.getValueAtPercentile(50) / 1000.0,
+            histogram.getValueAtPercentile(99) / 1000.0,
+            histogram.getMaxValue() / 1000.0);
+    }
+
+    private long checkTarget(final long recordingId)
+    {
+        if (targetRecordingId != recordingId)
+        {
+            throw new IllegalStateException(
+                "lookup found recordingId=" + recordingId + " instead of recordingId=" + targetRecordingId);
+        }
+
+        return recordingId;
+    }
+
+    private long record(final String channel, final int streamId)
+    {
+        final Aeron aeron = aeronArchive.context().aeron();
+        try (ExclusivePublication publication = aeron.addExclusivePublication(channel, streamId))
+        {
+            final int sessionId = publication.sessionId();
+            final long subscriptionId = aeronArchive.startRecording(addSessionId(channel, sessionId), streamId, LOCAL);
+            final long recordingId = awaitRecordingStart(aeron, sessionId, aeronArchive.archiveId());
+            aeronArchive.stopRecording(subscriptionId);
+            lastSessionId = sessionId;
+
+            return recordingId;
+        }
+    }
+
+    public static void main(final String[] args)
+    {
+        mergeWithSystemProperties(PRESERVE, loadPropertiesFiles(new Properties(), REPLACE, args));
+        final Path outputDir = Configuration.resolveLogsDir();
+
+        final AtomicBoolean running = new AtomicBoolean(true);
+        installSignalHandler(() -> running.set(false));
+
+        final CatalogConfiguration configuration = CatalogConfiguration.fromSystemProperties();
+        System.out.println(configuration);
+
+        try (CatalogBenchmark benchmark = new CatalogBenchmark(configuration, running))
+        {
+            Thread.currentThread().setName("load-test-rig");
+
+            final String prefix = "catalog-";
+            benchmark.populate();
+            benchmark.run(outputDir, prefix);
+            benchmark.saveHistograms(outputDir, prefix);
+            benchmark.printSummary(System.out);
+        }
+    }
+}
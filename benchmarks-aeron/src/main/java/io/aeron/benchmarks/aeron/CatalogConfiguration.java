@@ -0,0 +1,150 @@
+/*
+ * Copyright 2015-2025 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.aeron.benchmarks.aeron;
+
+import static io.aeron.benchmarks.aeron.AeronUtil.CATALOG_LOOKUPS_PROP_NAME;
+import static io.aeron.benchmarks.aeron.AeronUtil.CATALOG_RECORDINGS_PROP_NAME;
+
+/**
+ * Configuration of the {@link CatalogBenchmark}.
+ */
+public final class CatalogConfiguration
+{
+    private final int recordings;
+    private final int lookups;
+    private final int fillerStreamId;
+    private final int targetStreamId;
+
+    private CatalogConfiguration(final Builder builder)
+    {
+        this.recordings = builder.recordings;
+        this.lookups = builder.lookups;
+        this.fillerStreamId = builder.fillerStreamId;
+        this.targetStreamId = builder.targetStreamId;
+    }
+
+    /**
+     * Minimum number of the filler recordings in the catalog, the existing ones are reused.
+     *
+     * @return number of the filler recordings.
+     */
+    public int recordings()
+    {
+        return recordings;
+    }
+
+    /**
+     * Number of the timed requests per lookup operation.
+     *
+     * @return number of the requests per operation.
+     */
+    public int lookups()
+    {
+        return lookups;
+    }
+
+    /**
+     * Stream id of the filler recordings.
+     *
+     * @return stream id of the filler recordings.
+     */
+    public int fillerStreamId()
+    {
+        return fillerStreamId;
+    }
+
+    /**
+     * Stream id of the recording which is looked up.
+     *
+     * @return stream id of the looked up recording.
+     */
+    public int targetStreamId()
+    {
+        return targetStreamId;
+    }
+
+    public String toString()
+    {
+        return "CatalogConfiguration{" +
+            "recordings=" + recordings +
+            ", lookups=" + lookups +
+            ", fillerStreamId=" + fillerStreamId +
+            ", targetStreamId=" + targetStreamId +
+            '}';
+    }
+
+    public static final class Builder
+    {
+        private int recordings = 100_000;
+        private int lookups = 1000;
+        private int fillerStreamId = 99970;
+        private int targetStreamId = 99971;
+
+        public Builder recordings(final int recordings)
+        {
+            this.recordings = recordings;
+            return this;
+        }
+
+        public Builder lookups(final int lookups)
+        {
+            this.lookups = lookups;
+            return this;
+        }
+
+        public Builder fillerStreamId(final int fillerStreamId)
+        {
+            this.fillerStreamId = fillerStreamId;
+            return this;
+        }
+
+        public Builder targetStreamId(final int targetStreamId)
+        {
+            this.targetStreamId = targetStreamId;
+            return this;
+        }
+
+        public CatalogConfiguration build()
+        {
+            if (recordings < 0)
+            {
+                throw new IllegalArgumentException("number of recordings must not be negative: " + recordings);
+            }
+
+            if (lookups <= 0)
+            {
+                throw new IllegalArgumentException("number of lookups must be positive: " + lookups);
+            }
+
+            if (fillerStreamId == targetStreamId)
+            {
+                throw new IllegalArgumentException("filler and target stream ids must differ: " + targetStreamId);
+            }
+
+            return new CatalogConfiguration(this);
+        }
+    }
+
+    public static CatalogConfiguration fromSystemProperties()
+    {
+        final Builder builder = new Builder();
+
+        builder.recordings(Integer.getInteger(CATALOG_RECORDINGS_PROP_NAME, builder.recordings));
+        builder.lookups(Integer.getInteger(CATALOG_LOOKUPS_PROP_NAME, builder.lookups));
+
+        return builder.build();
+    }
+}
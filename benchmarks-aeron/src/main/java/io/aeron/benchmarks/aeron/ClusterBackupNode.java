@@ -43,6 +43,10 @@ public final class ClusterBackupNode
             .deleteArchiveOnStart(true)
             .recordingEventsEnabled(false);
 
+        final String prefix = "cluster-backup-node-";
+        final BackupLagSampler backupLagSampler = BackupLagSampler.createIfConfigured(
+            logsDir, prefix, printingErrorHandler("backup-lag-sampler"));
+
         final ClusterBackup.Context clusterBackupContext = new ClusterBackup.Context()
             .deleteDirOnStart(true)
             .errorHandler(printingErrorHandler("cluster-backup"))
@@ -50,12 +54,27 @@ public final class ClusterBackupNode
             .markFileDir(new File(archiveContext.aeronDirectoryName()))
             .epochClock(SystemEpochClock.INSTANCE);
 
+        if (null != backupLagSampler)
+        {
+            clusterBackupContext.eventsListener(backupLagSampler);
+        }
+
         try (Archive archive = Archive.launch(archiveContext);
-            ClusterBackup clusterBackup = ClusterBackup.launch(clusterBackupContext))
+            ClusterBackup clusterBackup = ClusterBackup.launch(clusterBackupContext);
+            BackupLagSampler sampler = backupLagSampler)
         {
+            if (null != sampler)
+            {
+                sampler.start(clusterBackup.context().clusterArchiveContext());
+            }
+
             new ShutdownSignalBarrier().await();
 
-            final String prefix = "cluster-backup-node-";
+            if (null != sampler)
+            {
+                sampler.close();
+                sampler.saveResults(logsDir, prefix);
+            }
             AeronUtil.dumpClusterErrors(
                 logsDir.resolve(prefix + "backup-errors.txt"),
                 clusterBackup.context().clusterDir(),
@@ -23,27 +23,50 @@ import io.aeron.driver.MediaDriver;
 import io.aeron.exceptions.AeronException;
 import io.aeron.logbuffer.BufferClaim;
 import io.aeron.logbuffer.Header;
+import org.HdrHistogram.Histogram;
 import org.HdrHistogram.ValueRecorder;
 import org.agrona.CloseHelper;
 import org.agrona.DirectBuffer;
 import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.EpochNanoClock;
 import org.agrona.concurrent.NanoClock;
+import org.agrona.concurrent.SystemEpochNanoClock;
 import io.aeron.benchmarks.Configuration;
 import io.aeron.benchmarks.MessageTransceiver;
+import io.aeron.benchmarks.PersistedHistogram;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
 
+import static io.aeron.benchmarks.PersistedHistogram.FILE_EXTENSION;
 import static java.nio.ByteOrder.LITTLE_ENDIAN;
 import static org.agrona.BitUtil.SIZE_OF_LONG;
 import static io.aeron.benchmarks.aeron.AeronUtil.*;
 
+/**
+ * Cluster client which sends every message via {@link AeronCluster#tryClaim(int, BufferClaim)}. If
+ * {@link AeronUtil#CLUSTER_INGRESS_BATCH_SIZE_PROP_NAME} is greater than one then up to that many messages are packed
+ * into one ingress message, prefixed with the length of the messages, and the batches echoed back are unpacked so that
+ * the latency is still recorded per message. Every message also carries the epoch time at which it was sent, so that
+ * the {@link EchoClusteredService} can record the time spent in the cluster.
+ */
 public class ClusterMessageTransceiver extends MessageTransceiver implements EgressListener
 {
     private final BufferClaim bufferClaim = new BufferClaim();
+    private final Histogram duringSnapshotLatencyHistogram = new Histogram(3);
+    private final EpochNanoClock epochNanoClock = new SystemEpochNanoClock();
+    private final NanoClock nanoClock;
     private final MediaDriver mediaDriver;
     private final AeronCluster.Context aeronClusterContext;
+    private final SnapshotTrigger snapshotTrigger;
     private Path logsDir;
+    private Path outputDirectory;
+    private String outputFileNamePrefix;
+    private int ingressBatchSize;
+    private int messageLength;
     private AeronCluster aeronCluster;
+    private CountersSampler countersSampler;
 
     public ClusterMessageTransceiver(final NanoClock nanoClock, final ValueRecorder valueRecorder)
     {
@@ -55,15 +78,32 @@ public class ClusterMessageTransceiver extends MessageTransceiver implements Egr
         final ValueRecorder valueRecorder,
         final MediaDriver mediaDriver,
         final AeronCluster.Context aeronClusterContext)
+    {
+        this(nanoClock, valueRecorder, mediaDriver, aeronClusterContext, null);
+    }
+
+    ClusterMessageTransceiver(
+        final NanoClock nanoClock,
+        final ValueRecorder valueRecorder,
+        final MediaDriver mediaDriver,
+        final AeronCluster.Context aeronClusterContext,
+        final SnapshotTrigger snapshotTrigger)
     {
         super(nanoClock, valueRecorder);
+        this.nanoClock = nanoClock;
         this.mediaDriver = mediaDriver;
         this.aeronClusterContext = aeronClusterContext.egressListener(this).clone();
+        this.snapshotTrigger = snapshotTrigger;
     }
 
     public void init(final Configuration configuration) throws Exception
     {
         logsDir = configuration.logsDir();
+        outputDirectory = configuration.outputDirectory();
+        outputFileNamePrefix = configuration.outputFileNamePrefix();
+        ingressBatchSize = clusterIngressBatchSize();
+        messageLength = configuration.messageLength();
+        validateMessageLength(messageLength);
         aeronCluster = AeronCluster.connect(aeronClusterContext);
 
         while (true)
@@ -79,10 +119,31 @@ public class ClusterMessageTransceiver extends MessageTransceiver implements Egr
                 yieldUninterruptedly();
             }
         }
+
+        if (ingressBatchSize > 1)
+        {
+            final int batchLength = batchLength(ingressBatchSize);
+            final int maxLength = aeronCluster.ingressPublication().maxPayloadLength() -
+                AeronCluster.SESSION_HEADER_LENGTH;
+            if (batchLength > maxLength)
+            {
+                throw new IllegalArgumentException(CLUSTER_INGRESS_BATCH_SIZE_PROP_NAME + "=" + ingressBatchSize +
+                    " exceeds the max payload length: " + batchLength + " > " + maxLength);
+            }
+        }
+
+        countersSampler = CountersSampler.launchIfConfigured(
+            aeronCluster.context().aeron().countersReader(), configuration);
     }
 
     public void destroy()
     {
+        CloseHelper.close(countersSampler);
+        if (null != snapshotTrigger)
+        {
+            saveDuringSnapshotLatencyHistogram(outputDirectory, outputFileNamePrefix + "-");
+        }
+
         if (null != aeronCluster)
         {
             final String prefix = "cluster-client-";
@@ -96,9 +157,15 @@ public class ClusterMessageTransceiver extends MessageTransceiver implements Egr
 
     public int send(final int numberOfMessages, final int messageLength, final long timestamp, final long checksum)
     {
+        if (ingressBatchSize > 1)
+        {
+            return sendBatches(numberOfMessages, messageLength, timestamp, checksum);
+        }
+
         int count = 0;
         final AeronCluster aeronCluster = this.aeronCluster;
         final BufferClaim bufferClaim = this.bufferClaim;
+        final long ingressTimeNs = epochNanoClock.nanoTime();
 
         for (int i = 0; i < numberOfMessages; i++)
         {
@@ -112,6 +179,7 @@ public class ClusterMessageTransceiver extends MessageTransceiver implements Egr
             final MutableDirectBuffer buffer = bufferClaim.buffer();
             final int msgOffset = bufferClaim.offset() + AeronCluster.SESSION_HEADER_LENGTH;
             buffer.putLong(msgOffset, timestamp, LITTLE_ENDIAN);
+            putIngressTime(buffer, msgOffset, ingressTimeNs);
             buffer.putLong(msgOffset + messageLength - SIZE_OF_LONG, checksum, LITTLE_ENDIAN);
             bufferClaim.commit();
             count++;
@@ -125,6 +193,51 @@ public class ClusterMessageTransceiver extends MessageTransceiver implements Egr
         aeronCluster.pollEgress();
     }
 
+    protected void onWarmupComplete()
+    {
+        duringSnapshotLatencyHistogram.reset();
+    }
+
+    private int sendBatches(
+        final int numberOfMessages, final int messageLength, final long timestamp, final long checksum)
+    {
+        int count = 0;
+        final AeronCluster aeronCluster = this.aeronCluster;
+        final BufferClaim bufferClaim = this.bufferClaim;
+        final long ingressTimeNs = epochNanoClock.nanoTime();
+
+        while (count < numberOfMessages)
+        {
+            final int batchSize = Math.min(ingressBatchSize, numberOfMessages - count);
+            final long result = aeronCluster.tryClaim(batchLength(batchSize), bufferClaim);
+            if (result < 0)
+            {
+                checkPublicationResult(result);
+                break;
+            }
+
+            final MutableDirectBuffer buffer = bufferClaim.buffer();
+            final int batchOffset = bufferClaim.offset() + AeronCluster.SESSION_HEADER_LENGTH;
+            buffer.putInt(batchOffset, messageLength, LITTLE_ENDIAN);
+            for (int i = 0; i < batchSize; i++)
+            {
+                final int msgOffset = batchOffset + CLUSTER_BATCH_HEADER_LENGTH + i * messageLength;
+                buffer.putLong(msgOffset, timestamp, LITTLE_ENDIAN);
+                putIngressTime(buffer, msgOffset, ingressTimeNs);
+                buffer.putLong(msgOffset + messageLength - SIZE_OF_LONG, checksum, LITTLE_ENDIAN);
+            }
+            bufferClaim.commit();
+            count += batchSize;
+        }
+
+        return count;
+    }
+
+    private int batchLength(final int batchSize)
+    {
+        return CLUSTER_BATCH_HEADER_LENGTH + batchSize * messageLength;
+    }
+
     public void onMessage(
         final long clusterSessionId,
         final long timestamp,
@@ -132,12 +245,54 @@ public class ClusterMessageTransceiver extends MessageTransceiver implements Egr
         final int offset,
         final int length,
         final Header header)
+    {
+        if (ingressBatchSize > 1 && length != messageLength)
+        {
+            final int batchMessageLength = buffer.getInt(offset, LITTLE_ENDIAN);
+            final int end = offset + length;
+            for (int i = offset + CLUSTER_BATCH_HEADER_LENGTH; i < end; i += batchMessageLength)
+            {
+                onMessage(buffer, i, batchMessageLength);
+            }
+        }
+        else
+        {
+            onMessage(buffer, offset, length);
+        }
+    }
+
+    private void onMessage(final DirectBuffer buffer, final int offset, final int length)
     {
         final long msgTimestamp = buffer.getLong(offset, LITTLE_ENDIAN);
         final long checksum = buffer.getLong(offset + length - SIZE_OF_LONG, LITTLE_ENDIAN);
+        if (null != snapshotTrigger && snapshotTrigger.isSnapshotSince(msgTimestamp))
+        {
+            duringSnapshotLatencyHistogram.recordValue(nanoClock.nanoTime() - msgTimestamp);
+        }
         onMessageReceived(msgTimestamp, checksum);
     }
 
+    /**
+     * Save the latency of the messages which were in flight while a snapshot was taken, excluding the warmup, as
+     * {@code <prefix>during-snapshot.hdr}.
+     *
+     * @param outputDir where to save the histogram.
+     * @param prefix    of the file name.
+     * @return created file.
+     */
+    Path saveDuringSnapshotLatencyHistogram(final Path outputDir, final String prefix)
+    {
+        try
+        {
+            return PersistedHistogram.saveToFile(
+                duringSnapshotLatencyHistogram, outputDir.resolve(prefix + "during-snapshot" + FILE_EXTENSION));
+        }
+        catch (final IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
     public void onSessionEvent(
         final long correlationId,
         final long clusterSessionId,
@@ -22,6 +22,7 @@ import io.aeron.cluster.service.Cluster;
 import io.aeron.cluster.service.ClusterMarkFile;
 import io.aeron.cluster.service.ClusteredService;
 import io.aeron.cluster.service.ClusteredServiceContainer;
+import org.agrona.CloseHelper;
 import org.agrona.IoUtil;
 import org.agrona.concurrent.BusySpinIdleStrategy;
 import org.agrona.concurrent.EpochClock;
@@ -31,18 +32,34 @@ import org.agrona.concurrent.SystemEpochClock;
 
 import java.io.File;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntFunction;
 import java.util.function.Supplier;
 
 import static io.aeron.benchmarks.PropertiesUtil.loadPropertiesFiles;
 import static io.aeron.benchmarks.PropertiesUtil.mergeWithSystemProperties;
 import static io.aeron.benchmarks.aeron.AeronUtil.CLUSTER_SERVICE_PROP_NAME;
+import static io.aeron.benchmarks.aeron.AeronUtil.CLUSTER_SERVICE_ROUTING_PROP_NAME;
+import static io.aeron.benchmarks.aeron.AeronUtil.CLUSTER_TIMERS_PER_MESSAGE_PROP_NAME;
+import static io.aeron.benchmarks.aeron.AeronUtil.CLUSTER_TIMER_CANCELS_PER_MESSAGE_PROP_NAME;
+import static io.aeron.benchmarks.aeron.AeronUtil.CLUSTER_UPDATES_PER_MESSAGE_PROP_NAME;
+import static io.aeron.benchmarks.aeron.AeronUtil.CLUSTER_WORKING_SET_SIZE_PROP_NAME;
+import static io.aeron.benchmarks.aeron.AeronUtil.DEFAULT_CLUSTER_TIMERS_PER_MESSAGE;
+import static io.aeron.benchmarks.aeron.AeronUtil.DEFAULT_CLUSTER_TIMER_CANCELS_PER_MESSAGE;
+import static io.aeron.benchmarks.aeron.AeronUtil.DEFAULT_CLUSTER_UPDATES_PER_MESSAGE;
+import static io.aeron.benchmarks.aeron.AeronUtil.DEFAULT_CLUSTER_WORKING_SET_SIZE;
 import static io.aeron.benchmarks.aeron.AeronUtil.DEFAULT_SNAPSHOT_SIZE;
 import static io.aeron.benchmarks.aeron.AeronUtil.FAILOVER_CONTROL_SERVER_HOSTNAME_PROP_NAME;
 import static io.aeron.benchmarks.aeron.AeronUtil.FAILOVER_CONTROL_SERVER_PORT_PROP_NAME;
 import static io.aeron.benchmarks.aeron.AeronUtil.SNAPSHOT_SIZE_PROP_NAME;
+import static io.aeron.benchmarks.aeron.AeronUtil.clusterInClusterTime;
+import static io.aeron.benchmarks.aeron.AeronUtil.clusterIngressBatchSize;
+import static io.aeron.benchmarks.aeron.AeronUtil.clusterReplyPerMessage;
+import static io.aeron.benchmarks.aeron.AeronUtil.clusterTimerDelayNs;
 import static io.aeron.benchmarks.aeron.AeronUtil.printingErrorHandler;
 import static org.agrona.PropertyAction.PRESERVE;
 import static org.agrona.PropertyAction.REPLACE;
@@ -78,6 +95,7 @@ public final class ClusterNode
                 .aeronDirectoryName(aeronDirectoryName)
                 .clusterDir(clusterDir)
                 .epochClock(epochClock)
+                .clusterClock(AeronUtil.clusterClock())
                 .clusterMemberId(memberId)
                 .idleStrategySupplier(idleStrategySupplier)
                 .markFileDir(new File(aeronDirectoryName));
@@ -87,57 +105,94 @@ public final class ClusterNode
 
         final Type type = Type.fromSystemProperty();
         final AtomicReference<Cluster.Role> roleRef = new AtomicReference<>();
-        final int serviceId = ClusteredServiceContainer.Configuration.serviceId();
+        final int serviceCount = ConsensusModule.Configuration.serviceCount();
+        final int firstServiceId = 1 == serviceCount ? ClusteredServiceContainer.Configuration.serviceId() : 0;
+        final RoutingClusteredService.Rule routingRule =
+            RoutingClusteredService.Rule.fromName(System.getProperty(CLUSTER_SERVICE_ROUTING_PROP_NAME));
+        final ClusteredService[] services = new ClusteredService[serviceCount];
 
-        final Component<ClusteredServiceContainer> clusteredServiceContainer = new Component<>(() ->
+        final IntFunction<Component<ClusteredServiceContainer>> newContainer = (index) -> new Component<>(() ->
         {
-            final ClusteredService clusteredService;
-            if (type == Type.FAILOVER)
-            {
-                clusteredService = new FailoverClusteredService(roleRef);
-            }
-            else
-            {
-                final long snapshotSize = getSizeAsLong(SNAPSHOT_SIZE_PROP_NAME, DEFAULT_SNAPSHOT_SIZE);
-                clusteredService = new EchoClusteredService(snapshotSize);
-            }
-
+            final ClusteredService service = newClusteredService(roleRef);
+            services[index] = 1 == serviceCount ?
+                service : new RoutingClusteredService(service, routingRule, index, serviceCount);
             final ClusteredServiceContainer.Context ctx = new ClusteredServiceContainer.Context()
-                .clusteredService(clusteredService)
+                .clusteredService(services[index])
                 .errorHandler(printingErrorHandler("service-container"))
                 .aeronDirectoryName(aeronDirectoryName)
                 .clusterDir(clusterDir)
                 .epochClock(epochClock)
-                .serviceId(serviceId)
+                .serviceId(firstServiceId + index)
                 .idleStrategySupplier(idleStrategySupplier)
                 .markFileDir(new File(aeronDirectoryName));
 
             return ClusteredServiceContainer.launch(ctx);
         });
 
+        final Component<ClusteredServiceContainer> clusteredServiceContainer = newContainer.apply(0);
+        final List<Component<ClusteredServiceContainer>> otherServiceContainers = new ArrayList<>();
+        for (int i = 1; i < serviceCount; i++)
+        {
+            otherServiceContainers.add(newContainer.apply(i));
+        }
+
         IoUtil.delete(clusterDir, false);
 
         final ShutdownSignalBarrier signalBarrier = new ShutdownSignalBarrier();
+        final String prefix = "cluster-node-" + memberId + "-";
 
         try (Archive archive = Archive.launch(archiveContext);
             Component<ConsensusModule> cm = consensusModule.start();
             Component<ClusteredServiceContainer> csc = clusteredServiceContainer.start();
+            Component<AutoCloseable> otherCsc = startAll(otherServiceContainers);
             FailoverControlServer failoverControlServer = createFailoverControlServer(
                 type,
                 memberId,
                 consensusModule,
                 clusteredServiceContainer,
-                roleRef)
+                roleRef);
+            SnapshotTrigger snapshotTrigger = SnapshotTrigger.launchIfConfigured(
+                archive.context().aeron().countersReader(), logsDir, prefix);
+            CommitPositionSampler commitPositionSampler = CommitPositionSampler.launchIfConfigured(
+                archive.context().aeron().countersReader(),
+                clusterDir,
+                archive.context().archiveId(),
+                logsDir,
+                prefix)
         )
         {
             signalBarrier.await();
 
-            final String prefix = "cluster-node-" + memberId + "-";
-            AeronUtil.dumpClusterErrors(
-                logsDir.resolve(prefix + "clustered-service-errors.txt"),
-                clusterDir,
-                ClusterMarkFile.markFilenameForService(serviceId),
-                ClusterMarkFile.linkFilenameForService(serviceId));
+            if (null != snapshotTrigger)
+            {
+                snapshotTrigger.close();
+                snapshotTrigger.saveDurationHistogram(logsDir, prefix);
+            }
+            if (null != commitPositionSampler)
+            {
+                commitPositionSampler.close();
+                commitPositionSampler.saveLagHistograms(logsDir, prefix);
+            }
+            for (int i = 0; i < serviceCount; i++)
+            {
+                final int serviceId = firstServiceId + i;
+                final String servicePrefix = 1 == serviceCount ? prefix : prefix + "service-" + serviceId + "-";
+                final ClusteredService service = services[i] instanceof RoutingClusteredService ?
+                    ((RoutingClusteredService)services[i]).delegate() : services[i];
+                if (service instanceof TimerClusteredService)
+                {
+                    ((TimerClusteredService)service).saveSkewHistogram(logsDir, servicePrefix);
+                }
+                else if (service instanceof EchoClusteredService && clusterInClusterTime())
+                {
+                    ((EchoClusteredService)service).saveInClusterHistograms(logsDir, servicePrefix);
+                }
+                AeronUtil.dumpClusterErrors(
+                    logsDir.resolve(servicePrefix + "clustered-service-errors.txt"),
+                    clusterDir,
+                    ClusterMarkFile.markFilenameForService(serviceId),
+                    ClusterMarkFile.linkFilenameForService(serviceId));
+            }
             AeronUtil.dumpClusterErrors(
                 logsDir.resolve(prefix + "consensus-module-errors.txt"),
                 clusterDir,
@@ -152,6 +207,49 @@ public final class ClusterNode
         }
     }
 
+    /**
+     * Create the clustered service selected via {@link AeronUtil#CLUSTER_SERVICE_PROP_NAME}.
+     *
+     * @param roleRef updated with the role of the member by the failover service.
+     * @return new clustered service.
+     */
+    static ClusteredService newClusteredService(final AtomicReference<Cluster.Role> roleRef)
+    {
+        switch (Type.fromSystemProperty())
+        {
+            case FAILOVER:
+                return new FailoverClusteredService(roleRef);
+
+            case TIMER:
+                return new TimerClusteredService(
+                    Integer.getInteger(CLUSTER_TIMERS_PER_MESSAGE_PROP_NAME, DEFAULT_CLUSTER_TIMERS_PER_MESSAGE),
+                    Integer.getInteger(
+                        CLUSTER_TIMER_CANCELS_PER_MESSAGE_PROP_NAME, DEFAULT_CLUSTER_TIMER_CANCELS_PER_MESSAGE),
+                    clusterTimerDelayNs());
+
+            case KEY_VALUE:
+                return new KeyValueClusteredService(
+                    Integer.getInteger(CLUSTER_WORKING_SET_SIZE_PROP_NAME, DEFAULT_CLUSTER_WORKING_SET_SIZE),
+                    Integer.getInteger(CLUSTER_UPDATES_PER_MESSAGE_PROP_NAME, DEFAULT_CLUSTER_UPDATES_PER_MESSAGE));
+
+            default:
+                return new EchoClusteredService(
+                    getSizeAsLong(SNAPSHOT_SIZE_PROP_NAME, DEFAULT_SNAPSHOT_SIZE),
+                    clusterReplyPerMessage(),
+                    clusterIngressBatchSize() > 1,
+                    clusterInClusterTime());
+        }
+    }
+
+    private static Component<AutoCloseable> startAll(final List<Component<ClusteredServiceContainer>> components)
+    {
+        return new Component<AutoCloseable>(() ->
+        {
+            components.forEach(Component::start);
+            return () -> CloseHelper.closeAll(components);
+        }).start();
+    }
+
     private static FailoverControlServer createFailoverControlServer(
         final Type type,
         final int memberId,
@@ -211,12 +309,24 @@ public final class ClusterNode
     private enum Type
     {
         ECHO,
-        FAILOVER;
+        FAILOVER,
+        KEY_VALUE,
+        TIMER;
 
         public static Type fromSystemProperty()
         {
             final String clusteredServiceName = System.getProperty(CLUSTER_SERVICE_PROP_NAME);
-            return "failover".equals(clusteredServiceName) ? FAILOVER : ECHO;
+            if ("failover".equals(clusteredServiceName))
+            {
+                return FAILOVER;
+            }
+
+            if ("timer".equals(clusteredServiceName))
+            {
+                return TIMER;
+            }
+
+            return "key-value".equals(clusteredServiceName) ? KEY_VALUE : ECHO;
         }
     }
 }
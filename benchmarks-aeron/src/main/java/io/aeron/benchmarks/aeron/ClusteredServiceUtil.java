@@ -0,0 +1,100 @@
+/*
+ * Copyright 2015-2025 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.aeron.benchmarks.aeron;
+
+import io.aeron.ExclusivePublication;
+import io.aeron.cluster.client.AeronCluster;
+import io.aeron.cluster.service.ClientSession;
+import io.aeron.logbuffer.BufferClaim;
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.IdleStrategy;
+
+import static io.aeron.benchmarks.aeron.AeronUtil.checkPublicationResult;
+
+/**
+ * Egress and snapshot helpers shared by the benchmark clustered services.
+ */
+final class ClusteredServiceUtil
+{
+    private ClusteredServiceUtil()
+    {
+    }
+
+    /**
+     * Echo a message back to the session, retrying until it is claimed.
+     *
+     * @param session      to reply to.
+     * @param bufferClaim  to claim the egress message with.
+     * @param idleStrategy to idle with while the claim is back pressured.
+     * @param buffer       of the message.
+     * @param offset       of the message.
+     * @param length       of the message.
+     * @param flags        of the message fragment.
+     */
+    static void echo(
+        final ClientSession session,
+        final BufferClaim bufferClaim,
+        final IdleStrategy idleStrategy,
+        final DirectBuffer buffer,
+        final int offset,
+        final int length,
+        final byte flags)
+    {
+        idleStrategy.reset();
+        long result;
+        while ((result = session.tryClaim(length, bufferClaim)) <= 0)
+        {
+            checkPublicationResult(result);
+            idleStrategy.idle();
+        }
+
+        // FIXME: This is not required with the latest master
+        if (ClientSession.MOCKED_OFFER == result)
+        {
+            bufferClaim.commit();
+            return;
+        }
+
+        final MutableDirectBuffer dstBuffer = bufferClaim.buffer();
+        final int msgOffset = bufferClaim.offset() + AeronCluster.SESSION_HEADER_LENGTH;
+
+        dstBuffer.putBytes(msgOffset, buffer, offset, length);
+
+        bufferClaim.flags(flags).commit();
+    }
+
+    /**
+     * Offer a snapshot fragment, retrying until it is accepted.
+     *
+     * @param publication  of the snapshot.
+     * @param buffer       of the fragment.
+     * @param length       of the fragment.
+     * @param idleStrategy to idle with while the offer is back pressured.
+     */
+    static void offer(
+        final ExclusivePublication publication,
+        final DirectBuffer buffer,
+        final int length,
+        final IdleStrategy idleStrategy)
+    {
+        idleStrategy.reset();
+        while (0 > publication.offer(buffer, 0, length))
+        {
+            idleStrategy.idle();
+        }
+    }
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright 2015-2025 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.aeron.benchmarks.aeron;
+
+import io.aeron.archive.status.RecordingPos;
+import io.aeron.benchmarks.PersistedHistogram;
+import io.aeron.cluster.ConsensusModule;
+import io.aeron.cluster.RecordingLog;
+import io.aeron.cluster.service.Cluster;
+import io.aeron.cluster.service.ClusterCounters;
+import org.HdrHistogram.Histogram;
+import org.agrona.concurrent.EpochClock;
+import org.agrona.concurrent.SystemEpochClock;
+import org.agrona.concurrent.status.CountersReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.locks.LockSupport;
+
+import static io.aeron.archive.client.AeronArchive.NULL_POSITION;
+import static io.aeron.archive.status.RecordingPos.NULL_RECORDING_ID;
+import static io.aeron.benchmarks.PersistedHistogram.FILE_EXTENSION;
+import static java.lang.System.getProperty;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.agrona.Strings.isEmpty;
+import static org.agrona.SystemUtil.parseDuration;
+import static org.agrona.concurrent.status.CountersReader.NULL_COUNTER_ID;
+
+/**
+ * Samples the commit position of the consensus module at a fixed interval together with the position of the log
+ * recording of this member, i.e. its append position. Their difference is the commit lag: on the leader it is the log
+ * which awaits the quorum, on a follower it is the log which was appended but is not yet known to be committed. Every
+ * sample is written to {@code <prefix>commit-position.csv} with the role of the member and the lag is recorded in a
+ * histogram per role. The timestamps use the same epoch clock as the
+ * {@link io.aeron.benchmarks.LoggingPersistedHistogram} so that the samples of all members can be aligned.
+ */
+public final class CommitPositionSampler implements AutoCloseable
+{
+    /**
+     * Name of the system property to configure the sampling interval, e.g. {@code 100ms}. The sampling is disabled
+     * unless it is set to a positive value.
+     */
+    public static final String SAMPLE_INTERVAL_PROP_NAME =
+        "io.aeron.benchmarks.aeron.cluster.commit.position.sample.interval";
+
+    private final Histogram leaderLagHistogram = new Histogram(3);
+    private final Histogram followerLagHistogram = new Histogram(3);
+    private final CountersReader countersReader;
+    private final int clusterId;
+    private final File clusterDir;
+    private final long archiveId;
+    private final EpochClock epochClock;
+    private final PrintWriter writer;
+    private final long intervalNs;
+    private final Thread thread;
+    private int roleCounterId = NULL_COUNTER_ID;
+    private int commitPositionCounterId = NULL_COUNTER_ID;
+    private int recordingPositionCounterId = NULL_COUNTER_ID;
+    private long recordingId = NULL_RECORDING_ID;
+    private volatile boolean running = true;
+
+    CommitPositionSampler(
+        final CountersReader countersReader,
+        final int clusterId,
+        final File clusterDir,
+        final long archiveId,
+        final EpochClock epochClock,
+        final Path file,
+        final long intervalNs)
+    {
+        this.countersReader = countersReader;
+        this.clusterId = clusterId;
+        this.clusterDir = clusterDir;
+        this.archiveId = archiveId;
+        this.epochClock = epochClock;
+        this.intervalNs = intervalNs;
+
+        try
+        {
+            writer = new PrintWriter(Files.newBufferedWriter(file, US_ASCII, WRITE, CREATE, TRUNCATE_EXISTING));
+        }
+        catch (final IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+
+        writer.println("timestamp (ms),role,append position (bytes),commit position (bytes),lag (bytes)");
+
+        thread = new Thread(this::run, "commit-position-sampler");
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Start sampling if enabled via {@link #SAMPLE_INTERVAL_PROP_NAME}. The samples are written to
+     * {@code <prefix>commit-position.csv}.
+     *
+     * @param countersReader of the media driver used by the consensus module and the archive.
+     * @param clusterDir     of the consensus module, i.e. where to find the log recording.
+     * @param archiveId      of the archive which records the log.
+     * @param outputDir      where to write the samples.
+     * @param prefix         of the file name.
+     * @return running sampler or {@code null} if it is disabled.
+     */
+    public static CommitPositionSampler launchIfConfigured(
+        final CountersReader countersReader,
+        final File clusterDir,
+        final long archiveId,
+        final Path outputDir,
+        final String prefix)
+    {
+        final String value = getProperty(SAMPLE_INTERVAL_PROP_NAME);
+        final long intervalNs = isEmpty(value) ? 0 : parseDuration(SAMPLE_INTERVAL_PROP_NAME, value);
+        if (intervalNs <= 0)
+        {
+            return null;
+        }
+
+        final CommitPositionSampler sampler = new CommitPositionSampler(
+            countersReader,
+            ConsensusModule.Configuration.clusterId(),
+            clusterDir,
+            archiveId,
+            SystemEpochClock.INSTANCE,
+            outputDir.resolve(prefix + "commit-position.csv"),
+            intervalNs);
+        sampler.thread.start();
+
+        return sampler;
+    }
+
+    /**
+     * Save the histograms of the commit lag in bytes as {@code <prefix>leader-commit-lag.hdr} and
+     * {@code <prefix>follower-commit-lag.hdr}, i.e. by the role of this member at the time of the sample.
+     *
+     * @param outputDir where to save the histograms.
+     * @param prefix    of the file names.
+     */
+    public void saveLagHistograms(final Path outputDir, final String prefix)
+    {
+        try
+        {
+            PersistedHistogram.saveToFile(
+                leaderLagHistogram, outputDir.resolve(prefix + "leader-commit-lag" + FILE_EXTENSION));
+            PersistedHistogram.saveToFile(
+                followerLagHistogram, outputDir.resolve(prefix + "follower-commit-lag" + FILE_EXTENSION));
+        }
+        catch (final IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public void close()
+    {
+        running = false;
+        LockSupport.unpark(thread);
+        try
+        {
+            if (thread.isAlive())
+            {
+                thread.join();
+            }
+        }
+        catch (final InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+        }
+        finally
+        {
+            writer.close();
+        }
+    }
+
+    Histogram leaderLagHistogram()
+    {
+        return leaderLagHistogram;
+    }
+
+    Histogram followerLagHistogram()
+    {
+        return followerLagHistogram;
+    }
+
+    void sample(final Cluster.Role role, final long appendPosition, final long commitPosition)
+    {
+        final long lag = Math.max(0, appendPosition - commitPosition);
+        if (Cluster.Role.LEADER == role)
+        {
+            leaderLagHistogram.recordValue(lag);
+        }
+        else if (Cluster.Role.FOLLOWER == role)
+        {
+            followerLagHistogram.recordValue(lag);
+        }
+
+        writer.print(epochClock.time());
+        writer.print(',');
+        writer.print(role);
+        writer.print(',');
+        writer.print(appendPosition);
+        writer.print(',');
+        writer.print(commitPosition);
+        writer.print(',');
+        writer.println(lag);
+    }
+
+    // the counters appear once the consensus module has started and the log recording once it has joined the log
+    private void sampleCounters()
+    {
+        final CountersReader countersReader = this.countersReader;
+        if (NULL_COUNTER_ID == roleCounterId)
+        {
+            roleCounterId = ClusterCounters.find(
+                countersReader, ConsensusModule.Configuration.CLUSTER_NODE_ROLE_TYPE_ID, clusterId);
+        }
+
+        if (NULL_COUNTER_ID == commitPositionCounterId)
+        {
+            commitPositionCounterId = ClusterCounters.find(
+                countersReader, ConsensusModule.Configuration.COMMIT_POSITION_TYPE_ID, clusterId);
+        }
+
+        final long appendPosition = appendPosition();
+        if (NULL_COUNTER_ID == roleCounterId || NULL_COUNTER_ID == commitPositionCounterId ||
+            NULL_POSITION == appendPosition)
+        {
+            return;
+        }
+
+        sample(
+            Cluster.Role.get(countersReader.getCounterValue(roleCounterId)),
+            appendPosition,
+            countersReader.getCounterValue(commitPositionCounterId));
+    }
+
+    // the log recording is restarted with a new counter on every election, so look it up again once it is gone
+    private long appendPosition()
+    {
+        if (NULL_COUNTER_ID == recordingPositionCounterId ||
+            RecordingPos.getRecordingId(countersReader, recordingPositionCounterId) != recordingId)
+        {
+            recordingPositionCounterId = NULL_COUNTER_ID;
+            if (!new File(clusterDir, RecordingLog.RECORDING_LOG_FILE_NAME).exists())
+            {
+                return NULL_POSITION;
+            }
+
+            try (RecordingLog recordingLog = new RecordingLog(clusterDir, false))
+            {
+                recordingId = recordingLog.findLastTermRecordingId();
+            }
+
+            if (NULL_RECORDING_ID == recordingId)
+            {
+                return NULL_POSITION;
+            }
+
+            recordingPositionCounterId = RecordingPos.findCounterIdByRecording(countersReader, recordingId, archiveId);
+            if (NULL_COUNTER_ID == recordingPositionCounterId)
+            {
+                return NULL_POSITION;
+            }
+        }
+
+        return countersReader.getCounterValue(recordingPositionCounterId);
+    }
+
+    private void run()
+    {
+        long nextSampleNs = System.nanoTime() + intervalNs;
+        while (running)
+        {
+            final long nowNs = System.nanoTime();
+            if (nowNs - nextSampleNs >= 0)
+            {
+                sampleCounters();
+                nextSampleNs += intervalNs;
+            }
+            else
+            {
+                LockSupport.parkNanos(nextSampleNs - nowNs);
+            }
+        }
+
+        writer.flush();
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2015-2025 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.aeron.benchmarks.aeron;
+
+import io.aeron.AeronCounters;
+import io.aeron.driver.status.SystemCounterDescriptor;
+import io.aeron.benchmarks.Configuration;
+import org.agrona.concurrent.EpochClock;
+import org.agrona.concurrent.SystemEpochClock;
+import org.agrona.concurrent.status.CountersReader;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static io.aeron.driver.status.SystemCounterDescriptor.*;
+import static java.lang.System.getProperty;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.agrona.Strings.isEmpty;
+import static org.agrona.SystemUtil.parseDuration;
+import static org.agrona.concurrent.status.CountersReader.RECORD_ALLOCATED;
+
+/**
+ * Samples media driver counters at a fixed interval and writes the per-interval deltas to a CSV file. The timestamps
+ * use the same epoch clock as the {@link io.aeron.benchmarks.LoggingPersistedHistogram} so that the driver activity
+ * can be correlated with the latency history of the same run.
+ */
+public final class CountersSampler implements AutoCloseable
+{
+    /**
+     * Name of the system property to configure the sampling interval, e.g. {@code 1s} or {@code 100ms}. A value of
+     * zero disables the sampling. If not set then sampling is enabled with an interval of one second only when the
+     * latency history is tracked.
+     */
+    public static final String SAMPLE_INTERVAL_PROP_NAME = "io.aeron.benchmarks.aeron.counters.sample.interval";
+
+    /**
+     * File name suffix of the counters time series.
+     */
+    public static final String FILE_SUFFIX = "-counters.csv";
+
+    static final SystemCounterDescriptor[] SAMPLED_COUNTERS = {
+        NAK_MESSAGES_SENT,
+        NAK_MESSAGES_RECEIVED,
+        RETRANSMITS_SENT,
+        FLOW_CONTROL_UNDER_RUNS,
+        FLOW_CONTROL_OVER_RUNS,
+        SENDER_FLOW_CONTROL_LIMITS,
+        STATUS_MESSAGES_RECEIVED,
+        LOSS_GAP_FILLS,
+        SHORT_SENDS,
+        HEARTBEATS_SENT,
+        ERRORS };
+
+    private final CountersReader countersReader;
+    private final EpochClock epochClock;
+    private final PrintWriter writer;
+    private final long intervalNs;
+    private final long[] lastValues = new long[SAMPLED_COUNTERS.length + 1];
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    CountersSampler(
+        final CountersReader countersReader, final EpochClock epochClock, final Path file, final long intervalNs)
+    {
+        this.countersReader = countersReader;
+        this.epochClock = epochClock;
+        this.intervalNs = intervalNs;
+
+        try
+        {
+            writer = new PrintWriter(Files.newBufferedWriter(file, US_ASCII, WRITE, CREATE, TRUNCATE_EXISTING));
+        }
+        catch (final IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+
+        writer.print("timestamp (ms)");
+        for (final SystemCounterDescriptor descriptor : SAMPLED_COUNTERS)
+        {
+            writer.print(",\"");
+            writer.print(descriptor.label());
+            writer.print("\"");
+        }
+        writer.println(",\"Sender back-pressure events\"");
+
+        collect(lastValues);
+
+        thread = new Thread(this::run, "counters-sampler");
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Start sampling if it was enabled either explicitly via {@link #SAMPLE_INTERVAL_PROP_NAME} or implicitly by
+     * tracking latency history.
+     *
+     * @param countersReader of the media driver.
+     * @param configuration  of the benchmark.
+     * @return running sampler or {@code null} if sampling is disabled.
+     */
+    public static CountersSampler launchIfConfigured(
+        final CountersReader countersReader, final Configuration configuration)
+    {
+        final long intervalNs = sampleIntervalNs(configuration.trackHistory());
+        if (intervalNs <= 0)
+        {
+            return null;
+        }
+
+        final Path file = configuration.outputDirectory().resolve(configuration.outputFileNamePrefix() + FILE_SUFFIX);
+        final CountersSampler sampler = new CountersSampler(
+            countersReader, SystemEpochClock.INSTANCE, file, intervalNs);
+        sampler.thread.start();
+
+        return sampler;
+    }
+
+    static long sampleIntervalNs(final boolean trackHistory)
+    {
+        final String value = getProperty(SAMPLE_INTERVAL_PROP_NAME);
+        if (isEmpty(value))
+        {
+            return trackHistory ? TimeUnit.SECONDS.toNanos(1) : 0;
+        }
+
+        return parseDuration(SAMPLE_INTERVAL_PROP_NAME, value);
+    }
+
+    public void close()
+    {
+        running = false;
+        LockSupport.unpark(thread);
+        try
+        {
+            thread.join();
+        }
+        catch (final InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+        }
+        finally
+        {
+            writer.close();
+        }
+    }
+
+    void sample()
+    {
+        final long[] lastValues = this.lastValues;
+        final long timestampMs = epochClock.time();
+
+        writer.print(timestampMs);
+        for (int i = 0; i < lastValues.length; i++)
+        {
+            final long value = i < SAMPLED_COUNTERS.length ?
+                countersReader.getCounterValue(SAMPLED_COUNTERS[i].id()) : senderBackPressureEvents();
+            writer.print(",");
+            writer.print(value - lastValues[i]);
+            lastValues[i] = value;
+        }
+        writer.println();
+    }
+
+    private void collect(final long[] values)
+    {
+        for (int i = 0; i < SAMPLED_COUNTERS.length; i++)
+        {
+            values[i] = countersReader.getCounterValue(SAMPLED_COUNTERS[i].id());
+        }
+        values[SAMPLED_COUNTERS.length] = senderBackPressureEvents();
+    }
+
+    private long senderBackPressureEvents()
+    {
+        final CountersReader countersReader = this.countersReader;
+        final int maxCounterId = countersReader.maxCounterId();
+        long total = 0;
+        for (int counterId = 0; counterId < maxCounterId; counterId++)
+        {
+            if (RECORD_ALLOCATED == countersReader.getCounterState(counterId) &&
+                AeronCounters.DRIVER_SENDER_BPE_TYPE_ID == countersReader.getCounterTypeId(counterId))
+            {
+                total += countersReader.getCounterValue(counterId);
+            }
+        }
+
+        return total;
+    }
+
+    private void run()
+    {
+        long nextSampleNs = System.nanoTime() + intervalNs;
+        while (running)
+        {
+            final long nowNs = System.nanoTime();
+            if (nowNs - nextSampleNs >= 0)
+            {
+                sample();
+                nextSampleNs += intervalNs;
+            }
+            else
+            {
+                LockSupport.parkNanos(nextSampleNs - nowNs);
+            }
+        }
+
+        sample();
+        writer.flush();
+    }
+}
@@ -17,34 +17,113 @@ package io.aeron.benchmarks.aeron;
 
 import io.aeron.ExclusivePublication;
 import io.aeron.Image;
-import io.aeron.cluster.client.AeronCluster;
+import io.aeron.benchmarks.PersistedHistogram;
 import io.aeron.cluster.codecs.CloseReason;
 import io.aeron.cluster.service.ClientSession;
 import io.aeron.cluster.service.Cluster;
 import io.aeron.cluster.service.ClusteredService;
 import io.aeron.logbuffer.BufferClaim;
 import io.aeron.logbuffer.Header;
+import io.aeron.protocol.DataHeaderFlyweight;
+import org.HdrHistogram.Histogram;
 import org.agrona.DirectBuffer;
 import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.EpochNanoClock;
 import org.agrona.concurrent.IdleStrategy;
+import org.agrona.concurrent.SystemEpochNanoClock;
 import org.agrona.concurrent.UnsafeBuffer;
 
-import static io.aeron.benchmarks.aeron.AeronUtil.checkPublicationResult;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
 
+import static io.aeron.benchmarks.PersistedHistogram.FILE_EXTENSION;
+import static io.aeron.benchmarks.aeron.AeronUtil.CLUSTER_BATCH_HEADER_LENGTH;
+import static io.aeron.benchmarks.aeron.AeronUtil.CLUSTER_INGRESS_TIME_OFFSET;
+import static io.aeron.benchmarks.aeron.ClusteredServiceUtil.echo;
+import static io.aeron.benchmarks.aeron.ClusteredServiceUtil.offer;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+
+/**
+ * Clustered service which echoes every message back to the session. If {@code replyPerMessage} is set then the
+ * messages are expected to be batches, as sent with {@link AeronUtil#CLUSTER_INGRESS_BATCH_SIZE_PROP_NAME}, which are
+ * unpacked and every message of the batch is replied with a separate egress message. Otherwise, a batch is echoed
+ * back in one egress message.
+ * <p>
+ * If {@code inClusterTime} is set then, while this member is the leader, the time every message spends in the cluster
+ * is recorded, by the first message of a batch, from the epoch time at which the client sent it: the ingress time
+ * until the log timestamp assigned by the leader, i.e. the client to leader network time, the consensus time from the
+ * log timestamp until the service receives the message, the processing time of the service and their total. The split
+ * into ingress and consensus time is only recorded if the cluster time unit is nanoseconds, see
+ * {@link AeronUtil#clusterClock()}, and the ingress time is only comparable if the clocks of the client and the leader
+ * are in sync.
+ */
 public final class EchoClusteredService implements ClusteredService
 {
     private final BufferClaim bufferClaim = new BufferClaim();
+    private final Histogram ingressHistogram = new Histogram(3);
+    private final Histogram consensusHistogram = new Histogram(3);
+    private final Histogram processingHistogram = new Histogram(3);
+    private final Histogram inClusterHistogram = new Histogram(3);
+    private final EpochNanoClock epochNanoClock;
+    private Cluster cluster;
     private IdleStrategy idleStrategy;
+    private TimeUnit timeUnit;
+    private boolean isLeader;
     private final long snapshotSize;
+    private final boolean replyPerMessage;
+    private final boolean ingressBatched;
+    private final boolean inClusterTime;
 
     public EchoClusteredService(final long snapshotSize)
+    {
+        this(snapshotSize, false);
+    }
+
+    public EchoClusteredService(final long snapshotSize, final boolean replyPerMessage)
+    {
+        this(snapshotSize, replyPerMessage, replyPerMessage, false);
+    }
+
+    /**
+     * Create the echo service.
+     *
+     * @param snapshotSize    of the snapshot in bytes.
+     * @param replyPerMessage unpack the batches and reply to every message separately.
+     * @param ingressBatched  the messages are batches, i.e. {@link AeronUtil#CLUSTER_INGRESS_BATCH_SIZE_PROP_NAME} is
+     *                        greater than one on the client.
+     * @param inClusterTime   record the time spent in the cluster, see
+     *                        {@link AeronUtil#CLUSTER_IN_CLUSTER_TIME_PROP_NAME}.
+     */
+    public EchoClusteredService(
+        final long snapshotSize,
+        final boolean replyPerMessage,
+        final boolean ingressBatched,
+        final boolean inClusterTime)
+    {
+        this(snapshotSize, replyPerMessage, ingressBatched, inClusterTime, new SystemEpochNanoClock());
+    }
+
+    EchoClusteredService(
+        final long snapshotSize,
+        final boolean replyPerMessage,
+        final boolean ingressBatched,
+        final boolean inClusterTime,
+        final EpochNanoClock epochNanoClock)
     {
         this.snapshotSize = snapshotSize;
+        this.replyPerMessage = replyPerMessage;
+        this.ingressBatched = ingressBatched;
+        this.inClusterTime = inClusterTime;
+        this.epochNanoClock = epochNanoClock;
     }
 
     public void onStart(final Cluster cluster, final Image snapshotImage)
     {
+        this.cluster = cluster;
         idleStrategy = cluster.idleStrategy();
+        isLeader = Cluster.Role.LEADER == cluster.role();
     }
 
     public void onSessionOpen(final ClientSession session, final long timestamp)
@@ -68,30 +147,40 @@ public final class EchoClusteredService implements ClusteredService
             return; // skip non-client calls
         }
 
-        final IdleStrategy idleStrategy = this.idleStrategy;
-        final BufferClaim bufferClaim = this.bufferClaim;
+        final boolean record = inClusterTime && isLeader;
+        final long receivedTimeNs = record ? epochNanoClock.nanoTime() : 0;
+        final long startNs = record ? System.nanoTime() : 0;
 
-        idleStrategy.reset();
-        long result;
-        while ((result = session.tryClaim(length, bufferClaim)) <= 0)
+        if (replyPerMessage)
+        {
+            final int messageLength = buffer.getInt(offset, LITTLE_ENDIAN);
+            final int end = offset + length;
+            for (int i = offset + CLUSTER_BATCH_HEADER_LENGTH; i < end; i += messageLength)
+            {
+                echo(
+                    session,
+                    bufferClaim,
+                    idleStrategy,
+                    buffer,
+                    i,
+                    messageLength,
+                    DataHeaderFlyweight.BEGIN_AND_END_FLAGS);
+            }
+        }
+        else
         {
-            checkPublicationResult(result);
-            idleStrategy.idle();
+            echo(session, bufferClaim, idleStrategy, buffer, offset, length, header.flags());
         }
 
-        // FIXME: This is not required with the latest master
-        if (ClientSession.MOCKED_OFFER == result)
+        if (record)
         {
-            bufferClaim.commit();
-            return;
+            final int messageOffset = ingressBatched ? offset + CLUSTER_BATCH_HEADER_LENGTH : offset;
+            recordInClusterTime(
+                buffer.getLong(messageOffset + CLUSTER_INGRESS_TIME_OFFSET, LITTLE_ENDIAN),
+                timestamp,
+                receivedTimeNs,
+                System.nanoTime() - startNs);
         }
-
-        final MutableDirectBuffer dstBuffer = bufferClaim.buffer();
-        final int msgOffset = bufferClaim.offset() + AeronCluster.SESSION_HEADER_LENGTH;
-
-        dstBuffer.putBytes(msgOffset, buffer, offset, length);
-
-        bufferClaim.flags(header.flags()).commit();
     }
 
     public void onTimerEvent(final long correlationId, final long timestamp)
@@ -108,11 +197,7 @@ public final class EchoClusteredService implements ClusteredService
             final long remaining = snapshotSize - written;
             final int toWrite = (int)Math.min(buffer.capacity(), remaining);
 
-            idleStrategy.reset();
-            while (0 > snapshotPublication.offer(buffer, 0, toWrite))
-            {
-                idleStrategy.idle();
-            }
+            offer(snapshotPublication, buffer, toWrite, idleStrategy);
 
             written += toWrite;
         }
@@ -120,9 +205,75 @@ public final class EchoClusteredService implements ClusteredService
 
     public void onRoleChange(final Cluster.Role newRole)
     {
+        isLeader = Cluster.Role.LEADER == newRole;
     }
 
     public void onTerminate(final Cluster cluster)
     {
     }
+
+    /**
+     * Save the histograms of the time spent in the cluster as {@code <prefix>ingress-time.hdr},
+     * {@code <prefix>consensus-time.hdr}, {@code <prefix>processing-time.hdr} and {@code <prefix>in-cluster-time.hdr}.
+     *
+     * @param outputDir where to save the histograms.
+     * @param prefix    of the file names.
+     */
+    public void saveInClusterHistograms(final Path outputDir, final String prefix)
+    {
+        try
+        {
+            PersistedHistogram.saveToFile(
+                ingressHistogram, outputDir.resolve(prefix + "ingress-time" + FILE_EXTENSION));
+            PersistedHistogram.saveToFile(
+                consensusHistogram, outputDir.resolve(prefix + "consensus-time" + FILE_EXTENSION));
+            PersistedHistogram.saveToFile(
+                processingHistogram, outputDir.resolve(prefix + "processing-time" + FILE_EXTENSION));
+            PersistedHistogram.saveToFile(
+                inClusterHistogram, outputDir.resolve(prefix + "in-cluster-time" + FILE_EXTENSION));
+        }
+        catch (final IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    Histogram ingressHistogram()
+    {
+        return ingressHistogram;
+    }
+
+    Histogram consensusHistogram()
+    {
+        return consensusHistogram;
+    }
+
+    Histogram processingHistogram()
+    {
+        return processingHistogram;
+    }
+
+    Histogram inClusterHistogram()
+    {
+        return inClusterHistogram;
+    }
+
+    // the clocks of the client and the leader can be apart, i.e. negative times are recorded as zero, and the time unit
+    // is only known once the log has been joined, a coarser one than nanoseconds would make the split meaningless
+    private void recordInClusterTime(
+        final long ingressTimeNs, final long logTimestamp, final long receivedTimeNs, final long processingTimeNs)
+    {
+        if (null == timeUnit)
+        {
+            timeUnit = cluster.timeUnit();
+        }
+
+        if (TimeUnit.NANOSECONDS == timeUnit)
+        {
+            ingressHistogram.recordValue(Math.max(0, logTimestamp - ingressTimeNs));
+            consensusHistogram.recordValue(Math.max(0, receivedTimeNs - logTimestamp));
+        }
+        processingHistogram.recordValue(processingTimeNs);
+        inClusterHistogram.recordValue(Math.max(0, receivedTimeNs + processingTimeNs - ingressTimeNs));
+    }
 }
@@ -36,6 +36,13 @@ import static org.agrona.BitUtil.SIZE_OF_LONG;
 import static org.agrona.CloseHelper.closeAll;
 import static io.aeron.benchmarks.aeron.AeronUtil.*;
 
+/**
+ * Implementation of the {@link MessageTransceiver} interface which sends messages to the {@link EchoNode} and receives
+ * the echoed messages. With {@link AeronUtil#MDS_SUBSCRIPTION_PROP_NAME} set they are received via a multi-destination
+ * subscription (MDS) from {@code io.aeron.benchmarks.aeron.receiver.count} echo nodes, where the node with the
+ * receiver index {@code i} publishes to the {@link AeronUtil#sourceChannel()} with its endpoint port offset by
+ * {@code i}, see {@link AeronUtil#addMdsSubscription(Aeron, String, int, int)}.
+ */
 public final class EchoMessageTransceiver extends MessageTransceiver
 {
     private final BufferClaim bufferClaim = new BufferClaim();
@@ -50,15 +57,17 @@ public final class EchoMessageTransceiver extends MessageTransceiver
     private final MediaDriver mediaDriver;
     private final Aeron aeron;
     private final boolean ownsAeronClient;
+    private final boolean mdsSubscription;
     private final MutableInteger receiverIndex = new MutableInteger();
     private Path logsDir;
     ExclusivePublication publication;
     private Subscription subscription;
+    private CountersSampler countersSampler;
     private int receiverCount;
 
     public EchoMessageTransceiver(final NanoClock nanoClock, final ValueRecorder valueRecorder)
     {
-        this(nanoClock, valueRecorder, launchEmbeddedMediaDriverIfConfigured(), connect(), true);
+        this(nanoClock, valueRecorder, launchEmbeddedMediaDriverIfConfigured(), connect(), true, mdsSubscription());
     }
 
     EchoMessageTransceiver(
@@ -67,11 +76,23 @@ public final class EchoMessageTransceiver extends MessageTransceiver
         final MediaDriver mediaDriver,
         final Aeron aeron,
         final boolean ownsAeronClient)
+    {
+        this(nanoClock, valueRecorder, mediaDriver, aeron, ownsAeronClient, false);
+    }
+
+    EchoMessageTransceiver(
+        final NanoClock nanoClock,
+        final ValueRecorder valueRecorder,
+        final MediaDriver mediaDriver,
+        final Aeron aeron,
+        final boolean ownsAeronClient,
+        final boolean mdsSubscription)
     {
         super(nanoClock, valueRecorder);
         this.mediaDriver = mediaDriver;
         this.aeron = aeron;
         this.ownsAeronClient = ownsAeronClient;
+        this.mdsSubscription = mdsSubscription;
     }
 
     public void init(final Configuration configuration)
@@ -80,18 +101,23 @@ public final class EchoMessageTransceiver extends MessageTransceiver
         receiverCount = receiverCount();
         validateMessageLength(configuration.messageLength());
         publication = aeron.addExclusivePublication(destinationChannel(), destinationStreamId());
-        subscription = aeron.addSubscription(sourceChannel(), sourceStreamId());
+        subscription = mdsSubscription ?
+            addMdsSubscription(aeron, sourceChannel(), sourceStreamId(), receiverCount) :
+            aeron.addSubscription(sourceChannel(), sourceStreamId());
 
         awaitConnected(
             () -> subscription.isConnected() && subscription.imageCount() == receiverCount &&
             publication.isConnected() && publication.availableWindow() > 0,
             connectionTimeoutNs(),
             SystemNanoClock.INSTANCE);
+
+        countersSampler = CountersSampler.launchIfConfigured(aeron.countersReader(), configuration);
     }
 
     public void destroy()
     {
-        final String prefix = "echo-client-";
+        closeAll(countersSampler);
+        final String prefix = mdsSubscription ? "mds-echo-client-" : "echo-client-";
         AeronUtil.dumpAeronStats(
             aeron.context().cncFile(),
             logsDir.resolve(prefix + "aeron-stat.txt"),
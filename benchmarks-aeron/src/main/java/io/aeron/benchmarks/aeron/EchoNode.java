@@ -29,6 +29,7 @@ import io.aeron.benchmarks.Configuration;
 import java.nio.file.Path;
 import java.util.Properties;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 
 import static io.aeron.Aeron.connect;
 import static java.nio.ByteOrder.LITTLE_ENDIAN;
@@ -41,6 +42,10 @@ import static io.aeron.benchmarks.PropertiesUtil.mergeWithSystemProperties;
 
 /**
  * Remote node which echoes original messages back to the sender.
+ * <p>
+ * The node can be turned into a slow receiver via {@link SlowReceiver}, i.e. by delaying the processing of every
+ * message, by pausing periodically or by not replying at all, in order to see how the flow control of a
+ * multi-destination publication treats the remaining receivers.
  */
 public final class EchoNode implements AutoCloseable, Runnable
 {
@@ -52,10 +57,18 @@ public final class EchoNode implements AutoCloseable, Runnable
     private final MediaDriver mediaDriver;
     private final Aeron aeron;
     private final boolean ownsAeronClient;
+    private final SlowReceiver slowReceiver;
 
     EchoNode(final AtomicBoolean running)
     {
-        this(running, launchEmbeddedMediaDriverIfConfigured(), connect(), true, receiverIndex());
+        this(
+            running,
+            launchEmbeddedMediaDriverIfConfigured(),
+            connect(),
+            true,
+            receiverIndex(),
+            sourceChannel(),
+            SlowReceiver.fromSystemProperties());
     }
 
     EchoNode(
@@ -64,18 +77,52 @@ public final class EchoNode implements AutoCloseable, Runnable
         final Aeron aeron,
         final boolean ownsAeronClient,
         final int receiverIndex)
+    {
+        this(running, mediaDriver, aeron, ownsAeronClient, receiverIndex, sourceChannel());
+    }
+
+    EchoNode(
+        final AtomicBoolean running,
+        final MediaDriver mediaDriver,
+        final Aeron aeron,
+        final boolean ownsAeronClient,
+        final int receiverIndex,
+        final String sourceChannel)
+    {
+        this(running, mediaDriver, aeron, ownsAeronClient, receiverIndex, sourceChannel, SlowReceiver.NONE);
+    }
+
+    EchoNode(
+        final AtomicBoolean running,
+        final MediaDriver mediaDriver,
+        final Aeron aeron,
+        final boolean ownsAeronClient,
+        final int receiverIndex,
+        final String sourceChannel,
+        final SlowReceiver slowReceiver)
     {
         this.running = running;
         this.mediaDriver = mediaDriver;
         this.aeron = aeron;
         this.ownsAeronClient = ownsAeronClient;
+        this.slowReceiver = slowReceiver;
 
-        publication = aeron.addExclusivePublication(sourceChannel(), sourceStreamId());
+        publication = slowReceiver.passive ? null : aeron.addExclusivePublication(sourceChannel, sourceStreamId());
         subscription = aeron.addSubscription(destinationChannel(), destinationStreamId());
 
+        final long processingDelayNs = slowReceiver.processingDelayNs;
         fragmentHandler = (buffer, offset, length, header) ->
         {
-            if (buffer.getInt(offset + RECEIVER_INDEX_OFFSET, LITTLE_ENDIAN) == receiverIndex)
+            if (processingDelayNs > 0)
+            {
+                final long deadlineNs = System.nanoTime() + processingDelayNs;
+                while (System.nanoTime() - deadlineNs < 0)
+                {
+                    Thread.onSpinWait();
+                }
+            }
+
+            if (null != publication && buffer.getInt(offset + RECEIVER_INDEX_OFFSET, LITTLE_ENDIAN) == receiverIndex)
             {
                 long result;
                 while ((result = publication.tryClaim(length, bufferClaim)) <= 0)
@@ -94,17 +141,27 @@ public final class EchoNode implements AutoCloseable, Runnable
     public void run()
     {
         awaitConnected(
-            () -> subscription.isConnected() && publication.availableWindow() > 0,
+            () -> subscription.isConnected() && (null == publication || publication.availableWindow() > 0),
             connectionTimeoutNs(),
             SystemNanoClock.INSTANCE);
 
         final IdleStrategy idleStrategy = idleStrategy();
 
         final AtomicBoolean running = this.running;
+        final long pauseIntervalNs = slowReceiver.pauseIntervalNs;
+        final long pauseDurationNs = slowReceiver.pauseDurationNs;
+        final boolean pauses = pauseIntervalNs > 0 && pauseDurationNs > 0;
+        long nextPauseNs = System.nanoTime() + pauseIntervalNs;
 
         final Image image = subscription.imageAtIndex(0);
         while (true)
         {
+            if (pauses && System.nanoTime() - nextPauseNs >= 0)
+            {
+                LockSupport.parkNanos(pauseDurationNs);
+                nextPauseNs = System.nanoTime() + pauseIntervalNs;
+            }
+
             final int fragments = image.poll(fragmentHandler, FRAGMENT_LIMIT);
             if (0 == fragments)
             {
@@ -156,4 +213,63 @@ public final class EchoNode implements AutoCloseable, Runnable
                 outputDir.resolve(prefix + "errors.txt"));
         }
     }
+
+    /**
+     * Artificial slowness injected into an {@link EchoNode}.
+     */
+    static final class SlowReceiver
+    {
+        static final SlowReceiver NONE = new SlowReceiver(0, 0, 0, false);
+
+        final long processingDelayNs;
+        final long pauseIntervalNs;
+        final long pauseDurationNs;
+        final boolean passive;
+
+        /**
+         * Configure slowness of an {@link EchoNode}, where zero disables the corresponding delay.
+         *
+         * @param processingDelayNs busy spin before processing every message.
+         * @param pauseIntervalNs   time between the pauses, i.e. stop polling the subscription.
+         * @param pauseDurationNs   for how long to pause.
+         * @param passive           consume messages without sending any replies.
+         */
+        SlowReceiver(
+            final long processingDelayNs,
+            final long pauseIntervalNs,
+            final long pauseDurationNs,
+            final boolean passive)
+        {
+            this.processingDelayNs = processingDelayNs;
+            this.pauseIntervalNs = pauseIntervalNs;
+            this.pauseDurationNs = pauseDurationNs;
+            this.passive = passive;
+        }
+
+        static SlowReceiver fromSystemProperties()
+        {
+            return new SlowReceiver(
+                echoProcessingDelayNs(), echoPauseIntervalNs(), echoPauseDurationNs(), echoPassive());
+        }
+
+        boolean isSlow()
+        {
+            return processingDelayNs > 0 || (pauseIntervalNs > 0 && pauseDurationNs > 0) || passive;
+        }
+
+        SlowReceiver asPassive()
+        {
+            return new SlowReceiver(processingDelayNs, pauseIntervalNs, pauseDurationNs, true);
+        }
+
+        public String toString()
+        {
+            return "SlowReceiver{" +
+                "processingDelayNs=" + processingDelayNs +
+                ", pauseIntervalNs=" + pauseIntervalNs +
+                ", pauseDurationNs=" + pauseDurationNs +
+                ", passive=" + passive +
+                '}';
+        }
+    }
 }
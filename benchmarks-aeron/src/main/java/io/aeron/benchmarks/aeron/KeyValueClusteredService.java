@@ -0,0 +1,212 @@
+/*
+ * Copyright 2015-2025 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.aeron.benchmarks.aeron;
+
+import io.aeron.ExclusivePublication;
+import io.aeron.Image;
+import io.aeron.cluster.codecs.CloseReason;
+import io.aeron.cluster.service.ClientSession;
+import io.aeron.cluster.service.Cluster;
+import io.aeron.cluster.service.ClusteredService;
+import io.aeron.logbuffer.BufferClaim;
+import io.aeron.logbuffer.FragmentHandler;
+import io.aeron.logbuffer.Header;
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.collections.Hashing;
+import org.agrona.collections.Long2LongHashMap;
+import org.agrona.concurrent.IdleStrategy;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import static io.aeron.benchmarks.aeron.AeronUtil.FRAGMENT_LIMIT;
+import static io.aeron.benchmarks.aeron.AeronUtil.TIMESTAMP_OFFSET;
+import static io.aeron.benchmarks.aeron.ClusteredServiceUtil.echo;
+import static io.aeron.benchmarks.aeron.ClusteredServiceUtil.offer;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+
+/**
+ * Clustered service which keeps a key-value state of {@code workingSetSize} counters in a {@link Long2LongHashMap}.
+ * Every message increments {@code updatesPerMessage} counters, picked by hashing the message timestamp, before being
+ * echoed back. The snapshot contains the number of entries followed by the key-value pairs, which are loaded back
+ * on start.
+ */
+public final class KeyValueClusteredService implements ClusteredService
+{
+    static final long MISSING_VALUE = -1;
+    static final int ENTRY_LENGTH = SIZE_OF_LONG + SIZE_OF_LONG;
+
+    private final BufferClaim bufferClaim = new BufferClaim();
+    private final FragmentHandler snapshotHandler = this::onSnapshotFragment;
+    private final Long2LongHashMap state;
+    private final int workingSetSize;
+    private final int updatesPerMessage;
+    private IdleStrategy idleStrategy;
+    private long snapshotEntries;
+
+    public KeyValueClusteredService(final int workingSetSize, final int updatesPerMessage)
+    {
+        if (workingSetSize <= 0)
+        {
+            throw new IllegalArgumentException("workingSetSize must be positive: " + workingSetSize);
+        }
+
+        if (updatesPerMessage < 0)
+        {
+            throw new IllegalArgumentException("updatesPerMessage must not be negative: " + updatesPerMessage);
+        }
+
+        this.workingSetSize = workingSetSize;
+        this.updatesPerMessage = updatesPerMessage;
+        state = new Long2LongHashMap(workingSetSize, Hashing.DEFAULT_LOAD_FACTOR, MISSING_VALUE);
+    }
+
+    public void onStart(final Cluster cluster, final Image snapshotImage)
+    {
+        idleStrategy = cluster.idleStrategy();
+
+        if (null == snapshotImage)
+        {
+            for (int key = 0; key < workingSetSize; key++)
+            {
+                state.put(key, 0);
+            }
+        }
+        else
+        {
+            loadSnapshot(snapshotImage);
+        }
+    }
+
+    public void onSessionOpen(final ClientSession session, final long timestamp)
+    {
+    }
+
+    public void onSessionClose(final ClientSession session, final long timestamp, final CloseReason closeReason)
+    {
+    }
+
+    public void onSessionMessage(
+        final ClientSession session,
+        final long timestamp,
+        final DirectBuffer buffer,
+        final int offset,
+        final int length,
+        final Header header)
+    {
+        if (null == session)
+        {
+            return; // skip non-client calls
+        }
+
+        update(buffer.getLong(offset + TIMESTAMP_OFFSET, LITTLE_ENDIAN));
+
+        echo(session, bufferClaim, idleStrategy, buffer, offset, length, header.flags());
+    }
+
+    public void onTimerEvent(final long correlationId, final long timestamp)
+    {
+    }
+
+    public void onTakeSnapshot(final ExclusivePublication snapshotPublication)
+    {
+        final MutableDirectBuffer buffer = new UnsafeBuffer(new byte[snapshotPublication.maxPayloadLength()]);
+        final int batchLength = buffer.capacity() - (buffer.capacity() % ENTRY_LENGTH);
+
+        buffer.putLong(0, state.size(), LITTLE_ENDIAN);
+        offer(snapshotPublication, buffer, SIZE_OF_LONG, idleStrategy);
+
+        int length = 0;
+        final Long2LongHashMap.EntryIterator iterator = state.entrySet().iterator();
+        while (iterator.hasNext())
+        {
+            iterator.next();
+            buffer.putLong(length, iterator.getLongKey(), LITTLE_ENDIAN);
+            buffer.putLong(length + SIZE_OF_LONG, iterator.getLongValue(), LITTLE_ENDIAN);
+            length += ENTRY_LENGTH;
+
+            if (batchLength == length)
+            {
+                offer(snapshotPublication, buffer, length, idleStrategy);
+                length = 0;
+            }
+        }
+
+        if (length > 0)
+        {
+            offer(snapshotPublication, buffer, length, idleStrategy);
+        }
+    }
+
+    public void onRoleChange(final Cluster.Role newRole)
+    {
+    }
+
+    public void onTerminate(final Cluster cluster)
+    {
+    }
+
+    Long2LongHashMap state()
+    {
+        return state;
+    }
+
+    // the keys are derived from the message, so that every member applies the same updates
+    private void update(final long seed)
+    {
+        final Long2LongHashMap state = this.state;
+        for (int i = 0; i < updatesPerMessage; i++)
+        {
+            final long key = Math.floorMod(Hashing.hash(seed + i), workingSetSize);
+            state.put(key, state.get(key) + 1);
+        }
+    }
+
+    private void loadSnapshot(final Image snapshotImage)
+    {
+        state.clear();
+        snapshotEntries = MISSING_VALUE;
+
+        idleStrategy.reset();
+        while (MISSING_VALUE == snapshotEntries || state.size() < snapshotEntries)
+        {
+            final int fragments = snapshotImage.poll(snapshotHandler, FRAGMENT_LIMIT);
+            if (0 == fragments && (snapshotImage.isClosed() || snapshotImage.isEndOfStream()))
+            {
+                throw new IllegalStateException(
+                    "snapshot ended after " + state.size() + " of " + snapshotEntries + " entries");
+            }
+
+            idleStrategy.idle(fragments);
+        }
+    }
+
+    private void onSnapshotFragment(
+        final DirectBuffer buffer, final int offset, final int length, final Header header)
+    {
+        if (MISSING_VALUE == snapshotEntries)
+        {
+            snapshotEntries = buffer.getLong(offset, LITTLE_ENDIAN);
+            return;
+        }
+
+        final int end = offset + length;
+        for (int i = offset; i < end; i += ENTRY_LENGTH)
+        {
+            state.put(buffer.getLong(i, LITTLE_ENDIAN), buffer.getLong(i + SIZE_OF_LONG, LITTLE_ENDIAN));
+        }
+    }
+}
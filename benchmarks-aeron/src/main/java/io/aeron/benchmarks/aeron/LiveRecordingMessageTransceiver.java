@@ -21,8 +21,7 @@ import io.aeron.Image;
 import io.aeron.ImageControlledFragmentAssembler;
 import io.aeron.Subscription;
 import io.aeron.archive.client.AeronArchive;
-import io.aeron.archive.client.RecordingEventsAdapter;
-import io.aeron.archive.client.RecordingEventsListener;
+import io.aeron.archive.status.RecordingPos;
 import io.aeron.logbuffer.BufferClaim;
 import io.aeron.logbuffer.ControlledFragmentHandler;
 import io.aeron.logbuffer.Header;
@@ -37,42 +36,49 @@ import io.aeron.benchmarks.MessageTransceiver;
 import java.nio.file.Path;
 
 import static io.aeron.ChannelUri.addSessionId;
-import static io.aeron.archive.client.AeronArchive.NULL_POSITION;
 import static io.aeron.archive.client.AeronArchive.connect;
 import static io.aeron.archive.codecs.SourceLocation.LOCAL;
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
-import static io.aeron.logbuffer.FrameDescriptor.FRAME_ALIGNMENT;
 import static java.nio.ByteOrder.LITTLE_ENDIAN;
 import static org.agrona.BitUtil.SIZE_OF_LONG;
-import static org.agrona.BitUtil.align;
 import static org.agrona.CloseHelper.closeAll;
 import static io.aeron.benchmarks.aeron.AeronUtil.*;
 
 /**
  * Implementation of the {@link MessageTransceiver} interface for benchmarking
  * live recording of the remote stream to local archive. Used together with the {@link EchoNode}.
+ * <p>
+ * Messages are only consumed once the archive reports them as recorded, therefore the lag between the publication
+ * position and the recording position is tracked as a separate histogram (in bytes) and saved as
+ * {@code live-recording-client-recording-lag.hdr} into the logs directory. In addition, the persist latency, i.e. the
+ * time from sending a batch of messages until the recording position covers it, is saved next to the RTT histogram
+ * with the {@code -persist-latency.hdr} suffix.
+ * <p>
+ * The recording position is taken from the recording events by default, setting
+ * {@link AeronUtil#LIVE_RECORDING_POSITION_COUNTER_PROP_NAME} reads the {@link RecordingPos} counter directly instead,
+ * which avoids the hop over the recording events channel, see {@link RecordingPositionTracker}.
  */
 public final class LiveRecordingMessageTransceiver extends MessageTransceiver implements ControlledFragmentHandler
 {
-    private long recordingPosition = NULL_POSITION;
-    private long recordingPositionConsumed = NULL_POSITION;
-    private long recordingId;
     private final boolean ownsArchiveClient;
 
     private final ImageControlledFragmentAssembler messageHandler = new ImageControlledFragmentAssembler(this);
     private final ArchivingMediaDriver archivingMediaDriver;
     private final AeronArchive aeronArchive;
     private final MutableInteger receiverIndex = new MutableInteger();
+    private final NanoClock nanoClock;
 
     private ExclusivePublication publication;
     private final BufferClaim bufferClaim = new BufferClaim();
 
-    private Subscription recordingEventsSubscription;
-    private RecordingEventsAdapter recordingEventsAdapter;
+    private RecordingPositionTracker recordingPositionTracker;
     private Subscription subscription;
     private Image image;
+    private CountersSampler countersSampler;
     private Path logsDir;
+    private Path outputDirectory;
+    private String outputFileNamePrefix;
 
     public LiveRecordingMessageTransceiver(final NanoClock nanoClock, final ValueRecorder valueRecorder)
     {
@@ -87,6 +93,7 @@ public final class LiveRecordingMessageTransceiver extends MessageTransceiver im
         final boolean ownsArchiveClient)
     {
         super(nanoClock, valueRecorder);
+        this.nanoClock = nanoClock;
         this.archivingMediaDriver = archivingMediaDriver;
         this.aeronArchive = aeronArchive;
         this.ownsArchiveClient = ownsArchiveClient;
@@ -95,9 +102,10 @@ public final class LiveRecordingMessageTransceiver extends MessageTransceiver im
     public void init(final Configuration configuration)
     {
         logsDir = configuration.logsDir();
+        outputDirectory = configuration.outputDirectory();
+        outputFileNamePrefix = configuration.outputFileNamePrefix();
 
-        final AeronArchive.Context context = aeronArchive.context();
-        final Aeron aeron = context.aeron();
+        final Aeron aeron = aeronArchive.context().aeron();
 
         subscription = aeron.addSubscription(sourceChannel(), sourceStreamId());
 
@@ -105,28 +113,33 @@ public final class LiveRecordingMessageTransceiver extends MessageTransceiver im
         final int sendStreamId = destinationStreamId();
         publication = aeron.addExclusivePublication(sendChannel, sendStreamId);
 
-        recordingEventsSubscription = aeron.addSubscription(
-            context.recordingEventsChannel(), context.recordingEventsStreamId());
-
-        recordingEventsAdapter = new RecordingEventsAdapter(
-            new LiveRecordingEventsListener(this), recordingEventsSubscription, FRAGMENT_LIMIT);
+        recordingPositionTracker = new RecordingPositionTracker(nanoClock, publication);
+        if (!liveRecordingPositionCounter())
+        {
+            recordingPositionTracker.subscribeToRecordingEvents(aeronArchive);
+        }
 
         awaitConnected(
-            () -> recordingEventsSubscription.isConnected() && subscription.isConnected() && publication.isConnected(),
+            () -> recordingPositionTracker.isConnected() && subscription.isConnected() && publication.isConnected(),
             connectionTimeoutNs(),
             SystemNanoClock.INSTANCE);
 
         final int publicationSessionId = publication.sessionId();
         final String channel = addSessionId(sendChannel, publicationSessionId);
         aeronArchive.startRecording(channel, sendStreamId, LOCAL, true);
-        recordingId = awaitRecordingStart(aeron, publicationSessionId, aeronArchive.archiveId());
+        recordingPositionTracker.trackRecording(
+            aeronArchive, awaitRecordingStart(aeron, publicationSessionId, aeronArchive.archiveId()));
 
         image = subscription.imageAtIndex(0);
+        countersSampler = CountersSampler.launchIfConfigured(aeron.countersReader(), configuration);
     }
 
     public void destroy()
     {
+        closeAll(countersSampler);
         final String prefix = "live-recording-client-";
+        recordingPositionTracker.saveRecordingLagHistogram(logsDir, prefix);
+        recordingPositionTracker.savePersistLatencyHistogram(outputDirectory, outputFileNamePrefix + "-");
         AeronUtil.dumpArchiveErrors(
             archivingMediaDriver.archive.context().archiveDir(),
             logsDir.resolve(prefix + "archive-errors.txt"));
@@ -135,7 +148,7 @@ public final class LiveRecordingMessageTransceiver extends MessageTransceiver im
             logsDir.resolve(prefix + "aeron-stat.txt"),
             logsDir.resolve(prefix + "errors.txt"));
 
-        closeAll(publication, recordingEventsSubscription, subscription);
+        closeAll(publication, recordingPositionTracker, subscription);
 
         if (ownsArchiveClient)
         {
@@ -145,19 +158,18 @@ public final class LiveRecordingMessageTransceiver extends MessageTransceiver im
 
     public int send(final int numberOfMessages, final int messageLength, final long timestamp, final long checksum)
     {
-        return sendMessages(
+        final int sent = sendMessages(
             publication, bufferClaim, numberOfMessages, messageLength, timestamp, checksum, receiverIndex, 1);
+        recordingPositionTracker.onSent(sent, timestamp);
+
+        return sent;
     }
 
     public void receive()
     {
-        if (recordingPositionConsumed == recordingPosition)
+        if (!recordingPositionTracker.pollRecordingPosition())
         {
-            recordingEventsAdapter.poll();
-            if (recordingPositionConsumed == recordingPosition)
-            {
-                return; // no new recording events
-            }
+            return; // no new recording progress
         }
 
         final int fragments = image.controlledPoll(messageHandler, FRAGMENT_LIMIT);
@@ -167,10 +179,15 @@ public final class LiveRecordingMessageTransceiver extends MessageTransceiver im
         }
     }
 
+    protected void onWarmupComplete()
+    {
+        recordingPositionTracker.reset();
+    }
+
     public ControlledFragmentHandler.Action onFragment(
         final DirectBuffer buffer, final int offset, final int length, final Header header)
     {
-        if (recordingPositionConsumed == recordingPosition)
+        if (recordingPositionTracker.isConsumed())
         {
             return ABORT;
         }
@@ -178,49 +195,8 @@ public final class LiveRecordingMessageTransceiver extends MessageTransceiver im
         final long timestamp = buffer.getLong(offset, LITTLE_ENDIAN);
         final long checksum = buffer.getLong(offset + length - SIZE_OF_LONG, LITTLE_ENDIAN);
         onMessageReceived(timestamp, checksum);
-        recordingPositionConsumed += align(length, FRAME_ALIGNMENT);
+        recordingPositionTracker.consume(length);
 
         return CONTINUE;
     }
-
-    static final class LiveRecordingEventsListener implements RecordingEventsListener
-    {
-        private final LiveRecordingMessageTransceiver messageTransceiver;
-
-        LiveRecordingEventsListener(final LiveRecordingMessageTransceiver messageTransceiver)
-        {
-            this.messageTransceiver = messageTransceiver;
-        }
-
-        public void onStart(
-            final long recordingId,
-            final long startPosition,
-            final int sessionId,
-            final int streamId,
-            final String channel,
-            final String sourceIdentity)
-        {
-        }
-
-        public void onProgress(final long recordingId, final long startPosition, final long position)
-        {
-            if (recordingId == messageTransceiver.recordingId)
-            {
-                if (NULL_POSITION == messageTransceiver.recordingPositionConsumed)
-                {
-                    messageTransceiver.recordingPositionConsumed = startPosition;
-                }
-
-                messageTransceiver.recordingPosition = position;
-            }
-        }
-
-        public void onStop(final long recordingId, final long startPosition, final long stopPosition)
-        {
-            if (recordingId == messageTransceiver.recordingId)
-            {
-                messageTransceiver.recordingPosition = stopPosition;
-            }
-        }
-    }
 }
@@ -58,6 +58,7 @@ public final class LiveReplayMessageTransceiver extends MessageTransceiver
             onMessageReceived(timestamp, checksum);
         });
     private final MutableInteger receiverIndex = new MutableInteger();
+    private CountersSampler countersSampler;
     private Path logsDir;
 
     public LiveReplayMessageTransceiver(
@@ -93,7 +94,7 @@ public final class LiveReplayMessageTransceiver extends MessageTransceiver
 
         final long recordingId = findLastRecordingId(aeronArchive, recordChannel(), recordStream());
 
-        final String replayChannel = sourceChannel();
+        final String replayChannel = tuneReplayChannel(sourceChannel());
         final int replayStreamId = sourceStreamId();
         final long replaySessionId = replayFullRecording(aeronArchive, recordingId, replayChannel, replayStreamId);
 
@@ -103,10 +104,12 @@ public final class LiveReplayMessageTransceiver extends MessageTransceiver
         awaitConnected(subscription::isConnected, connectionTimeoutNs, clock);
 
         image = subscription.imageAtIndex(0);
+        countersSampler = CountersSampler.launchIfConfigured(aeron.countersReader(), configuration);
     }
 
     public void destroy()
     {
+        closeAll(countersSampler);
         final String prefix = "live-replay-client-";
         AeronUtil.dumpAeronStats(
             aeronArchive.context().aeron().context().cncFile(),
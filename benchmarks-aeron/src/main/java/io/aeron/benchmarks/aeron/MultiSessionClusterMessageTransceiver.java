@@ -0,0 +1,255 @@
+/*
+ * Copyright 2015-2025 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.aeron.benchmarks.aeron;
+
+import io.aeron.Aeron;
+import io.aeron.Publication;
+import io.aeron.benchmarks.Configuration;
+import io.aeron.benchmarks.MessageTransceiver;
+import io.aeron.benchmarks.PersistedHistogram;
+import io.aeron.cluster.client.AeronCluster;
+import io.aeron.cluster.client.EgressListener;
+import io.aeron.cluster.codecs.EventCode;
+import io.aeron.driver.MediaDriver;
+import io.aeron.exceptions.AeronException;
+import io.aeron.logbuffer.BufferClaim;
+import io.aeron.logbuffer.Header;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.ValueRecorder;
+import org.agrona.BitUtil;
+import org.agrona.CloseHelper;
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.EpochNanoClock;
+import org.agrona.concurrent.NanoClock;
+import org.agrona.concurrent.SystemEpochNanoClock;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+import static io.aeron.benchmarks.PersistedHistogram.FILE_EXTENSION;
+import static io.aeron.benchmarks.aeron.AeronUtil.*;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+
+/**
+ * Cluster client which opens {@link AeronUtil#clusterSessions()} sessions over one Aeron client and sends the messages
+ * to them in turn, i.e. the send schedule is spread evenly across the sessions. The aggregated latency is recorded as
+ * usual while the latency of every session, excluding the warmup, is saved next to it as
+ * {@code <prefix>-session-<index>.hdr}. The egress endpoint port of every session is offset by its index as in
+ * {@link AeronUtil#receiverChannel(String, int)}.
+ */
+public final class MultiSessionClusterMessageTransceiver extends MessageTransceiver
+{
+    private final BufferClaim bufferClaim = new BufferClaim();
+    private final EpochNanoClock epochNanoClock = new SystemEpochNanoClock();
+    private final NanoClock nanoClock;
+    private final MediaDriver mediaDriver;
+    private final AeronCluster.Context aeronClusterContext;
+    private Path logsDir;
+    private Path outputDirectory;
+    private String outputFileNamePrefix;
+    private int nextSession;
+    private Aeron aeron;
+    private Session[] sessions;
+    private CountersSampler countersSampler;
+
+    public MultiSessionClusterMessageTransceiver(final NanoClock nanoClock, final ValueRecorder valueRecorder)
+    {
+        this(nanoClock, valueRecorder, launchEmbeddedMediaDriverIfConfigured(), new AeronCluster.Context());
+    }
+
+    public MultiSessionClusterMessageTransceiver(
+        final NanoClock nanoClock,
+        final ValueRecorder valueRecorder,
+        final MediaDriver mediaDriver,
+        final AeronCluster.Context aeronClusterContext)
+    {
+        super(nanoClock, valueRecorder);
+        this.nanoClock = nanoClock;
+        this.mediaDriver = mediaDriver;
+        this.aeronClusterContext = aeronClusterContext.clone();
+    }
+
+    public void init(final Configuration configuration)
+    {
+        logsDir = configuration.logsDir();
+        outputDirectory = configuration.outputDirectory();
+        outputFileNamePrefix = configuration.outputFileNamePrefix();
+        validateMessageLength(configuration.messageLength());
+
+        aeron = Aeron.connect(new Aeron.Context().aeronDirectoryName(aeronClusterContext.aeronDirectoryName()));
+        final String egressChannel = aeronClusterContext.egressChannel();
+        sessions = new Session[clusterSessions()];
+        for (int i = 0; i < sessions.length; i++)
+        {
+            final Session session = new Session();
+            sessions[i] = session;
+            session.aeronCluster = AeronCluster.connect(aeronClusterContext.clone()
+                .aeron(aeron)
+                .ownsAeronClient(false)
+                .egressChannel(null == egressChannel ? null : receiverChannel(egressChannel, i))
+                .egressListener(session));
+        }
+
+        for (final Session session : sessions)
+        {
+            while (true)
+            {
+                final Publication publication = session.aeronCluster.ingressPublication();
+                if (null != publication && publication.isConnected())
+                {
+                    break;
+                }
+                else
+                {
+                    session.aeronCluster.pollEgress();
+                    yieldUninterruptedly();
+                }
+            }
+        }
+
+        countersSampler = CountersSampler.launchIfConfigured(aeron.countersReader(), configuration);
+    }
+
+    public void destroy()
+    {
+        CloseHelper.close(countersSampler);
+        if (null != sessions)
+        {
+            for (int i = 0; i < sessions.length; i++)
+            {
+                if (null != sessions[i])
+                {
+                    saveSessionHistogram(outputDirectory, outputFileNamePrefix + "-", i);
+                    CloseHelper.close(sessions[i].aeronCluster);
+                }
+            }
+        }
+
+        if (null != aeron)
+        {
+            final String prefix = "cluster-client-";
+            AeronUtil.dumpAeronStats(
+                aeron.context().cncFile(),
+                logsDir.resolve(prefix + "aeron-stat.txt"),
+                logsDir.resolve(prefix + "errors.txt"));
+        }
+        CloseHelper.closeAll(aeron, mediaDriver);
+    }
+
+    public int send(final int numberOfMessages, final int messageLength, final long timestamp, final long checksum)
+    {
+        int count = 0;
+        final Session[] sessions = this.sessions;
+        final BufferClaim bufferClaim = this.bufferClaim;
+        final long ingressTimeNs = epochNanoClock.nanoTime();
+
+        for (int i = 0; i < numberOfMessages; i++)
+        {
+            final long result = sessions[nextSession].aeronCluster.tryClaim(messageLength, bufferClaim);
+            if (result < 0)
+            {
+                checkPublicationResult(result);
+                break;
+            }
+
+            final MutableDirectBuffer buffer = bufferClaim.buffer();
+            final int msgOffset = bufferClaim.offset() + AeronCluster.SESSION_HEADER_LENGTH;
+            buffer.putLong(msgOffset, timestamp, LITTLE_ENDIAN);
+            putIngressTime(buffer, msgOffset, ingressTimeNs);
+            buffer.putLong(msgOffset + messageLength - SIZE_OF_LONG, checksum, LITTLE_ENDIAN);
+            bufferClaim.commit();
+            nextSession = BitUtil.next(nextSession, sessions.length);
+            count++;
+        }
+
+        return count;
+    }
+
+    public void receive()
+    {
+        for (final Session session : sessions)
+        {
+            session.aeronCluster.pollEgress();
+        }
+    }
+
+    protected void onWarmupComplete()
+    {
+        for (final Session session : sessions)
+        {
+            session.histogram.reset();
+        }
+    }
+
+    /**
+     * Save the latency histogram of a session as {@code <prefix>session-<index>.hdr}.
+     *
+     * @param outputDir    where to save the histogram.
+     * @param prefix       of the file name.
+     * @param sessionIndex of the session.
+     * @return created file.
+     */
+    Path saveSessionHistogram(final Path outputDir, final String prefix, final int sessionIndex)
+    {
+        try
+        {
+            return PersistedHistogram.saveToFile(
+                sessions[sessionIndex].histogram,
+                outputDir.resolve(prefix + "session-" + sessionIndex + FILE_EXTENSION));
+        }
+        catch (final IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    final class Session implements EgressListener
+    {
+        private final Histogram histogram = new Histogram(3);
+        private AeronCluster aeronCluster;
+
+        public void onMessage(
+            final long clusterSessionId,
+            final long timestamp,
+            final DirectBuffer buffer,
+            final int offset,
+            final int length,
+            final Header header)
+        {
+            final long msgTimestamp = buffer.getLong(offset, LITTLE_ENDIAN);
+            final long checksum = buffer.getLong(offset + length - SIZE_OF_LONG, LITTLE_ENDIAN);
+            histogram.recordValue(nanoClock.nanoTime() - msgTimestamp);
+            onMessageReceived(msgTimestamp, checksum);
+        }
+
+        public void onSessionEvent(
+            final long correlationId,
+            final long clusterSessionId,
+            final long leadershipTermId,
+            final int leaderMemberId,
+            final EventCode code,
+            final String detail)
+        {
+            if (code == EventCode.ERROR)
+            {
+                throw new AeronException("Error from Cluster: " + detail);
+            }
+        }
+    }
+}
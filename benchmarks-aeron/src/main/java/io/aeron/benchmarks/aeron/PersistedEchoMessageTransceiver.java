@@ -0,0 +1,265 @@
+/*
+ * Copyright 2015-2025 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.aeron.benchmarks.aeron;
+
+import io.aeron.Aeron;
+import io.aeron.ExclusivePublication;
+import io.aeron.Image;
+import io.aeron.ImageControlledFragmentAssembler;
+import io.aeron.Subscription;
+import io.aeron.archive.client.AeronArchive;
+import io.aeron.archive.codecs.SourceLocation;
+import io.aeron.archive.status.RecordingPos;
+import io.aeron.logbuffer.BufferClaim;
+import io.aeron.logbuffer.ControlledFragmentHandler;
+import io.aeron.logbuffer.Header;
+import org.HdrHistogram.ValueRecorder;
+import org.agrona.DirectBuffer;
+import org.agrona.collections.MutableInteger;
+import org.agrona.concurrent.NanoClock;
+import org.agrona.concurrent.SystemNanoClock;
+import io.aeron.benchmarks.Configuration;
+import io.aeron.benchmarks.MessageTransceiver;
+
+import java.nio.file.Path;
+
+import static io.aeron.Aeron.NULL_VALUE;
+import static io.aeron.ChannelUri.addSessionId;
+import static io.aeron.archive.client.AeronArchive.connect;
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
+import static java.lang.System.getProperty;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+import static org.agrona.CloseHelper.closeAll;
+import static io.aeron.benchmarks.aeron.AeronUtil.*;
+
+/**
+ * Implementation of the {@link MessageTransceiver} interface for benchmarking a persisted echo, i.e. a message is only
+ * received once it was echoed back by the {@link EchoNode} and the archive has recorded it. The data path is the same
+ * for every {@link Topology}, only the placement of the archive which records the stream sent by the client differs:
+ * <ul>
+ *     <li>{@link Topology#CLIENT} - archive on the client which records the publication locally.</li>
+ *     <li>{@link Topology#SERVER} - archive on the echo host which records the stream from the shared endpoint.</li>
+ *     <li>{@link Topology#ARCHIVE_HOST} - archive on a separate host which records the stream as another
+ *     destination of a multi-destination publication.</li>
+ * </ul>
+ * The {@code aeron.archive.control.channel} is expected to point to the archive of the chosen topology and the remote
+ * archives subscribe to the stream via {@link AeronUtil#PERSISTED_ECHO_RECORD_CHANNEL_PROP_NAME}. The result files
+ * are named the same for every topology, i.e. the persist latency is saved next to the RTT histogram with the
+ * {@code -persist-latency.hdr} suffix and the recording lag as {@code persisted-echo-client-recording-lag.hdr} into
+ * the logs directory.
+ * <p>
+ * The recording position is taken from the recording events, which a remote archive has to publish on a channel
+ * reachable from the client. Only the client topology can read the {@link RecordingPos} counter instead, see
+ * {@link AeronUtil#LIVE_RECORDING_POSITION_COUNTER_PROP_NAME}.
+ */
+public final class PersistedEchoMessageTransceiver extends MessageTransceiver implements ControlledFragmentHandler
+{
+    enum Topology
+    {
+        CLIENT("client", SourceLocation.LOCAL),
+        SERVER("server", SourceLocation.REMOTE),
+        ARCHIVE_HOST("archive-host", SourceLocation.REMOTE);
+
+        final String topologyName;
+        final SourceLocation sourceLocation;
+
+        Topology(final String topologyName, final SourceLocation sourceLocation)
+        {
+            this.topologyName = topologyName;
+            this.sourceLocation = sourceLocation;
+        }
+
+        static Topology fromName(final String topologyName)
+        {
+            for (final Topology topology : values())
+            {
+                if (topology.topologyName.equals(topologyName))
+                {
+                    return topology;
+                }
+            }
+
+            throw new IllegalArgumentException("unknown topology: " + topologyName);
+        }
+
+        static Topology fromSystemProperties()
+        {
+            return fromName(getProperty(PERSISTED_ECHO_TOPOLOGY_PROP_NAME, CLIENT.topologyName));
+        }
+    }
+
+    private long recordingSubscriptionId = NULL_VALUE;
+    private final boolean ownsArchiveClient;
+
+    private final ImageControlledFragmentAssembler messageHandler = new ImageControlledFragmentAssembler(this);
+    private final ArchivingMediaDriver archivingMediaDriver;
+    private final AeronArchive aeronArchive;
+    private final MutableInteger receiverIndex = new MutableInteger();
+    private final NanoClock nanoClock;
+
+    private ExclusivePublication publication;
+    private final BufferClaim bufferClaim = new BufferClaim();
+
+    private RecordingPositionTracker recordingPositionTracker;
+    private Subscription subscription;
+    private Image image;
+    private CountersSampler countersSampler;
+    private Path logsDir;
+    private Path outputDirectory;
+    private String outputFileNamePrefix;
+
+    public PersistedEchoMessageTransceiver(final NanoClock nanoClock, final ValueRecorder valueRecorder)
+    {
+        this(nanoClock, valueRecorder, launchDriver(Topology.fromSystemProperties()), connect(), true);
+    }
+
+    PersistedEchoMessageTransceiver(
+        final NanoClock nanoClock,
+        final ValueRecorder valueRecorder,
+        final ArchivingMediaDriver archivingMediaDriver,
+        final AeronArchive aeronArchive,
+        final boolean ownsArchiveClient)
+    {
+        super(nanoClock, valueRecorder);
+        this.nanoClock = nanoClock;
+        this.archivingMediaDriver = archivingMediaDriver;
+        this.aeronArchive = aeronArchive;
+        this.ownsArchiveClient = ownsArchiveClient;
+    }
+
+    public void init(final Configuration configuration)
+    {
+        logsDir = configuration.logsDir();
+        outputDirectory = configuration.outputDirectory();
+        outputFileNamePrefix = configuration.outputFileNamePrefix();
+        final Topology topology = Topology.fromSystemProperties();
+
+        final Aeron aeron = aeronArchive.context().aeron();
+
+        subscription = aeron.addSubscription(sourceChannel(), sourceStreamId());
+
+        final String sendChannel = destinationChannel();
+        final int sendStreamId = destinationStreamId();
+        publication = aeron.addExclusivePublication(sendChannel, sendStreamId);
+
+        recordingPositionTracker = new RecordingPositionTracker(nanoClock, publication);
+        if (Topology.CLIENT != topology || !liveRecordingPositionCounter())
+        {
+            recordingPositionTracker.subscribeToRecordingEvents(aeronArchive);
+        }
+
+        awaitConnected(
+            () -> recordingPositionTracker.isConnected() && subscription.isConnected() && publication.isConnected(),
+            connectionTimeoutNs(),
+            SystemNanoClock.INSTANCE);
+
+        // a remote archive records the stream from its own endpoint, hence the record channel as seen from the archive
+        final String recordChannel = Topology.CLIENT == topology ? sendChannel : persistedEchoRecordChannel();
+        final int publicationSessionId = publication.sessionId();
+        recordingSubscriptionId = aeronArchive.startRecording(
+            addSessionId(recordChannel, publicationSessionId), sendStreamId, topology.sourceLocation, true);
+        recordingPositionTracker.trackRecording(
+            aeronArchive,
+            findLastRecordingId(
+                aeronArchive, recordingChannelFragment(recordChannel), sendStreamId, publicationSessionId));
+
+        image = subscription.imageAtIndex(0);
+        countersSampler = CountersSampler.launchIfConfigured(aeron.countersReader(), configuration);
+    }
+
+    public void destroy()
+    {
+        closeAll(countersSampler);
+        final String prefix = "persisted-echo-client-";
+        recordingPositionTracker.saveRecordingLagHistogram(logsDir, prefix);
+        recordingPositionTracker.savePersistLatencyHistogram(outputDirectory, outputFileNamePrefix + "-");
+        if (null != archivingMediaDriver.archive)
+        {
+            AeronUtil.dumpArchiveErrors(
+                archivingMediaDriver.archive.context().archiveDir(),
+                logsDir.resolve(prefix + "archive-errors.txt"));
+        }
+        AeronUtil.dumpAeronStats(
+            aeronArchive.context().aeron().context().cncFile(),
+            logsDir.resolve(prefix + "aeron-stat.txt"),
+            logsDir.resolve(prefix + "errors.txt"));
+
+        // a remote archive outlives the client, i.e. it would otherwise record the next run twice
+        if (NULL_VALUE != recordingSubscriptionId)
+        {
+            aeronArchive.tryStopRecordingSubscription(recordingSubscriptionId);
+        }
+
+        closeAll(publication, recordingPositionTracker, subscription);
+
+        if (ownsArchiveClient)
+        {
+            closeAll(aeronArchive, archivingMediaDriver);
+        }
+    }
+
+    public int send(final int numberOfMessages, final int messageLength, final long timestamp, final long checksum)
+    {
+        final int sent = sendMessages(
+            publication, bufferClaim, numberOfMessages, messageLength, timestamp, checksum, receiverIndex, 1);
+        recordingPositionTracker.onSent(sent, timestamp);
+
+        return sent;
+    }
+
+    public void receive()
+    {
+        if (!recordingPositionTracker.pollRecordingPosition())
+        {
+            return; // no new recording progress
+        }
+
+        final int fragments = image.controlledPoll(messageHandler, FRAGMENT_LIMIT);
+        if (0 == fragments && image.isClosed())
+        {
+            throw new IllegalStateException("image closed unexpectedly");
+        }
+    }
+
+    protected void onWarmupComplete()
+    {
+        recordingPositionTracker.reset();
+    }
+
+    public ControlledFragmentHandler.Action onFragment(
+        final DirectBuffer buffer, final int offset, final int length, final Header header)
+    {
+        if (recordingPositionTracker.isConsumed())
+        {
+            return ABORT;
+        }
+
+        final long timestamp = buffer.getLong(offset, LITTLE_ENDIAN);
+        final long checksum = buffer.getLong(offset + length - SIZE_OF_LONG, LITTLE_ENDIAN);
+        onMessageReceived(timestamp, checksum);
+        recordingPositionTracker.consume(length);
+
+        return CONTINUE;
+    }
+
+    private static ArchivingMediaDriver launchDriver(final Topology topology)
+    {
+        return Topology.CLIENT == topology ?
+            launchArchivingMediaDriver() : ArchivingMediaDriver.launchDriverWithoutArchive();
+    }
+}
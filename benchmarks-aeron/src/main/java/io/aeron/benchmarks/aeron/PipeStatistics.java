@@ -0,0 +1,87 @@
+/*
+ * Copyright 2015-2025 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.aeron.benchmarks.aeron;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Work done by a pipe which re-publishes a subscription into a publication, see
+ * {@link AeronUtil#pipeMessages(io.aeron.Subscription, io.aeron.ExclusivePublication,
+ * java.util.concurrent.atomic.AtomicBoolean, PipeStatistics)}. As the pipe thread is spinning the CPU usage of the
+ * process does not tell how much of it was actual work, therefore only the time spent in the polls which moved data
+ * is accumulated.
+ */
+final class PipeStatistics
+{
+    private final String pipeName;
+    private long bytes;
+    private long polls;
+    private long busyTimeNs;
+
+    PipeStatistics(final String pipeName)
+    {
+        this.pipeName = pipeName;
+    }
+
+    void onWork(final long bytes, final long durationNs)
+    {
+        this.bytes += bytes;
+        this.polls++;
+        this.busyTimeNs += durationNs;
+    }
+
+    long bytes()
+    {
+        return bytes;
+    }
+
+    long polls()
+    {
+        return polls;
+    }
+
+    long busyTimeNs()
+    {
+        return busyTimeNs;
+    }
+
+    /**
+     * Save the statistics as CSV file with a header line.
+     *
+     * @param file to write.
+     * @return created file.
+     */
+    Path save(final Path file)
+    {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file, US_ASCII)))
+        {
+            writer.println("pipe,bytes,polls,busy_time_ns");
+            writer.println(pipeName + "," + bytes + "," + polls + "," + busyTimeNs);
+        }
+        catch (final IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+
+        return file;
+    }
+}
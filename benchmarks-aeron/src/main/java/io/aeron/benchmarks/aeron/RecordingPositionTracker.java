@@ -0,0 +1,295 @@
+/*
+ * Copyright 2015-2025 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.aeron.benchmarks.aeron;
+
+import io.aeron.Aeron;
+import io.aeron.ExclusivePublication;
+import io.aeron.Subscription;
+import io.aeron.archive.client.AeronArchive;
+import io.aeron.archive.client.RecordingEventsAdapter;
+import io.aeron.archive.client.RecordingEventsListener;
+import io.aeron.archive.status.RecordingPos;
+import io.aeron.benchmarks.PersistedHistogram;
+import org.HdrHistogram.Histogram;
+import org.agrona.collections.LongArrayQueue;
+import org.agrona.concurrent.NanoClock;
+import org.agrona.concurrent.SystemNanoClock;
+import org.agrona.concurrent.status.CountersReader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+import static io.aeron.Aeron.NULL_VALUE;
+import static io.aeron.archive.client.AeronArchive.NULL_POSITION;
+import static io.aeron.benchmarks.PersistedHistogram.FILE_EXTENSION;
+import static io.aeron.benchmarks.aeron.AeronUtil.FRAGMENT_LIMIT;
+import static io.aeron.benchmarks.aeron.AeronUtil.awaitConnected;
+import static io.aeron.benchmarks.aeron.AeronUtil.connectionTimeoutNs;
+import static io.aeron.logbuffer.FrameDescriptor.FRAME_ALIGNMENT;
+import static org.agrona.BitUtil.align;
+import static org.agrona.CloseHelper.closeAll;
+import static org.agrona.concurrent.status.CountersReader.NULL_COUNTER_ID;
+
+/**
+ * Tracks the recording position of a publication for the message transceivers which only consume a message once the
+ * archive reports it as recorded, i.e. the {@link LiveRecordingMessageTransceiver} and the
+ * {@link PersistedEchoMessageTransceiver}.
+ * <p>
+ * The recording position is taken from the recording events, unless {@link #trackRecording(AeronArchive, long)} is
+ * called without {@link #subscribeToRecordingEvents(AeronArchive)}, in which case the {@link RecordingPos} counter is
+ * read directly. On every new recording position the lag to the publication position is recorded (in bytes) as well
+ * as the persist latency, i.e. the time from sending a batch of messages until the recording position covers it.
+ */
+final class RecordingPositionTracker implements RecordingEventsListener, AutoCloseable
+{
+    private final Histogram recordingLagHistogram = new Histogram(3);
+    private final Histogram persistLatencyHistogram = new Histogram(3);
+    private final LongArrayQueue sentPositions = new LongArrayQueue(NULL_POSITION);
+    private final LongArrayQueue sentTimestamps = new LongArrayQueue(NULL_POSITION);
+    private final NanoClock nanoClock;
+    private final ExclusivePublication publication;
+    private long recordingId = NULL_VALUE;
+    private long recordingPosition = NULL_POSITION;
+    private long recordingPositionConsumed = NULL_POSITION;
+    private Subscription recordingEventsSubscription;
+    private RecordingEventsAdapter recordingEventsAdapter;
+    private CountersReader countersReader;
+    private int recordingPositionCounterId = NULL_COUNTER_ID;
+
+    RecordingPositionTracker(final NanoClock nanoClock, final ExclusivePublication publication)
+    {
+        this.nanoClock = nanoClock;
+        this.publication = publication;
+    }
+
+    /**
+     * Take the recording position from the recording events of the archive.
+     *
+     * @param aeronArchive which records the publication.
+     */
+    void subscribeToRecordingEvents(final AeronArchive aeronArchive)
+    {
+        final AeronArchive.Context context = aeronArchive.context();
+        recordingEventsSubscription = context.aeron().addSubscription(
+            context.recordingEventsChannel(), context.recordingEventsStreamId());
+        recordingEventsAdapter = new RecordingEventsAdapter(this, recordingEventsSubscription, FRAGMENT_LIMIT);
+    }
+
+    /**
+     * Is the recording events subscription connected, if any.
+     *
+     * @return {@code true} if the recording position can be tracked.
+     */
+    boolean isConnected()
+    {
+        return null == recordingEventsSubscription || recordingEventsSubscription.isConnected();
+    }
+
+    /**
+     * Start tracking the recording of the publication. Without the recording events it awaits the
+     * {@link RecordingPos} counter of the recording, i.e. the archive must be local.
+     *
+     * @param aeronArchive which records the publication.
+     * @param recordingId  of the recording.
+     */
+    void trackRecording(final AeronArchive aeronArchive, final long recordingId)
+    {
+        this.recordingId = recordingId;
+
+        if (null == recordingEventsSubscription)
+        {
+            final Aeron aeron = aeronArchive.context().aeron();
+            countersReader = aeron.countersReader();
+            awaitConnected(
+                () ->
+                {
+                    recordingPositionCounterId =
+                        RecordingPos.findCounterIdByRecording(countersReader, recordingId, aeronArchive.archiveId());
+                    return NULL_COUNTER_ID != recordingPositionCounterId;
+                },
+                connectionTimeoutNs(),
+                SystemNanoClock.INSTANCE);
+            recordingPositionConsumed = aeronArchive.getStartPosition(recordingId);
+            recordingPosition = recordingPositionConsumed;
+        }
+    }
+
+    /**
+     * Track the messages sent to the publication.
+     *
+     * @param sent      number of messages sent.
+     * @param timestamp of the messages.
+     */
+    void onSent(final int sent, final long timestamp)
+    {
+        if (sent > 0)
+        {
+            sentPositions.offerLong(publication.position());
+            sentTimestamps.offerLong(timestamp);
+        }
+    }
+
+    /**
+     * Poll for a new recording position unless the last one is not consumed yet.
+     *
+     * @return {@code true} if there is a recorded position to consume.
+     */
+    boolean pollRecordingPosition()
+    {
+        if (recordingPositionConsumed == recordingPosition)
+        {
+            if (NULL_COUNTER_ID != recordingPositionCounterId)
+            {
+                final long position = countersReader.getCounterValue(recordingPositionCounterId);
+                if (position > recordingPosition)
+                {
+                    onRecordingPosition(position);
+                }
+            }
+            else
+            {
+                recordingEventsAdapter.poll();
+            }
+        }
+
+        return recordingPositionConsumed != recordingPosition;
+    }
+
+    /**
+     * Is everything up to the recording position consumed, i.e. the next fragment is not recorded yet.
+     *
+     * @return {@code true} if the recording position is consumed.
+     */
+    boolean isConsumed()
+    {
+        return recordingPositionConsumed == recordingPosition;
+    }
+
+    /**
+     * Consume a recorded fragment.
+     *
+     * @param length of the fragment.
+     */
+    void consume(final int length)
+    {
+        recordingPositionConsumed += align(length, FRAME_ALIGNMENT);
+    }
+
+    /**
+     * Reset the recording lag and persist latency histograms, e.g. to exclude the warmup.
+     */
+    void reset()
+    {
+        recordingLagHistogram.reset();
+        persistLatencyHistogram.reset();
+        sentPositions.clear();
+        sentTimestamps.clear();
+    }
+
+    /**
+     * Save the persist latency histogram as {@code <prefix>persist-latency.hdr}.
+     *
+     * @param outputDir where to save the histogram.
+     * @param prefix    of the file name.
+     * @return created file.
+     */
+    Path savePersistLatencyHistogram(final Path outputDir, final String prefix)
+    {
+        try
+        {
+            return PersistedHistogram.saveToFile(
+                persistLatencyHistogram, outputDir.resolve(prefix + "persist-latency" + FILE_EXTENSION));
+        }
+        catch (final IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Save the recording lag histogram as {@code <prefix>recording-lag.hdr}.
+     *
+     * @param outputDir where to save the histogram.
+     * @param prefix    of the file name.
+     * @return created file.
+     */
+    Path saveRecordingLagHistogram(final Path outputDir, final String prefix)
+    {
+        try
+        {
+            return PersistedHistogram.saveToFile(
+                recordingLagHistogram, outputDir.resolve(prefix + "recording-lag" + FILE_EXTENSION));
+        }
+        catch (final IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public void close()
+    {
+        closeAll(recordingEventsSubscription);
+    }
+
+    public void onStart(
+        final long recordingId,
+        final long startPosition,
+        final int sessionId,
+        final int streamId,
+        final String channel,
+        final String sourceIdentity)
+    {
+    }
+
+    public void onProgress(final long recordingId, final long startPosition, final long position)
+    {
+        if (recordingId == this.recordingId)
+        {
+            if (NULL_POSITION == recordingPositionConsumed)
+            {
+                recordingPositionConsumed = startPosition;
+            }
+
+            onRecordingPosition(position);
+        }
+    }
+
+    public void onStop(final long recordingId, final long startPosition, final long stopPosition)
+    {
+        if (recordingId == this.recordingId)
+        {
+            recordingPosition = stopPosition;
+        }
+    }
+
+    private void onRecordingPosition(final long position)
+    {
+        recordingPosition = position;
+        recordingLagHistogram.recordValue(Math.max(0, publication.position() - position));
+
+        if (!sentPositions.isEmpty() && sentPositions.peekLong() <= position)
+        {
+            final long nowNs = nanoClock.nanoTime();
+            do
+            {
+                sentPositions.pollLong();
+                persistLatencyHistogram.recordValue(nowNs - sentTimestamps.pollLong());
+            }
+            while (!sentPositions.isEmpty() && sentPositions.peekLong() <= position);
+        }
+    }
+}
@@ -0,0 +1,377 @@
+/*
+ * Copyright 2015-2025 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.aeron.benchmarks.aeron;
+
+import io.aeron.Aeron;
+import io.aeron.ChannelUriStringBuilder;
+import io.aeron.ExclusivePublication;
+import io.aeron.FragmentAssembler;
+import io.aeron.Subscription;
+import io.aeron.archive.client.AeronArchive;
+import io.aeron.archive.client.ReplayMerge;
+import io.aeron.driver.MediaDriver;
+import io.aeron.logbuffer.BufferClaim;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.ValueRecorder;
+import org.agrona.collections.MutableInteger;
+import org.agrona.concurrent.NanoClock;
+import org.agrona.concurrent.SystemNanoClock;
+import io.aeron.benchmarks.Configuration;
+import io.aeron.benchmarks.MessageTransceiver;
+import io.aeron.benchmarks.PersistedHistogram;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static io.aeron.Aeron.NULL_VALUE;
+import static io.aeron.ChannelUri.addSessionId;
+import static io.aeron.CommonContext.MDC_CONTROL_MODE_MANUAL;
+import static io.aeron.CommonContext.UDP_MEDIA;
+import static io.aeron.archive.client.AeronArchive.connect;
+import static io.aeron.benchmarks.PersistedHistogram.FILE_EXTENSION;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+import static org.agrona.CloseHelper.closeAll;
+import static io.aeron.benchmarks.aeron.AeronUtil.*;
+
+/**
+ * Implementation of the {@link MessageTransceiver} interface for benchmarking a late joiner which uses
+ * {@link ReplayMerge} to move from an archive replay onto the live stream. Used together with the {@link ArchiveNode}
+ * whose record channel must be a UDP channel that the client can join, e.g. a dynamic MDC channel (the client must use
+ * the same record channel to look the recording up).
+ * <p>
+ * The subscriber joins {@link AeronUtil#REPLAY_MERGE_JOIN_DELAY_PROP_NAME} after the start of the measurement and
+ * replays the recording from its start, i.e. the history is delivered before the live messages. During the warmup
+ * messages are received via a plain subscription to the live stream instead. Every message carries a sequence number
+ * in place of the receiver index, which is used to count the duplicates and gaps at the switchover.
+ * <p>
+ * The catch-up time, i.e. the time from the join until {@link ReplayMerge#isMerged()}, is saved together with the
+ * duplicate and gap counts next to the RTT histogram with the {@code -merge.csv} suffix. The latency of the messages
+ * sent after the join is recorded separately for the messages received before and after the merge and saved with the
+ * {@code -during-merge.hdr} and {@code -after-merge.hdr} suffixes respectively.
+ */
+public final class ReplayMergeMessageTransceiver extends MessageTransceiver
+{
+    private final MediaDriver mediaDriver;
+    private final AeronArchive aeronArchive;
+    private final boolean ownsArchiveClient;
+    private final NanoClock nanoClock;
+
+    private ExclusivePublication publication;
+    private final BufferClaim bufferClaim = new BufferClaim();
+    private final MutableInteger sequence = new MutableInteger();
+
+    private Subscription warmupSubscription;
+    private final FragmentAssembler warmupHandler = new FragmentAssembler(
+        (buffer, offset, length, header) ->
+        {
+            final long timestamp = buffer.getLong(offset + TIMESTAMP_OFFSET, LITTLE_ENDIAN);
+            final long checksum = buffer.getLong(offset + length - SIZE_OF_LONG, LITTLE_ENDIAN);
+            onMessageReceived(timestamp, checksum);
+        });
+
+    private final FragmentAssembler mergeHandler = new FragmentAssembler(
+        (buffer, offset, length, header) -> onMessage(
+            buffer.getInt(offset + RECEIVER_INDEX_OFFSET, LITTLE_ENDIAN),
+            buffer.getLong(offset + TIMESTAMP_OFFSET, LITTLE_ENDIAN),
+            buffer.getLong(offset + length - SIZE_OF_LONG, LITTLE_ENDIAN)));
+    private final Histogram duringMergeLatencyHistogram = new Histogram(3);
+    private final Histogram afterMergeLatencyHistogram = new Histogram(3);
+    private long joinDelayNs;
+    private long joinDeadlineNs = NULL_VALUE;
+    private long joinTimeNs;
+    private long catchUpTimeNs = NULL_VALUE;
+    private int firstMeasuredSequence = NULL_VALUE;
+    private int joinSequence;
+    private int messagesBeforeJoin;
+    private int nextSequence;
+    private long duplicates;
+    private long gaps;
+    private boolean merged;
+
+    private long recordingId;
+    private int recordingSessionId;
+    private Subscription subscription;
+    private ReplayMerge replayMerge;
+    private CountersSampler countersSampler;
+    private Path logsDir;
+    private Path outputDirectory;
+    private String outputFileNamePrefix;
+
+    public ReplayMergeMessageTransceiver(final NanoClock nanoClock, final ValueRecorder valueRecorder)
+    {
+        this(nanoClock, valueRecorder, launchEmbeddedMediaDriverIfConfigured(), connect(), true);
+    }
+
+    ReplayMergeMessageTransceiver(
+        final NanoClock nanoClock,
+        final ValueRecorder valueRecorder,
+        final MediaDriver mediaDriver,
+        final AeronArchive aeronArchive,
+        final boolean ownsArchiveClient)
+    {
+        super(nanoClock, valueRecorder);
+        this.nanoClock = nanoClock;
+        this.mediaDriver = mediaDriver;
+        this.aeronArchive = aeronArchive;
+        this.ownsArchiveClient = ownsArchiveClient;
+    }
+
+    public void init(final Configuration configuration)
+    {
+        logsDir = configuration.logsDir();
+        outputDirectory = configuration.outputDirectory();
+        outputFileNamePrefix = configuration.outputFileNamePrefix();
+        joinDelayNs = replayMergeJoinDelayNs();
+        final Aeron aeron = aeronArchive.context().aeron();
+
+        if (configuration.warmupIterations() > 0)
+        {
+            warmupSubscription = aeron.addSubscription(replayMergeLiveDestination(), recordStream());
+        }
+
+        publication = aeron.addExclusivePublication(destinationChannel(), destinationStreamId());
+
+        awaitConnected(
+            () -> publication.isConnected() && (null == warmupSubscription || warmupSubscription.isConnected()),
+            connectionTimeoutNs(),
+            SystemNanoClock.INSTANCE);
+
+        recordingId = findLastRecordingId(aeronArchive, recordingChannelFragment(recordChannel()), recordStream());
+        final MutableInteger sessionId = new MutableInteger();
+        aeronArchive.listRecording(
+            recordingId,
+            (controlSessionId,
+            correlationId,
+            recordingId,
+            startTimestamp,
+            stopTimestamp,
+            startPosition,
+            stopPosition,
+            initialTermId,
+            segmentFileLength,
+            termBufferLength,
+            mtuLength,
+            recordedSessionId,
+            streamId,
+            strippedChannel,
+            originalChannel,
+            sourceIdentity) -> sessionId.set(recordedSessionId));
+        recordingSessionId = sessionId.get();
+
+        countersSampler = CountersSampler.launchIfConfigured(aeron.countersReader(), configuration);
+    }
+
+    public void destroy()
+    {
+        closeAll(countersSampler);
+        final String prefix = outputFileNamePrefix + "-";
+        saveMergeStatistics(outputDirectory, prefix);
+        saveLatencyHistograms(outputDirectory, prefix);
+        AeronUtil.dumpAeronStats(
+            aeronArchive.context().aeron().context().cncFile(),
+            logsDir.resolve("replay-merge-client-aeron-stat.txt"),
+            logsDir.resolve("replay-merge-client-errors.txt"));
+
+        closeAll(replayMerge, subscription, warmupSubscription, publication);
+
+        if (ownsArchiveClient)
+        {
+            closeAll(aeronArchive, mediaDriver);
+        }
+    }
+
+    public int send(final int numberOfMessages, final int messageLength, final long timestamp, final long checksum)
+    {
+        if (NULL_VALUE == firstMeasuredSequence && null == warmupSubscription)
+        {
+            firstMeasuredSequence = sequence.get();
+            joinDeadlineNs = nanoClock.nanoTime() + joinDelayNs;
+        }
+
+        // with an unbounded receiver count the receiver index is the sequence number of the message
+        final int sent = sendMessages(
+            publication,
+            bufferClaim,
+            numberOfMessages,
+            messageLength,
+            timestamp,
+            checksum,
+            sequence,
+            Integer.MAX_VALUE);
+
+        return sent;
+    }
+
+    public void receive()
+    {
+        if (null != replayMerge)
+        {
+            final int fragments = replayMerge.poll(mergeHandler, FRAGMENT_LIMIT);
+            if (!merged && replayMerge.isMerged())
+            {
+                merged = true;
+                catchUpTimeNs = nanoClock.nanoTime() - joinTimeNs;
+            }
+            else if (0 == fragments && replayMerge.hasFailed())
+            {
+                throw new IllegalStateException("replay merge failed");
+            }
+        }
+        else if (null != warmupSubscription)
+        {
+            warmupSubscription.poll(warmupHandler, FRAGMENT_LIMIT);
+        }
+        else if (NULL_VALUE != joinDeadlineNs && nanoClock.nanoTime() >= joinDeadlineNs)
+        {
+            join();
+        }
+    }
+
+    protected void onWarmupComplete()
+    {
+        // the warmup messages were received by now, the late joiner replays them but excludes them from the run
+        closeAll(warmupSubscription);
+        warmupSubscription = null;
+    }
+
+    /**
+     * Number of messages which were received more than once by the late joiner.
+     *
+     * @return number of duplicate messages.
+     */
+    long duplicates()
+    {
+        return duplicates;
+    }
+
+    /**
+     * Number of messages which were skipped by the late joiner.
+     *
+     * @return number of missing messages.
+     */
+    long gaps()
+    {
+        return gaps;
+    }
+
+    /**
+     * Time from the join until the replay was merged with the live stream.
+     *
+     * @return catch-up time in nanoseconds or {@link Aeron#NULL_VALUE} if not merged.
+     */
+    long catchUpTimeNs()
+    {
+        return catchUpTimeNs;
+    }
+
+    /**
+     * Save the catch-up time, the number of messages sent before the join and the duplicate and gap counts as
+     * {@code <prefix>merge.csv}.
+     *
+     * @param outputDir where to save the file.
+     * @param prefix    of the file name.
+     * @return created file.
+     */
+    Path saveMergeStatistics(final Path outputDir, final String prefix)
+    {
+        final Path file = outputDir.resolve(prefix + "merge.csv");
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file, US_ASCII)))
+        {
+            writer.println("join_delay_ns,catch_up_time_ns,messages_before_join,duplicates,gaps");
+            writer.println(
+                joinDelayNs + "," + catchUpTimeNs + "," + messagesBeforeJoin + "," + duplicates + "," + gaps);
+        }
+        catch (final IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+
+        return file;
+    }
+
+    /**
+     * Save the latency histograms of the messages sent after the join as {@code <prefix>during-merge.hdr} and
+     * {@code <prefix>after-merge.hdr}.
+     *
+     * @param outputDir where to save the histograms.
+     * @param prefix    of the file names.
+     */
+    void saveLatencyHistograms(final Path outputDir, final String prefix)
+    {
+        try
+        {
+            PersistedHistogram.saveToFile(
+                duringMergeLatencyHistogram, outputDir.resolve(prefix + "during-merge" + FILE_EXTENSION));
+            PersistedHistogram.saveToFile(
+                afterMergeLatencyHistogram, outputDir.resolve(prefix + "after-merge" + FILE_EXTENSION));
+        }
+        catch (final IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void join()
+    {
+        final Aeron aeron = aeronArchive.context().aeron();
+        final String subscriptionChannel = new ChannelUriStringBuilder()
+            .media(UDP_MEDIA)
+            .controlMode(MDC_CONTROL_MODE_MANUAL)
+            .sessionId(recordingSessionId)
+            .build();
+        subscription = aeron.addSubscription(subscriptionChannel, recordStream());
+
+        joinSequence = sequence.get();
+        messagesBeforeJoin = joinSequence - firstMeasuredSequence;
+        joinTimeNs = nanoClock.nanoTime();
+        replayMerge = new ReplayMerge(
+            subscription,
+            aeronArchive,
+            addSessionId(replayChannel(), recordingSessionId),
+            replayMergeReplayDestination(),
+            replayMergeLiveDestination(),
+            recordingId,
+            aeronArchive.getStartPosition(recordingId));
+    }
+
+    private void onMessage(final int messageSequence, final long timestamp, final long checksum)
+    {
+        if (messageSequence < nextSequence)
+        {
+            duplicates++;
+            return;
+        }
+
+        gaps += messageSequence - nextSequence;
+        nextSequence = messageSequence + 1;
+
+        if (messageSequence >= firstMeasuredSequence)
+        {
+            onMessageReceived(timestamp, checksum);
+
+            if (messageSequence >= joinSequence)
+            {
+                final Histogram histogram = merged ? afterMergeLatencyHistogram : duringMergeLatencyHistogram;
+                histogram.recordValue(nanoClock.nanoTime() - timestamp);
+            }
+        }
+    }
+}
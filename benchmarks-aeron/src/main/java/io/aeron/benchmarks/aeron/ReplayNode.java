@@ -16,8 +16,6 @@
 package io.aeron.benchmarks.aeron;
 
 import io.aeron.Aeron;
-import io.aeron.ChannelUri;
-import io.aeron.CommonContext;
 import io.aeron.ExclusivePublication;
 import io.aeron.Image;
 import io.aeron.Subscription;
@@ -70,6 +68,17 @@ public final class ReplayNode implements AutoCloseable, Runnable
         final AeronArchive aeronArchive,
         final boolean ownsArchiveClient,
         final int receiverIndex)
+    {
+        this(running, mediaDriver, aeronArchive, ownsArchiveClient, receiverIndex, tuneReplayChannel(replayChannel()));
+    }
+
+    ReplayNode(
+        final AtomicBoolean running,
+        final MediaDriver mediaDriver,
+        final AeronArchive aeronArchive,
+        final boolean ownsArchiveClient,
+        final int receiverIndex,
+        final String replayChannel)
     {
         this.running = running;
         this.mediaDriver = mediaDriver;
@@ -80,14 +89,9 @@ public final class ReplayNode implements AutoCloseable, Runnable
 
         publication = aeron.addExclusivePublication(sourceChannel(), sourceStreamId());
 
-        final ChannelUri uri = ChannelUri.parse(recordChannel());
-        final String alias = uri.get(CommonContext.ALIAS_PARAM_NAME);
-        final long recordingId = findLastRecordingId(
-            aeronArchive,
-            null != alias ? CommonContext.ALIAS_PARAM_NAME + "=" + alias : "aeron:" + uri.media(),
-            recordStream());
+        final long recordingId =
+            findLastRecordingId(aeronArchive, recordingChannelFragment(recordChannel()), recordStream());
 
-        final String replayChannel = replayChannel();
         final int replayStreamId = replayStreamId();
         final long replaySessionId = replayFullRecording(aeronArchive, recordingId, replayChannel, replayStreamId);
         this.sessionId = (int)replaySessionId;
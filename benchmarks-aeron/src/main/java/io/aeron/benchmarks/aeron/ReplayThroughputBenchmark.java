@@ -0,0 +1,705 @@
+/*
+ * Copyright 2015-2025 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.aeron.benchmarks.aeron;
+
+import io.aeron.Aeron;
+import io.aeron.ChannelUri;
+import io.aeron.ExclusivePublication;
+import io.aeron.Image;
+import io.aeron.Subscription;
+import io.aeron.archive.client.AeronArchive;
+import io.aeron.archive.status.RecordingPos;
+import io.aeron.benchmarks.Configuration;
+import io.aeron.benchmarks.PersistedHistogram;
+import io.aeron.logbuffer.FragmentHandler;
+import io.aeron.logbuffer.Header;
+import org.HdrHistogram.Histogram;
+import org.agrona.DirectBuffer;
+import org.agrona.collections.MutableInteger;
+import org.agrona.concurrent.IdleStrategy;
+import org.agrona.concurrent.NanoClock;
+import org.agrona.concurrent.SystemNanoClock;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.status.CountersReader;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import static io.aeron.CommonContext.ENDPOINT_PARAM_NAME;
+import static io.aeron.CommonContext.IPC_MEDIA;
+import static io.aeron.archive.client.AeronArchive.NULL_POSITION;
+import static io.aeron.archive.codecs.SourceLocation.LOCAL;
+import static io.aeron.archive.codecs.SourceLocation.REMOTE;
+import static io.aeron.benchmarks.PersistedHistogram.FILE_EXTENSION;
+import static io.aeron.benchmarks.PropertiesUtil.loadPropertiesFiles;
+import static io.aeron.benchmarks.PropertiesUtil.mergeWithSystemProperties;
+import static io.aeron.benchmarks.aeron.AeronUtil.*;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.file.StandardOpenOption.*;
+import static org.agrona.CloseHelper.closeAll;
+import static org.agrona.PropertyAction.PRESERVE;
+import static org.agrona.PropertyAction.REPLACE;
+
+/**
+ * Measures how fast an archive can serve historical data to catching up consumers. First a configurable volume is
+ * recorded on the {@link AeronUtil#recordChannel()} (or existing recordings of at least that length are reused), then
+ * rounds of concurrent bounded replays of a configurable length are started from random positions within the
+ * recordings. For every replay the time to first byte, i.e. from requesting the replay until the first fragment is
+ * received, the duration and the throughput are captured, and for every number of concurrent replays the total read
+ * bandwidth of the archive. All replays are consumed via one subscription of this process.
+ * <p>
+ * Replays start at a term boundary of the recording, since an arbitrary position must be frame aligned and the frames
+ * of a recording are not at fixed offsets because of the padding at the end of the terms. A UDP record channel is
+ * recorded as a remote source, i.e. the archive can run on another host.
+ * <p>
+ * With {@link ReplayThroughputConfiguration#archiveNode()} the volume is published to an {@link ArchiveNode} instead,
+ * which pipes it into its own recording, and the replays are served from that recording.
+ * <p>
+ * In the {@link ReplayThroughputConfiguration#continuous()} mode the replays run until the benchmark is stopped, which
+ * allows putting a replay load on the archive used by another benchmark, e.g. to see how the latency of a live
+ * recording degrades while a large replay is running concurrently.
+ */
+public final class ReplayThroughputBenchmark implements AutoCloseable
+{
+    private static final double MB = 1024.0 * 1024.0;
+    private static final long RECORDING_POSITION_POLL_INTERVAL_NS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Histogram timeToFirstByteHistogram = new Histogram(3);
+    private final Histogram concurrencyTimeToFirstByteHistogram = new Histogram(3);
+    private final Histogram concurrencyReplayTimeHistogram = new Histogram(3);
+    private final List<Recording> recordings = new ArrayList<>();
+    private final ReplayThroughputConfiguration configuration;
+    private final AtomicBoolean running;
+    private final ArchivingMediaDriver archivingMediaDriver;
+    private final AeronArchive aeronArchive;
+    private final boolean ownsArchiveClient;
+    private final NanoClock nanoClock;
+    private ExclusivePublication archiveNodePublication;
+    private long totalBytes;
+    private long totalDurationNs;
+    private int replays;
+
+    ReplayThroughputBenchmark(final ReplayThroughputConfiguration configuration, final AtomicBoolean running)
+    {
+        this(configuration, running, embeddedMediaDriver() ? launchArchivingMediaDriver() : null);
+    }
+
+    private ReplayThroughputBenchmark(
+        final ReplayThroughputConfiguration configuration,
+        final AtomicBoolean running,
+        final ArchivingMediaDriver archivingMediaDriver)
+    {
+        this(configuration, running, archivingMediaDriver, AeronArchive.connect(), true, SystemNanoClock.INSTANCE);
+    }
+
+    ReplayThroughputBenchmark(
+        final ReplayThroughputConfiguration configuration,
+        final AtomicBoolean running,
+        final ArchivingMediaDriver archivingMediaDriver,
+        final AeronArchive aeronArchive,
+        final boolean ownsArchiveClient,
+        final NanoClock nanoClock)
+    {
+        this.configuration = configuration;
+        this.running = running;
+        this.archivingMediaDriver = archivingMediaDriver;
+        this.aeronArchive = aeronArchive;
+        this.ownsArchiveClient = ownsArchiveClient;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Find the existing recordings of at least {@link ReplayThroughputConfiguration#recordingLength()} and record new
+     * ones until there are {@link ReplayThroughputConfiguration#recordings()} of them.
+     *
+     * @return recordings to replay.
+     */
+    List<Recording> prepareRecordings()
+    {
+        if (configuration.archiveNode())
+        {
+            prepareArchiveNodeRecording();
+        }
+        else
+        {
+            findRecordings();
+            while (recordings.size() < configuration.recordings() && running.get())
+            {
+                record();
+            }
+        }
+
+        for (final Recording recording : recordings)
+        {
+            System.out.println("Replaying " + recording);
+        }
+
+        return Collections.unmodifiableList(recordings);
+    }
+
+    /**
+     * Run the rounds of concurrent bounded replays for every configured concurrency. The result of every replay is
+     * written to {@code <prefix>replays.csv} and the total read bandwidth for every concurrency to
+     * {@code <prefix>bandwidth.csv}.
+     *
+     * @param outputDir where to write the results.
+     * @param prefix    of the file names.
+     */
+    void run(final Path outputDir, final String prefix)
+    {
+        if (recordings.isEmpty())
+        {
+            prepareRecordings();
+        }
+
+        final Aeron aeron = aeronArchive.context().aeron();
+        final String replayChannel = replayChannel();
+        final int replayStreamId = replayStreamId();
+
+        try (Subscription subscription = aeron.addSubscription(replayChannel, replayStreamId);
+            PrintWriter replaysWriter = newWriter(outputDir.resolve(prefix + "replays.csv"));
+            PrintWriter bandwidthWriter = newWriter(outputDir.resolve(prefix + "bandwidth.csv")))
+        {
+            final String channel = resolveChannel(subscription, replayChannel);
+            replaysWriter.println("concurrency,recording id,start position,length,time to first byte (us)," +
+                "duration (ms),throughput (MB/s)");
+            bandwidthWriter.println("concurrency,replays,bytes,bandwidth (MB/s)," +
+                "time to first byte p50 (us),time to first byte p99 (us),time to first byte max (us)," +
+                "replay time p50 (ms),replay time p99 (ms),replay time max (ms)");
+
+            for (final int concurrency : configuration.concurrency())
+            {
+                if (!running.get())
+                {
+                    break;
+                }
+
+                runConcurrency(subscription, channel, replayStreamId, concurrency, replaysWriter, bandwidthWriter);
+
+                if (configuration.continuous())
+                {
+                    break;
+                }
+            }
+        }
+        catch (final IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Histogram of the time between requesting a replay and receiving its first fragment.
+     *
+     * @return time to first byte histogram in nanoseconds.
+     */
+    Histogram timeToFirstByteHistogram()
+    {
+        return timeToFirstByteHistogram;
+    }
+
+    /**
+     * Number of the completed replays.
+     *
+     * @return number of the completed replays.
+     */
+    int replays()
+    {
+        return replays;
+    }
+
+    /**
+     * Save the time to first byte histogram as {@code <prefix>time-to-first-byte.hdr}.
+     *
+     * @param outputDir where to save the histogram.
+     * @param prefix    of the file name.
+     * @return created file.
+     */
+    Path saveTimeToFirstByteHistogram(final Path outputDir, final String prefix)
+    {
+        try
+        {
+            return PersistedHistogram.saveToFile(
+                timeToFirstByteHistogram, outputDir.resolve(prefix + "time-to-first-byte" + FILE_EXTENSION));
+        }
+        catch (final IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    void printSummary(final PrintStream out)
+    {
+        out.format("Replays: %d, bytes: %d, throughput: %.2f MB/s%n",
+            replays, totalBytes, mbPerSecond(totalBytes, totalDurationNs));
+        out.println("Time to first byte (us):");
+        timeToFirstByteHistogram.outputPercentileDistribution(out, 1000.0);
+    }
+
+    public void close()
+    {
+        closeAll(archiveNodePublication);
+
+        if (ownsArchiveClient)
+        {
+            closeAll(aeronArchive, archivingMediaDriver);
+        }
+    }
+
+    private void runConcurrency(
+        final Subscription subscription,
+        final String channel,
+        final int replayStreamId,
+        final int concurrency,
+        final PrintWriter replaysWriter,
+        final PrintWriter bandwidthWriter)
+    {
+        final Replay[] replays = new Replay[concurrency];
+        for (int i = 0; i < concurrency; i++)
+        {
+            replays[i] = new Replay(recordings.get(i % recordings.size()));
+        }
+
+        concurrencyTimeToFirstByteHistogram.reset();
+        concurrencyReplayTimeHistogram.reset();
+        long bytes = 0;
+        long durationNs = 0;
+
+        for (int round = 0; running.get() && (configuration.continuous() || round < configuration.replayCount());
+            round++)
+        {
+            final long roundStartNs = nanoClock.nanoTime();
+            for (final Replay replay : replays)
+            {
+                replay.start(channel, replayStreamId);
+            }
+
+            awaitReplays(subscription, replays);
+            durationNs += nanoClock.nanoTime() - roundStartNs;
+
+            for (final Replay replay : replays)
+            {
+                bytes += replay.complete(concurrency, replaysWriter);
+            }
+            replaysWriter.flush();
+        }
+
+        final double bandwidth = mbPerSecond(bytes, durationNs);
+        System.out.format("Concurrency: %d, bytes: %d, bandwidth: %.2f MB/s%n", concurrency, bytes, bandwidth);
+        bandwidthWriter.format(Locale.UK, "%d,%d,%d,%.2f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+            concurrency,
+            concurrencyReplayTimeHistogram.getTotalCount(),
+            bytes,
+            bandwidth,
+            concurrencyTimeToFirstByteHistogram.getValueAtPercentile(50) / 1000.0,
+            concurrencyTimeToFirstByteHistogram.getValueAtPercentile(99) / 1000.0,
+            concurrencyTimeToFirstByteHistogram.getMaxValue() / 1000.0,
+            concurrencyReplayTimeHistogram.getValueAtPercentile(50) / 1_000_000.0,
+            concurrencyReplayTimeHistogram.getValueAtPercentile(99) / 1_000_000.0,
+            concurrencyReplayTimeHistogram.getMaxValue() / 1_000_000.0);
+        bandwidthWriter.flush();
+    }
+
+    private void awaitReplays(final Subscription subscription, final Replay[] replays)
+    {
+        final IdleStrategy idleStrategy = idleStrategy();
+        int active = replays.length;
+        while (active > 0 && running.get())
+        {
+            int fragments = 0;
+            for (final Replay replay : replays)
+            {
+                if (!replay.done)
+                {
+                    fragments += replay.poll(subscription);
+                    if (replay.done)
+                    {
+                        active--;
+                    }
+                }
+            }
+
+            idleStrategy.idle(fragments);
+        }
+    }
+
+    private void findRecordings()
+    {
+        aeronArchive.listRecordingsForUri(
+            0,
+            Integer.MAX_VALUE,
+            recordingChannelFragment(recordChannel()),
+            configuration.recordStreamId(),
+            (controlSessionId,
+            correlationId,
+            recordingId,
+            startTimestamp,
+            stopTimestamp,
+            startPosition,
+            stopPosition,
+            initialTermId,
+            segmentFileLength,
+            termBufferLength,
+            mtuLength,
+            sessionId,
+            streamId,
+            strippedChannel,
+            originalChannel,
+            sourceIdentity) ->
+            {
+                if (NULL_POSITION != stopPosition && stopPosition - startPosition >= configuration.recordingLength())
+                {
+                    recordings.add(new Recording(recordingId, startPosition, stopPosition, termBufferLength));
+                }
+            });
+
+        while (recordings.size() > configuration.recordings())
+        {
+            recordings.remove(0);
+        }
+    }
+
+    private void record()
+    {
+        final Aeron aeron = aeronArchive.context().aeron();
+        final String recordChannel = recordChannel();
+
+        try (ExclusivePublication publication =
+            aeron.addExclusivePublication(recordChannel, configuration.recordStreamId()))
+        {
+            final long subscriptionId = aeronArchive.startRecording(
+                ChannelUri.addSessionId(recordChannel, publication.sessionId()),
+                publication.streamId(),
+                IPC_MEDIA.equals(ChannelUri.parse(recordChannel).media()) ? LOCAL : REMOTE);
+            final long recordingId = awaitRecordingStart(aeron, publication.sessionId(), aeronArchive.archiveId());
+
+            final long startNs = nanoClock.nanoTime();
+            final long position = publish(publication, configuration.recordingLength());
+            while (recordedPosition(recordingId) < position)
+            {
+                yieldUninterruptedly();
+            }
+            final long durationNs = nanoClock.nanoTime() - startNs;
+
+            aeronArchive.stopRecording(subscriptionId);
+
+            long stopPosition;
+            while (NULL_POSITION == (stopPosition = aeronArchive.getStopPosition(recordingId)))
+            {
+                yieldUninterruptedly();
+            }
+
+            final long startPosition = aeronArchive.getStartPosition(recordingId);
+            recordings.add(new Recording(recordingId, startPosition, stopPosition, publication.termBufferLength()));
+
+            System.out.format("Recorded %d bytes in %d ms%n",
+                stopPosition - startPosition, TimeUnit.NANOSECONDS.toMillis(durationNs));
+        }
+    }
+
+    private void prepareArchiveNodeRecording()
+    {
+        final Aeron aeron = aeronArchive.context().aeron();
+        archiveNodePublication = aeron.addExclusivePublication(destinationChannel(), destinationStreamId());
+        awaitConnected(archiveNodePublication::isConnected, connectionTimeoutNs(), SystemNanoClock.INSTANCE);
+
+        final long recordingId =
+            findLastRecordingId(aeronArchive, recordingChannelFragment(recordChannel()), recordStream());
+        final MutableInteger termLength = new MutableInteger();
+        aeronArchive.listRecording(
+            recordingId,
+            (controlSessionId,
+            correlationId,
+            id,
+            startTimestamp,
+            stopTimestamp,
+            startPosition,
+            stopPosition,
+            initialTermId,
+            segmentFileLength,
+            termBufferLength,
+            mtuLength,
+            sessionId,
+            streamId,
+            strippedChannel,
+            originalChannel,
+            sourceIdentity) -> termLength.set(termBufferLength));
+
+        final long startPosition = aeronArchive.getStartPosition(recordingId);
+        if (awaitStableRecordingPosition(recordingId) - startPosition < configuration.recordingLength())
+        {
+            publish(archiveNodePublication, configuration.recordingLength());
+        }
+
+        recordings.add(new Recording(
+            recordingId, startPosition, awaitStableRecordingPosition(recordingId), termLength.get()));
+    }
+
+    private long publish(final ExclusivePublication publication, final long length)
+    {
+        final int messageLength = configuration.messageLength();
+        final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(messageLength));
+        final IdleStrategy idleStrategy = idleStrategy();
+
+        while (publication.position() < length && running.get())
+        {
+            buffer.putLong(TIMESTAMP_OFFSET, nanoClock.nanoTime(), LITTLE_ENDIAN);
+            final long result = publication.offer(buffer, 0, messageLength);
+            if (result < 0)
+            {
+                checkPublicationResult(result);
+                idleStrategy.idle();
+            }
+        }
+
+        return publication.position();
+    }
+
+    private long recordedPosition(final long recordingId)
+    {
+        final CountersReader counters = aeronArchive.context().aeron().countersReader();
+        final int counterId = RecordingPos.findCounterIdByRecording(counters, recordingId, aeronArchive.archiveId());
+        if (CountersReader.NULL_COUNTER_ID != counterId)
+        {
+            return counters.getCounterValue(counterId);
+        }
+
+        return aeronArchive.getRecordingPosition(recordingId);
+    }
+
+    private long awaitStableRecordingPosition(final long recordingId)
+    {
+        // the recording of an ArchiveNode is active and its counter is only visible on the host of the archive
+        long position = aeronArchive.getRecordingPosition(recordingId);
+        while (true)
+        {
+            LockSupport.parkNanos(RECORDING_POSITION_POLL_INTERVAL_NS);
+            final long nextPosition = aeronArchive.getRecordingPosition(recordingId);
+            if (nextPosition == position)
+            {
+                return position;
+            }
+            position = nextPosition;
+        }
+    }
+
+    private long randomStartPosition(final Recording recording)
+    {
+        final int termLength = recording.termLength;
+        final long lastStartPosition =
+            Math.max(recording.startPosition, recording.stopPosition - configuration.replayLength());
+        final long firstTermPosition = (recording.startPosition + termLength - 1) & -termLength;
+        if (firstTermPosition > lastStartPosition)
+        {
+            return recording.startPosition;
+        }
+
+        final long terms = (lastStartPosition - firstTermPosition) / termLength;
+        return firstTermPosition + ThreadLocalRandom.current().nextLong(terms + 1) * termLength;
+    }
+
+    private static double mbPerSecond(final long bytes, final long durationNs)
+    {
+        return durationNs > 0 ? bytes / MB / (durationNs / (double)TimeUnit.SECONDS.toNanos(1)) : 0.0;
+    }
+
+    private static PrintWriter newWriter(final Path file) throws IOException
+    {
+        return new PrintWriter(Files.newBufferedWriter(file, US_ASCII, WRITE, CREATE, TRUNCATE_EXISTING));
+    }
+
+    private static String resolveChannel(final Subscription subscription, final String channel)
+    {
+        final String endpoint = ChannelUri.parse(channel).get(ENDPOINT_PARAM_NAME);
+        if (null == endpoint || !endpoint.endsWith(":0"))
+        {
+            return channel;
+        }
+
+        String resolvedChannel;
+        while (null == (resolvedChannel = subscription.tryResolveChannelEndpointPort()))
+        {
+            yieldUninterruptedly();
+        }
+
+        return resolvedChannel;
+    }
+
+    /**
+     * Recording to replay.
+     */
+    static final class Recording
+    {
+        final long recordingId;
+        final long startPosition;
+        final long stopPosition;
+        final int termLength;
+
+        Recording(final long recordingId, final long startPosition, final long stopPosition, final int termLength)
+        {
+            this.recordingId = recordingId;
+            this.startPosition = startPosition;
+            this.stopPosition = stopPosition;
+            this.termLength = termLength;
+        }
+
+        public String toString()
+        {
+            return "Recording{" +
+                "recordingId=" + recordingId +
+                ", startPosition=" + startPosition +
+                ", stopPosition=" + stopPosition +
+                ", termLength=" + termLength +
+                '}';
+        }
+    }
+
+    /**
+     * Bounded replay of a recording from a random position which is polled together with the other concurrent
+     * replays.
+     */
+    private final class Replay implements FragmentHandler
+    {
+        private final Recording recording;
+        private int sessionId;
+        private Image image;
+        private long startPosition;
+        private long endPosition;
+        private long requestNs;
+        private long firstByteNs;
+        private long endNs;
+        private boolean done;
+
+        Replay(final Recording recording)
+        {
+            this.recording = recording;
+        }
+
+        void start(final String channel, final int replayStreamId)
+        {
+            startPosition = randomStartPosition(recording);
+            final long length = Math.min(configuration.replayLength(), recording.stopPosition - startPosition);
+            endPosition = startPosition + length;
+            image = null;
+            firstByteNs = 0;
+            endNs = 0;
+            done = false;
+
+            requestNs = nanoClock.nanoTime();
+            sessionId = (int)aeronArchive.startReplay(
+                recording.recordingId, startPosition, length, channel, replayStreamId);
+        }
+
+        int poll(final Subscription subscription)
+        {
+            if (null == image)
+            {
+                image = subscription.imageBySessionId(sessionId);
+                if (null == image && nanoClock.nanoTime() - requestNs > connectionTimeoutNs())
+                {
+                    throw new IllegalStateException("replay image not available: sessionId=" + sessionId);
+                }
+
+                return 0;
+            }
+
+            final int fragments = image.poll(this, FRAGMENT_LIMIT);
+            if (image.position() >= endPosition || image.isClosed())
+            {
+                endNs = nanoClock.nanoTime();
+                done = true;
+            }
+
+            return fragments;
+        }
+
+        long complete(final int concurrency, final PrintWriter writer)
+        {
+            final long bytes = null != image ? image.position() - startPosition : 0;
+            if (!done || 0 == firstByteNs || bytes <= 0)
+            {
+                return 0;
+            }
+
+            final long timeToFirstByteNs = firstByteNs - requestNs;
+            final long durationNs = Math.max(1, endNs - firstByteNs);
+
+            timeToFirstByteHistogram.recordValue(timeToFirstByteNs);
+            concurrencyTimeToFirstByteHistogram.recordValue(timeToFirstByteNs);
+            concurrencyReplayTimeHistogram.recordValue(endNs - requestNs);
+            totalBytes += bytes;
+            totalDurationNs += durationNs;
+            replays++;
+
+            writer.format(Locale.UK, "%d,%d,%d,%d,%.3f,%.3f,%.2f%n",
+                concurrency,
+                recording.recordingId,
+                startPosition,
+                bytes,
+                timeToFirstByteNs / 1000.0,
+                durationNs / 1_000_000.0,
+                mbPerSecond(bytes, durationNs));
+
+            return bytes;
+        }
+
+        public void onFragment(final DirectBuffer buffer, final int offset, final int length, final Header header)
+        {
+            if (0 == firstByteNs)
+            {
+                firstByteNs = nanoClock.nanoTime();
+            }
+        }
+    }
+
+    public static void main(final String[] args)
+    {
+        mergeWithSystemProperties(PRESERVE, loadPropertiesFiles(new Properties(), REPLACE, args));
+        final Path outputDir = Configuration.resolveLogsDir();
+
+        final AtomicBoolean running = new AtomicBoolean(true);
+        installSignalHandler(() -> running.set(false));
+
+        final ReplayThroughputConfiguration configuration = ReplayThroughputConfiguration.fromSystemProperties();
+        System.out.println(configuration);
+
+        try (ReplayThroughputBenchmark benchmark = new ReplayThroughputBenchmark(configuration, running))
+        {
+            Thread.currentThread().setName("load-test-rig");
+
+            final String prefix = "replay-throughput-";
+            benchmark.prepareRecordings();
+            benchmark.run(outputDir, prefix);
+            benchmark.saveTimeToFirstByteHistogram(outputDir, prefix);
+            benchmark.printSummary(System.out);
+        }
+    }
+}
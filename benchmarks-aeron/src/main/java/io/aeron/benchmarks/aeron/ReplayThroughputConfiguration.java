@@ -0,0 +1,302 @@
+/*
+ * Copyright 2015-2025 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.aeron.benchmarks.aeron;
+
+import java.util.Arrays;
+
+import static io.aeron.benchmarks.Configuration.MESSAGE_LENGTH_PROP_NAME;
+import static io.aeron.benchmarks.aeron.AeronUtil.*;
+import static org.agrona.Strings.isEmpty;
+import static org.agrona.SystemUtil.getSizeAsLong;
+
+/**
+ * Configuration of the {@link ReplayThroughputBenchmark}.
+ */
+public final class ReplayThroughputConfiguration
+{
+    private final long recordingLength;
+    private final int recordStreamId;
+    private final int messageLength;
+    private final long replayLength;
+    private final int replayCount;
+    private final boolean continuous;
+    private final int[] concurrency;
+    private final int recordings;
+    private final boolean archiveNode;
+
+    private ReplayThroughputConfiguration(final Builder builder)
+    {
+        this.recordingLength = builder.recordingLength;
+        this.recordStreamId = builder.recordStreamId;
+        this.messageLength = builder.messageLength;
+        this.replayLength = builder.replayLength;
+        this.replayCount = builder.replayCount;
+        this.continuous = builder.continuous;
+        this.concurrency = builder.concurrency.clone();
+        this.recordings = builder.recordings;
+        this.archiveNode = builder.archiveNode;
+    }
+
+    /**
+     * Minimum length of the recording in bytes, an existing recording of at least this length is reused.
+     *
+     * @return minimum length of the recording in bytes.
+     */
+    public long recordingLength()
+    {
+        return recordingLength;
+    }
+
+    /**
+     * Stream id of the pre-recorded volume, the channel is the {@link AeronUtil#recordChannel()}.
+     *
+     * @return stream id of the recording.
+     */
+    public int recordStreamId()
+    {
+        return recordStreamId;
+    }
+
+    /**
+     * Length of the messages used to fill the recording.
+     *
+     * @return length of the messages in bytes.
+     */
+    public int messageLength()
+    {
+        return messageLength;
+    }
+
+    /**
+     * Length of every bounded replay.
+     *
+     * @return length of a replay in bytes.
+     */
+    public long replayLength()
+    {
+        return replayLength;
+    }
+
+    /**
+     * Number of replays to run unless {@link #continuous()}.
+     *
+     * @return number of replays.
+     */
+    public int replayCount()
+    {
+        return replayCount;
+    }
+
+    /**
+     * Should the replays run until stopped, e.g. to put a load on the archive of another benchmark.
+     *
+     * @return {@code true} if the replays run until stopped.
+     */
+    public boolean continuous()
+    {
+        return continuous;
+    }
+
+    /**
+     * Numbers of the concurrent replays to sweep through, i.e. {@link #replayCount()} rounds of that many concurrent
+     * replays are run for every entry. In the {@link #continuous()} mode only the first entry is used.
+     *
+     * @return numbers of the concurrent replays.
+     */
+    public int[] concurrency()
+    {
+        return concurrency.clone();
+    }
+
+    /**
+     * Number of the distinct recordings to replay, the concurrent replays are spread across them.
+     *
+     * @return number of the distinct recordings.
+     */
+    public int recordings()
+    {
+        return recordings;
+    }
+
+    /**
+     * Should the volume be fed through an {@link ArchiveNode}, i.e. published on the
+     * {@link AeronUtil#destinationChannel()} and replayed from the recording of the {@code ArchiveNode}.
+     *
+     * @return {@code true} if the recording of an {@code ArchiveNode} is replayed.
+     */
+    public boolean archiveNode()
+    {
+        return archiveNode;
+    }
+
+    public String toString()
+    {
+        return "ReplayThroughputConfiguration{" +
+            "recordingLength=" + recordingLength +
+            ", recordStreamId=" + recordStreamId +
+            ", messageLength=" + messageLength +
+            ", replayLength=" + replayLength +
+            ", replayCount=" + replayCount +
+            ", continuous=" + continuous +
+            ", concurrency=" + Arrays.toString(concurrency) +
+            ", recordings=" + recordings +
+            ", archiveNode=" + archiveNode +
+            '}';
+    }
+
+    public static final class Builder
+    {
+        private long recordingLength = 1024 * 1024 * 1024;
+        private int recordStreamId = 99990;
+        private int messageLength = 1344;
+        private long replayLength = 64 * 1024 * 1024;
+        private int replayCount = 10;
+        private boolean continuous;
+        private int[] concurrency = { 1 };
+        private int recordings = 1;
+        private boolean archiveNode;
+
+        public Builder recordingLength(final long recordingLength)
+        {
+            this.recordingLength = recordingLength;
+            return this;
+        }
+
+        public Builder recordStreamId(final int recordStreamId)
+        {
+            this.recordStreamId = recordStreamId;
+            return this;
+        }
+
+        public Builder messageLength(final int messageLength)
+        {
+            this.messageLength = messageLength;
+            return this;
+        }
+
+        public Builder replayLength(final long replayLength)
+        {
+            this.replayLength = replayLength;
+            return this;
+        }
+
+        public Builder replayCount(final int replayCount)
+        {
+            this.replayCount = replayCount;
+            return this;
+        }
+
+        public Builder continuous(final boolean continuous)
+        {
+            this.continuous = continuous;
+            return this;
+        }
+
+        public Builder concurrency(final int... concurrency)
+        {
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        public Builder recordings(final int recordings)
+        {
+            this.recordings = recordings;
+            return this;
+        }
+
+        public Builder archiveNode(final boolean archiveNode)
+        {
+            this.archiveNode = archiveNode;
+            return this;
+        }
+
+        public ReplayThroughputConfiguration build()
+        {
+            validateMessageLength(messageLength);
+
+            if (replayLength <= 0 || replayLength > recordingLength)
+            {
+                throw new IllegalArgumentException(
+                    "replay length must be in range (0, " + recordingLength + "]: " + replayLength);
+            }
+
+            if (replayCount <= 0)
+            {
+                throw new IllegalArgumentException("replay count must be positive: " + replayCount);
+            }
+
+            if (0 == concurrency.length)
+            {
+                throw new IllegalArgumentException("concurrency must not be empty");
+            }
+
+            for (final int replays : concurrency)
+            {
+                if (replays <= 0)
+                {
+                    throw new IllegalArgumentException(
+                        "concurrency must be positive: " + Arrays.toString(concurrency));
+                }
+            }
+
+            if (recordings <= 0)
+            {
+                throw new IllegalArgumentException("number of recordings must be positive: " + recordings);
+            }
+
+            if (archiveNode && recordings > 1)
+            {
+                throw new IllegalArgumentException("archive node has only one recording: " + recordings);
+            }
+
+            return new ReplayThroughputConfiguration(this);
+        }
+    }
+
+    public static ReplayThroughputConfiguration fromSystemProperties()
+    {
+        final Builder builder = new Builder();
+
+        builder.recordingLength(getSizeAsLong(REPLAY_THROUGHPUT_RECORDING_LENGTH_PROP_NAME, builder.recordingLength));
+        builder.recordStreamId(Integer.getInteger(REPLAY_THROUGHPUT_RECORD_STREAM_PROP_NAME, builder.recordStreamId));
+        builder.messageLength(Integer.getInteger(MESSAGE_LENGTH_PROP_NAME, builder.messageLength));
+        builder.replayLength(getSizeAsLong(REPLAY_THROUGHPUT_REPLAY_LENGTH_PROP_NAME, builder.replayLength));
+        builder.replayCount(Integer.getInteger(REPLAY_THROUGHPUT_REPLAY_COUNT_PROP_NAME, builder.replayCount));
+        builder.continuous(Boolean.getBoolean(REPLAY_THROUGHPUT_CONTINUOUS_PROP_NAME));
+        builder.recordings(Integer.getInteger(REPLAY_THROUGHPUT_RECORDINGS_PROP_NAME, builder.recordings));
+        builder.archiveNode(Boolean.getBoolean(REPLAY_THROUGHPUT_ARCHIVE_NODE_PROP_NAME));
+
+        final String concurrency = System.getProperty(REPLAY_THROUGHPUT_CONCURRENCY_PROP_NAME);
+        if (!isEmpty(concurrency))
+        {
+            builder.concurrency(parseConcurrency(concurrency));
+        }
+
+        return builder.build();
+    }
+
+    static int[] parseConcurrency(final String concurrency)
+    {
+        final String[] values = concurrency.split(",");
+        final int[] result = new int[values.length];
+        for (int i = 0; i < values.length; i++)
+        {
+            result[i] = Integer.parseInt(values[i].trim());
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,295 @@
+/*
+ * Copyright 2015-2025 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.aeron.benchmarks.aeron;
+
+import io.aeron.Aeron;
+import io.aeron.ExclusivePublication;
+import io.aeron.archive.client.AeronArchive;
+import io.aeron.archive.client.RecordingSignalConsumer;
+import io.aeron.archive.client.ReplicationParams;
+import io.aeron.archive.status.RecordingPos;
+import io.aeron.logbuffer.BufferClaim;
+import org.HdrHistogram.ValueRecorder;
+import org.agrona.collections.LongArrayQueue;
+import org.agrona.collections.MutableInteger;
+import org.agrona.collections.Long2LongHashMap;
+import org.agrona.concurrent.NanoClock;
+import org.agrona.concurrent.SystemNanoClock;
+import org.agrona.concurrent.status.CountersReader;
+import io.aeron.benchmarks.Configuration;
+import io.aeron.benchmarks.MessageTransceiver;
+
+import java.nio.file.Path;
+
+import static io.aeron.Aeron.NULL_VALUE;
+import static io.aeron.archive.client.AeronArchive.NULL_POSITION;
+import static io.aeron.archive.client.AeronArchive.connect;
+import static io.aeron.logbuffer.FrameDescriptor.FRAME_ALIGNMENT;
+import static io.aeron.protocol.DataHeaderFlyweight.HEADER_LENGTH;
+import static org.agrona.BitUtil.align;
+import static org.agrona.CloseHelper.closeAll;
+import static org.agrona.concurrent.status.CountersReader.NULL_COUNTER_ID;
+import static org.agrona.concurrent.status.CountersReader.RECORD_ALLOCATED;
+import static io.aeron.benchmarks.aeron.AeronUtil.*;
+
+/**
+ * Implementation of the {@link MessageTransceiver} interface for benchmarking archive replication, e.g. keeping a DR
+ * archive in sync. Used together with the {@link ArchiveNode} which records the stream into the source archive, while
+ * the local (destination) archive replicates that recording via {@link AeronArchive#replicate} and merges with the live
+ * stream if {@link AeronUtil#REPLICATION_LIVE_DESTINATION_PROP_NAME} is set.
+ * <p>
+ * A message is received once the position of the replicated recording (read from its {@link RecordingPos} counter)
+ * covers it, i.e. the measured latency is from the publication to the replicated position on the destination. As the
+ * {@link ArchiveNode} re-publishes every message with the term length of the record channel, the position of every
+ * message in the recorded stream is tracked by applying the same term padding.
+ */
+public final class ReplicationMessageTransceiver extends MessageTransceiver
+{
+    private final ArchivingMediaDriver archivingMediaDriver;
+    private final AeronArchive aeronArchive;
+    private final boolean ownsArchiveClient;
+
+    private ExclusivePublication publication;
+    private final BufferClaim bufferClaim = new BufferClaim();
+    private final MutableInteger receiverIndex = new MutableInteger();
+
+    private final LongArrayQueue sentPositions = new LongArrayQueue(NULL_POSITION);
+    private final LongArrayQueue sentTimestamps = new LongArrayQueue(NULL_POSITION);
+    private final LongArrayQueue sentCounts = new LongArrayQueue(NULL_VALUE);
+    private long recordedStreamPosition;
+    private int recordedTermLength;
+    private long checksum;
+
+    private AeronArchive sourceArchive;
+    private long replicationId = NULL_VALUE;
+    private CountersReader countersReader;
+    private int replicatedPositionCounterId = NULL_COUNTER_ID;
+    private long replicatedPosition = NULL_POSITION;
+    private CountersSampler countersSampler;
+    private Path logsDir;
+
+    public ReplicationMessageTransceiver(final NanoClock nanoClock, final ValueRecorder valueRecorder)
+    {
+        this(nanoClock, valueRecorder, launchArchivingMediaDriver(), connect(), true);
+    }
+
+    ReplicationMessageTransceiver(
+        final NanoClock nanoClock,
+        final ValueRecorder valueRecorder,
+        final ArchivingMediaDriver archivingMediaDriver,
+        final AeronArchive aeronArchive,
+        final boolean ownsArchiveClient)
+    {
+        super(nanoClock, valueRecorder);
+        this.archivingMediaDriver = archivingMediaDriver;
+        this.aeronArchive = aeronArchive;
+        this.ownsArchiveClient = ownsArchiveClient;
+    }
+
+    public void init(final Configuration configuration)
+    {
+        logsDir = configuration.logsDir();
+
+        final Aeron aeron = aeronArchive.context().aeron();
+        final long connectionTimeoutNs = connectionTimeoutNs();
+        final SystemNanoClock clock = SystemNanoClock.INSTANCE;
+
+        publication = aeron.addExclusivePublication(destinationChannel(), destinationStreamId());
+        awaitConnected(publication::isConnected, connectionTimeoutNs, clock);
+
+        final String sourceControlChannel = replicationSourceControlChannel();
+        final int sourceControlStreamId = replicationSourceControlStream();
+        sourceArchive = connect(new AeronArchive.Context()
+            .aeron(aeron)
+            .controlRequestChannel(sourceControlChannel)
+            .controlRequestStreamId(sourceControlStreamId));
+
+        final String recordingChannel = recordingChannelFragment(recordChannel());
+        final long sourceRecordingId = findLastRecordingId(sourceArchive, recordingChannel, recordStream());
+        final MutableInteger termLength = new MutableInteger();
+        sourceArchive.listRecording(
+            sourceRecordingId,
+            (controlSessionId,
+            correlationId,
+            recordingId,
+            startTimestamp,
+            stopTimestamp,
+            startPosition,
+            stopPosition,
+            initialTermId,
+            segmentFileLength,
+            termBufferLength,
+            mtuLength,
+            sessionId,
+            streamId,
+            strippedChannel,
+            originalChannel,
+            sourceIdentity) -> termLength.set(termBufferLength));
+        // the source recording may have been extended by the previous runs, i.e. the new messages follow its end
+        recordedStreamPosition = sourceArchive.getMaxRecordedPosition(sourceRecordingId);
+        recordedTermLength = termLength.get();
+
+        final long replicatedRecordingId = replicate(
+            sourceRecordingId, sourceControlStreamId, sourceControlChannel, connectionTimeoutNs, clock);
+        countersReader = aeron.countersReader();
+        final long archiveId = aeronArchive.archiveId();
+        awaitConnected(
+            () ->
+            {
+                replicatedPositionCounterId =
+                    RecordingPos.findCounterIdByRecording(countersReader, replicatedRecordingId, archiveId);
+                return NULL_COUNTER_ID != replicatedPositionCounterId;
+            },
+            connectionTimeoutNs,
+            clock);
+
+        countersSampler = CountersSampler.launchIfConfigured(countersReader, configuration);
+    }
+
+    public void destroy()
+    {
+        closeAll(countersSampler);
+        final String prefix = "replication-client-";
+        AeronUtil.dumpArchiveErrors(
+            archivingMediaDriver.archive.context().archiveDir(),
+            logsDir.resolve(prefix + "archive-errors.txt"));
+        AeronUtil.dumpAeronStats(
+            aeronArchive.context().aeron().context().cncFile(),
+            logsDir.resolve(prefix + "aeron-stat.txt"),
+            logsDir.resolve(prefix + "errors.txt"));
+
+        if (NULL_VALUE != replicationId)
+        {
+            aeronArchive.tryStopReplication(replicationId);
+        }
+
+        closeAll(sourceArchive, publication);
+
+        if (ownsArchiveClient)
+        {
+            closeAll(aeronArchive, archivingMediaDriver);
+        }
+    }
+
+    public int send(final int numberOfMessages, final int messageLength, final long timestamp, final long checksum)
+    {
+        final int sent = sendMessages(
+            publication, bufferClaim, numberOfMessages, messageLength, timestamp, checksum, receiverIndex, 1);
+
+        if (sent > 0)
+        {
+            final int frameLength = align(HEADER_LENGTH + messageLength, FRAME_ALIGNMENT);
+            for (int i = 0; i < sent; i++)
+            {
+                recordedStreamPosition = nextPosition(recordedStreamPosition, frameLength, recordedTermLength);
+            }
+
+            sentPositions.offerLong(recordedStreamPosition);
+            sentTimestamps.offerLong(timestamp);
+            sentCounts.offerLong(sent);
+            this.checksum = checksum;
+        }
+
+        return sent;
+    }
+
+    public void receive()
+    {
+        final long position = countersReader.getCounterValue(replicatedPositionCounterId);
+        if (position > replicatedPosition)
+        {
+            replicatedPosition = position;
+            while (!sentPositions.isEmpty() && sentPositions.peekLong() <= position)
+            {
+                sentPositions.pollLong();
+                final long timestamp = sentTimestamps.pollLong();
+                final long count = sentCounts.pollLong();
+                for (long i = 0; i < count; i++)
+                {
+                    onMessageReceived(timestamp, checksum);
+                }
+            }
+        }
+        else if (RECORD_ALLOCATED != countersReader.getCounterState(replicatedPositionCounterId))
+        {
+            throw new IllegalStateException("replicated recording stopped unexpectedly");
+        }
+    }
+
+    // the destination recording is reported by the recording signals of the replication, i.e. REPLICATE or EXTEND
+    private long replicate(
+        final long sourceRecordingId,
+        final int sourceControlStreamId,
+        final String sourceControlChannel,
+        final long connectionTimeoutNs,
+        final SystemNanoClock clock)
+    {
+        final AeronArchive.Context context = aeronArchive.context();
+        final RecordingSignalConsumer recordingSignalConsumer = context.recordingSignalConsumer();
+        final Long2LongHashMap recordingIdByCorrelationId = new Long2LongHashMap(NULL_VALUE);
+        context.recordingSignalConsumer(
+            (controlSessionId, correlationId, recordingId, subscriptionId, position, signal) ->
+            {
+                if (NULL_VALUE != recordingId)
+                {
+                    recordingIdByCorrelationId.put(correlationId, recordingId);
+                }
+            });
+
+        try
+        {
+            final ReplicationParams replicationParams = new ReplicationParams()
+                .liveDestination(replicationLiveDestination());
+            replicationId = aeronArchive.replicate(
+                sourceRecordingId, sourceControlStreamId, sourceControlChannel, replicationParams);
+
+            awaitConnected(
+                () ->
+                {
+                    aeronArchive.pollForRecordingSignals();
+                    return recordingIdByCorrelationId.containsKey(replicationId);
+                },
+                connectionTimeoutNs,
+                clock);
+
+            return recordingIdByCorrelationId.get(replicationId);
+        }
+        finally
+        {
+            context.recordingSignalConsumer(recordingSignalConsumer);
+        }
+    }
+
+    /**
+     * Position after appending a frame to a stream, i.e. including the padding at the end of a term if the frame does
+     * not fit into the remaining space of the term.
+     *
+     * @param position    of the stream before the frame is appended.
+     * @param frameLength aligned length of the frame including the header.
+     * @param termLength  of the stream.
+     * @return position of the stream after the frame is appended.
+     */
+    static long nextPosition(final long position, final int frameLength, final int termLength)
+    {
+        final int termOffset = (int)(position & (termLength - 1));
+        if (termOffset + frameLength > termLength)
+        {
+            return position + (termLength - termOffset) + frameLength;
+        }
+
+        return position + frameLength;
+    }
+}
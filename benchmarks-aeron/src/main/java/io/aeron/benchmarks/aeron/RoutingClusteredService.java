@@ -0,0 +1,163 @@
+/*
+ * Copyright 2015-2025 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.aeron.benchmarks.aeron;
+
+import io.aeron.ExclusivePublication;
+import io.aeron.Image;
+import io.aeron.cluster.codecs.CloseReason;
+import io.aeron.cluster.service.ClientSession;
+import io.aeron.cluster.service.Cluster;
+import io.aeron.cluster.service.ClusteredService;
+import io.aeron.logbuffer.Header;
+import org.agrona.DirectBuffer;
+import org.agrona.collections.Hashing;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Passes the session messages to the wrapped service only if they are routed to it, for running several services in
+ * one cluster. Every service consumes the whole log while only the one which the message is routed to handles it and
+ * replies. All other callbacks are passed to the wrapped service as is.
+ */
+public final class RoutingClusteredService implements ClusteredService
+{
+    /**
+     * Rule which decides the service that handles a message.
+     */
+    public enum Rule
+    {
+        /**
+         * Messages are spread across the services by hashing their log position, i.e. every service handles a
+         * partition of the messages.
+         */
+        PARTITION,
+
+        /**
+         * All messages are handled by the first service, the other services only consume the log.
+         */
+        FIRST;
+
+        /**
+         * Parse the rule from its name, e.g. {@code partition}.
+         *
+         * @param name of the rule or {@code null} for the default.
+         * @return rule.
+         */
+        public static Rule fromName(final String name)
+        {
+            if (null == name || "partition".equals(name))
+            {
+                return PARTITION;
+            }
+
+            if ("first".equals(name))
+            {
+                return FIRST;
+            }
+
+            throw new IllegalArgumentException("unknown routing rule: " + name);
+        }
+    }
+
+    private final ClusteredService delegate;
+    private final Rule rule;
+    private final int serviceId;
+    private final int serviceCount;
+
+    public RoutingClusteredService(
+        final ClusteredService delegate, final Rule rule, final int serviceId, final int serviceCount)
+    {
+        if (serviceId < 0 || serviceId >= serviceCount)
+        {
+            throw new IllegalArgumentException("serviceId must be in [0, " + serviceCount + "): " + serviceId);
+        }
+
+        this.delegate = requireNonNull(delegate, "delegate must not be null");
+        this.rule = requireNonNull(rule, "rule must not be null");
+        this.serviceId = serviceId;
+        this.serviceCount = serviceCount;
+    }
+
+    public void onStart(final Cluster cluster, final Image snapshotImage)
+    {
+        delegate.onStart(cluster, snapshotImage);
+    }
+
+    public void onSessionOpen(final ClientSession session, final long timestamp)
+    {
+        delegate.onSessionOpen(session, timestamp);
+    }
+
+    public void onSessionClose(final ClientSession session, final long timestamp, final CloseReason closeReason)
+    {
+        delegate.onSessionClose(session, timestamp, closeReason);
+    }
+
+    public void onSessionMessage(
+        final ClientSession session,
+        final long timestamp,
+        final DirectBuffer buffer,
+        final int offset,
+        final int length,
+        final Header header)
+    {
+        if (isRouted(header.position()))
+        {
+            delegate.onSessionMessage(session, timestamp, buffer, offset, length, header);
+        }
+    }
+
+    public void onTimerEvent(final long correlationId, final long timestamp)
+    {
+        delegate.onTimerEvent(correlationId, timestamp);
+    }
+
+    public void onTakeSnapshot(final ExclusivePublication snapshotPublication)
+    {
+        delegate.onTakeSnapshot(snapshotPublication);
+    }
+
+    public void onRoleChange(final Cluster.Role newRole)
+    {
+        delegate.onRoleChange(newRole);
+    }
+
+    public void onTerminate(final Cluster cluster)
+    {
+        delegate.onTerminate(cluster);
+    }
+
+    /**
+     * The wrapped service.
+     *
+     * @return wrapped service.
+     */
+    public ClusteredService delegate()
+    {
+        return delegate;
+    }
+
+    // the log position is the same on every member, so that all members route a message to the same service
+    boolean isRouted(final long logPosition)
+    {
+        if (Rule.FIRST == rule)
+        {
+            return 0 == serviceId;
+        }
+
+        return serviceId == Math.floorMod(Hashing.hash(logPosition), serviceCount);
+    }
+}
@@ -0,0 +1,672 @@
+/*
+ * Copyright 2015-2025 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.aeron.benchmarks.aeron;
+
+import io.aeron.Aeron;
+import io.aeron.ChannelUri;
+import io.aeron.CommonContext;
+import io.aeron.archive.client.AeronArchive;
+import io.aeron.benchmarks.Configuration;
+import io.aeron.benchmarks.LoadTestRig;
+import io.aeron.benchmarks.MessageTransceiver;
+import io.aeron.cluster.ConsensusModule;
+import io.aeron.cluster.RecordingLog;
+import io.aeron.cluster.client.AeronCluster;
+import io.aeron.cluster.service.ClusterMarkFile;
+import io.aeron.cluster.service.ClusteredServiceContainer;
+import io.aeron.driver.MediaDriver;
+import org.HdrHistogram.ValueRecorder;
+import org.agrona.CloseHelper;
+import org.agrona.IoUtil;
+import org.agrona.concurrent.BusySpinIdleStrategy;
+import org.agrona.concurrent.NanoClock;
+import org.agrona.concurrent.SystemNanoClock;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+
+import static io.aeron.CommonContext.IPC_CHANNEL;
+import static io.aeron.benchmarks.Configuration.MESSAGE_TRANSCEIVER_PROP_NAME;
+import static io.aeron.benchmarks.PersistedHistogram.newPersistedHistogram;
+import static io.aeron.benchmarks.PropertiesUtil.loadPropertiesFiles;
+import static io.aeron.benchmarks.PropertiesUtil.mergeWithSystemProperties;
+import static io.aeron.benchmarks.aeron.AeronUtil.*;
+import static java.lang.System.getProperty;
+import static java.lang.System.setProperty;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.agrona.LangUtil.rethrowUnchecked;
+import static org.agrona.PropertyAction.PRESERVE;
+import static org.agrona.PropertyAction.REPLACE;
+
+/**
+ * Runs a complete benchmark scenario on a single host within one JVM, i.e. the {@link LoadTestRig} together with all
+ * of its remote counterparts. The nodes use the configured channels, i.e. IPC or loopback UDP, and share one media
+ * driver with the load generator, except for the multi-destination scenarios where every receiver gets its own
+ * embedded media driver so that it is a distinct receiver for the flow control. The {@code echo-ipc} scenario pins both
+ * channels to {@code aeron:ipc}, i.e. the intra-host hop of co-located services sharing one driver. The
+ * {@code live-recording-replay-load} scenario additionally runs a {@link ReplayThroughputBenchmark} against the same
+ * archive, i.e. continuous replays of a pre-recorded volume while the live recording is measured.
+ * <p>
+ * Node threads are named the same way as in the distributed setup (e.g. {@code echo-0}, {@code archive-node},
+ * {@code replay-1}), so that they can be pinned together with the media driver and {@code load-test-rig} threads via
+ * {@link #THREAD_AFFINITY_PROP_NAME}.
+ */
+public final class SingleHostBenchmark implements AutoCloseable
+{
+    /**
+     * Name of the system property to select the {@link Scenario}, defaults to {@code echo}.
+     */
+    public static final String SCENARIO_PROP_NAME = "io.aeron.benchmarks.aeron.single.host.scenario";
+
+    /**
+     * Name of the system property to pin threads to CPU cores, e.g. {@code load-test-rig=2,echo-0=3,sender=4}.
+     */
+    public static final String THREAD_AFFINITY_PROP_NAME = "io.aeron.benchmarks.aeron.single.host.thread.affinity";
+
+    enum Scenario
+    {
+        ECHO("echo", EchoMessageTransceiver.class),
+        ECHO_IPC("echo-ipc", EchoMessageTransceiver.class),
+        ECHO_MDC("echo-mdc", EchoMessageTransceiver.class),
+        ECHO_SPY("echo-spy", EchoMessageTransceiver.class),
+        ECHO_MDS("echo-mds", EchoMessageTransceiver.class),
+        LIVE_REPLAY("live-replay", LiveReplayMessageTransceiver.class),
+        LIVE_RECORDING("live-recording", LiveRecordingMessageTransceiver.class),
+        LIVE_RECORDING_REPLAY_LOAD("live-recording-replay-load", LiveRecordingMessageTransceiver.class),
+        CLUSTER("cluster", ClusterMessageTransceiver.class),
+        CLUSTER_SNAPSHOT("cluster-snapshot", ClusterMessageTransceiver.class),
+        ARCHIVE_REPLAY_MDC("archive-replay-mdc", EchoMessageTransceiver.class);
+
+        final String scenarioName;
+        final Class<? extends MessageTransceiver> messageTransceiverClass;
+
+        Scenario(final String scenarioName, final Class<? extends MessageTransceiver> messageTransceiverClass)
+        {
+            this.scenarioName = scenarioName;
+            this.messageTransceiverClass = messageTransceiverClass;
+        }
+
+        static Scenario fromName(final String scenarioName)
+        {
+            for (final Scenario scenario : values())
+            {
+                if (scenario.scenarioName.equals(scenarioName))
+                {
+                    return scenario;
+                }
+            }
+
+            throw new IllegalArgumentException("unknown scenario: " + scenarioName);
+        }
+    }
+
+    private final AtomicBoolean running = new AtomicBoolean(true);
+    private final AtomicReference<Throwable> error = new AtomicReference<>();
+    private final List<AutoCloseable> resources = new ArrayList<>();
+    private final List<Thread> nodeThreads = new ArrayList<>();
+    private final List<Runnable> shutdownDumps = new ArrayList<>();
+    private final List<Runnable> postRunActions = new ArrayList<>();
+    private final Configuration configuration;
+    private final Path logsDir;
+    private final BiFunction<NanoClock, ValueRecorder, MessageTransceiver> transceiverFactory;
+
+    SingleHostBenchmark(final Scenario scenario, final Configuration configuration)
+    {
+        this.configuration = configuration;
+        this.logsDir = configuration.logsDir();
+
+        try
+        {
+            transceiverFactory = launch(scenario);
+            track(new ThreadPinner(
+                ThreadPinner.parse(getProperty(THREAD_AFFINITY_PROP_NAME)), connectionTimeoutNs()).start());
+        }
+        catch (final RuntimeException ex)
+        {
+            CloseHelper.quietClose(this);
+            throw ex;
+        }
+    }
+
+    /**
+     * Run the benchmark.
+     *
+     * @throws Exception in case of any error from the {@link MessageTransceiver}.
+     */
+    public void run() throws Exception
+    {
+        final LoadTestRig loadTestRig = new LoadTestRig(
+            configuration,
+            SystemNanoClock.INSTANCE,
+            newPersistedHistogram(configuration),
+            transceiverFactory,
+            System.out);
+
+        loadTestRig.run();
+
+        for (final Runnable postRunAction : postRunActions)
+        {
+            postRunAction.run();
+        }
+    }
+
+    /**
+     * Stop all the nodes and release the resources in the reverse order of their creation. Rethrows the first error
+     * raised by any of the nodes.
+     */
+    public void close()
+    {
+        running.set(false);
+        for (final Thread nodeThread : nodeThreads)
+        {
+            try
+            {
+                nodeThread.join();
+            }
+            catch (final InterruptedException ex)
+            {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        for (final Runnable shutdownDump : shutdownDumps)
+        {
+            shutdownDump.run();
+        }
+
+        final List<AutoCloseable> resources = new ArrayList<>(this.resources);
+        Collections.reverse(resources);
+        CloseHelper.closeAll(resources);
+
+        if (null != error.get())
+        {
+            rethrowUnchecked(error.get());
+        }
+    }
+
+    public static void main(final String[] args) throws Exception
+    {
+        mergeWithSystemProperties(PRESERVE, loadPropertiesFiles(new Properties(), REPLACE, args));
+
+        final Scenario scenario = Scenario.fromName(getProperty(SCENARIO_PROP_NAME, Scenario.ECHO.scenarioName));
+        setProperty(MESSAGE_TRANSCEIVER_PROP_NAME, scenario.messageTransceiverClass.getName());
+
+        try (SingleHostBenchmark benchmark = new SingleHostBenchmark(scenario, Configuration.fromSystemProperties()))
+        {
+            benchmark.run();
+        }
+    }
+
+    private BiFunction<NanoClock, ValueRecorder, MessageTransceiver> launch(final Scenario scenario)
+    {
+        switch (scenario)
+        {
+            case ECHO:
+                return launchEcho();
+
+            case ECHO_IPC:
+                useIpcChannel(SOURCE_CHANNEL_PROP_NAME);
+                useIpcChannel(DESTINATION_CHANNEL_PROP_NAME);
+                return launchEcho();
+
+            case ECHO_MDC:
+                return launchEchoMdc();
+
+            case ECHO_SPY:
+                return launchEchoSpy();
+
+            case ECHO_MDS:
+                return launchEchoMds();
+
+            case LIVE_REPLAY:
+                return launchLiveReplay();
+
+            case LIVE_RECORDING:
+                return launchLiveRecording();
+
+            case LIVE_RECORDING_REPLAY_LOAD:
+                setProperty(REPLAY_THROUGHPUT_CONTINUOUS_PROP_NAME, "true");
+                return launchLiveRecordingWithReplayLoad();
+
+            case CLUSTER:
+                return launchCluster(false);
+
+            case CLUSTER_SNAPSHOT:
+                return launchCluster(true);
+
+            case ARCHIVE_REPLAY_MDC:
+                return launchArchiveReplayMdc();
+
+            default:
+                throw new IllegalArgumentException("unsupported scenario: " + scenario);
+        }
+    }
+
+    private BiFunction<NanoClock, ValueRecorder, MessageTransceiver> launchEcho()
+    {
+        final MediaDriver mediaDriver = track(launchEmbeddedMediaDriverIfConfigured());
+        final Aeron aeron = track(Aeron.connect());
+
+        for (int i = 0, receiverCount = receiverCount(); i < receiverCount; i++)
+        {
+            final int receiverIndex = i;
+            startNode("echo-" + receiverIndex, () ->
+            {
+                try (EchoNode node = new EchoNode(running, null, aeron, false, receiverIndex))
+                {
+                    node.run();
+                }
+            });
+        }
+
+        return (nanoClock, valueRecorder) ->
+            new EchoMessageTransceiver(nanoClock, valueRecorder, mediaDriver, aeron, false);
+    }
+
+    private static void useIpcChannel(final String propertyName)
+    {
+        final String channel = getProperty(propertyName);
+        if (null == channel)
+        {
+            setProperty(propertyName, IPC_CHANNEL);
+        }
+        else if (!ChannelUri.parse(channel).isIpc())
+        {
+            throw new IllegalArgumentException(
+                "scenario " + Scenario.ECHO_IPC.scenarioName + " requires an IPC channel: " + propertyName + "=" +
+                channel);
+        }
+    }
+
+    private BiFunction<NanoClock, ValueRecorder, MessageTransceiver> launchEchoMdc()
+    {
+        final MediaDriver mediaDriver = track(launchEmbeddedMediaDriverIfConfigured());
+        final Aeron aeron = track(Aeron.connect());
+
+        for (int i = 0, receiverCount = receiverCount(); i < receiverCount; i++)
+        {
+            final int receiverIndex = i;
+            final MediaDriver nodeDriver = track(launchReceiverMediaDriver());
+            final Aeron nodeAeron = track(Aeron.connect(
+                new Aeron.Context().aeronDirectoryName(nodeDriver.aeronDirectoryName())));
+
+            startNode("echo-" + receiverIndex, () ->
+            {
+                try (EchoNode node = new EchoNode(running, null, nodeAeron, false, receiverIndex))
+                {
+                    node.run();
+                    dumpAeronStats(nodeAeron, "echo-node-" + receiverIndex + "-");
+                }
+            });
+        }
+
+        final EchoNode.SlowReceiver slowReceiver = EchoNode.SlowReceiver.fromSystemProperties();
+        if (slowReceiver.isSlow())
+        {
+            // extra receiver which only takes part in the flow control, it is never addressed by the load generator
+            final int receiverIndex = receiverCount();
+            final MediaDriver nodeDriver = track(launchReceiverMediaDriver());
+            final Aeron nodeAeron = track(Aeron.connect(
+                new Aeron.Context().aeronDirectoryName(nodeDriver.aeronDirectoryName())));
+
+            startNode("echo-slow", () ->
+            {
+                try (EchoNode node = new EchoNode(
+                    running, null, nodeAeron, false, receiverIndex, sourceChannel(), slowReceiver.asPassive()))
+                {
+                    node.run();
+                    dumpAeronStats(nodeAeron, "echo-node-slow-");
+                }
+            });
+        }
+
+        return (nanoClock, valueRecorder) ->
+            new EchoMessageTransceiver(nanoClock, valueRecorder, mediaDriver, aeron, false);
+    }
+
+    private BiFunction<NanoClock, ValueRecorder, MessageTransceiver> launchEchoSpy()
+    {
+        final BiFunction<NanoClock, ValueRecorder, MessageTransceiver> transceiverFactory = launchEcho();
+        final Aeron aeron = track(Aeron.connect());
+
+        startNode("spy-node", () ->
+        {
+            try (SpyNode node = new SpyNode(running, null, aeron, false, SystemNanoClock.INSTANCE))
+            {
+                node.run();
+                node.saveTapLagHistogram(logsDir, "spy-node-");
+            }
+        });
+
+        return transceiverFactory;
+    }
+
+    private BiFunction<NanoClock, ValueRecorder, MessageTransceiver> launchEchoMds()
+    {
+        final MediaDriver mediaDriver = track(launchEmbeddedMediaDriverIfConfigured());
+        final Aeron aeron = track(Aeron.connect());
+        final String sourceChannel = sourceChannel();
+
+        for (int i = 0, receiverCount = receiverCount(); i < receiverCount; i++)
+        {
+            final int receiverIndex = i;
+            startNode("echo-" + receiverIndex, () ->
+            {
+                try (EchoNode node = new EchoNode(
+                    running, null, aeron, false, receiverIndex, receiverChannel(sourceChannel, receiverIndex)))
+                {
+                    node.run();
+                }
+            });
+        }
+
+        return (nanoClock, valueRecorder) ->
+            new EchoMessageTransceiver(nanoClock, valueRecorder, mediaDriver, aeron, false, true);
+    }
+
+    private BiFunction<NanoClock, ValueRecorder, MessageTransceiver> launchLiveReplay()
+    {
+        final ArchivingMediaDriver archivingMediaDriver = track(launchArchivingMediaDriver());
+        final AeronArchive nodeArchive = track(AeronArchive.connect());
+        final AeronArchive aeronArchive = track(AeronArchive.connect());
+
+        startNode("archive-node", () ->
+        {
+            try (ArchiveNode node = new ArchiveNode(running, archivingMediaDriver, nodeArchive, false))
+            {
+                node.run();
+            }
+        });
+
+        return (nanoClock, valueRecorder) ->
+            new LiveReplayMessageTransceiver(nanoClock, valueRecorder, null, aeronArchive, false);
+    }
+
+    private BiFunction<NanoClock, ValueRecorder, MessageTransceiver> launchLiveRecording()
+    {
+        final ArchivingMediaDriver archivingMediaDriver = track(launchArchivingMediaDriver());
+        final Aeron nodeAeron = track(Aeron.connect());
+        final AeronArchive aeronArchive = track(AeronArchive.connect());
+
+        startNode("echo-0", () ->
+        {
+            try (EchoNode node = new EchoNode(running, null, nodeAeron, false, 0))
+            {
+                node.run();
+            }
+        });
+
+        return (nanoClock, valueRecorder) ->
+            new LiveRecordingMessageTransceiver(nanoClock, valueRecorder, archivingMediaDriver, aeronArchive, false);
+    }
+
+    private BiFunction<NanoClock, ValueRecorder, MessageTransceiver> launchLiveRecordingWithReplayLoad()
+    {
+        final BiFunction<NanoClock, ValueRecorder, MessageTransceiver> transceiverFactory = launchLiveRecording();
+        final AeronArchive replayArchive = track(AeronArchive.connect());
+        final ReplayThroughputBenchmark replayLoad = track(new ReplayThroughputBenchmark(
+            ReplayThroughputConfiguration.fromSystemProperties(),
+            running,
+            null,
+            replayArchive,
+            false,
+            SystemNanoClock.INSTANCE));
+
+        replayLoad.prepareRecordings();
+
+        startNode("replay-load", () ->
+        {
+            final String prefix = "replay-load-";
+            replayLoad.run(logsDir, prefix);
+            replayLoad.saveTimeToFirstByteHistogram(logsDir, prefix);
+        });
+
+        return transceiverFactory;
+    }
+
+    private BiFunction<NanoClock, ValueRecorder, MessageTransceiver> launchCluster(final boolean snapshots)
+    {
+        final ArchivingMediaDriver archivingMediaDriver = track(launchArchivingMediaDriver());
+        final String aeronDirectoryName = archivingMediaDriver.archive.context().aeronDirectoryName();
+        final File clusterDir = new File(ClusteredServiceContainer.Configuration.clusterDirName());
+        final int memberId = ConsensusModule.Configuration.clusterMemberId();
+        final int serviceId = ClusteredServiceContainer.Configuration.serviceId();
+        final String prefix = "cluster-node-" + memberId + "-";
+        IoUtil.delete(clusterDir, false);
+
+        final List<AutoCloseable> member = launchClusterMember(aeronDirectoryName, clusterDir, memberId, serviceId);
+
+        shutdownDumps.add(() ->
+        {
+            dumpClusterErrors(
+                logsDir.resolve(prefix + "clustered-service-errors.txt"),
+                clusterDir,
+                ClusterMarkFile.markFilenameForService(serviceId),
+                ClusterMarkFile.linkFilenameForService(serviceId));
+            dumpClusterErrors(
+                logsDir.resolve(prefix + "consensus-module-errors.txt"),
+                clusterDir,
+                ClusterMarkFile.FILENAME,
+                ClusterMarkFile.LINK_FILENAME);
+            dumpArchiveErrors(
+                archivingMediaDriver.archive.context().archiveDir(), logsDir.resolve(prefix + "archive-errors.txt"));
+        });
+
+        final SnapshotTrigger snapshotTrigger = snapshots ? track(SnapshotTrigger.launchIfConfigured(
+            archivingMediaDriver.archive.context().aeron().countersReader(), logsDir, prefix)) : null;
+        if (snapshots)
+        {
+            if (null == snapshotTrigger)
+            {
+                throw new IllegalStateException(SnapshotTrigger.SNAPSHOT_INTERVAL_PROP_NAME + " must be set");
+            }
+
+            postRunActions.add(() ->
+            {
+                snapshotTrigger.close();
+                snapshotTrigger.saveDurationHistogram(logsDir, prefix);
+                timeRecovery(member, aeronDirectoryName, clusterDir, memberId, serviceId, prefix);
+            });
+        }
+
+        return (nanoClock, valueRecorder) -> new ClusterMessageTransceiver(
+            nanoClock,
+            valueRecorder,
+            null,
+            new AeronCluster.Context().aeronDirectoryName(aeronDirectoryName),
+            snapshotTrigger);
+    }
+
+    private List<AutoCloseable> launchClusterMember(
+        final String aeronDirectoryName, final File clusterDir, final int memberId, final int serviceId)
+    {
+        final List<AutoCloseable> member = new ArrayList<>();
+        member.add(track(ConsensusModule.launch(new ConsensusModule.Context()
+            .errorHandler(printingErrorHandler("consensus-module"))
+            .aeronDirectoryName(aeronDirectoryName)
+            .clusterDir(clusterDir)
+            .clusterClock(AeronUtil.clusterClock())
+            .clusterMemberId(memberId)
+            .idleStrategySupplier(() -> BusySpinIdleStrategy.INSTANCE)
+            .markFileDir(new File(aeronDirectoryName)))));
+
+        member.add(track(ClusteredServiceContainer.launch(new ClusteredServiceContainer.Context()
+            .clusteredService(ClusterNode.newClusteredService(new AtomicReference<>()))
+            .errorHandler(printingErrorHandler("service-container"))
+            .aeronDirectoryName(aeronDirectoryName)
+            .clusterDir(clusterDir)
+            .serviceId(serviceId)
+            .idleStrategySupplier(() -> BusySpinIdleStrategy.INSTANCE)
+            .markFileDir(new File(aeronDirectoryName)))));
+
+        return member;
+    }
+
+    // restart the member from its latest snapshot plus the log after it and time it until a client session is opened
+    private void timeRecovery(
+        final List<AutoCloseable> member,
+        final String aeronDirectoryName,
+        final File clusterDir,
+        final int memberId,
+        final int serviceId,
+        final String prefix)
+    {
+        resources.removeAll(member);
+        Collections.reverse(member);
+        CloseHelper.closeAll(member);
+
+        final long snapshotLength;
+        final long logLength;
+        try (AeronArchive aeronArchive = AeronArchive.connect(
+            new AeronArchive.Context().aeronDirectoryName(aeronDirectoryName));
+            RecordingLog recordingLog = new RecordingLog(clusterDir, false))
+        {
+            final RecordingLog.Entry snapshot = recordingLog.getLatestSnapshot(serviceId);
+            final RecordingLog.Entry lastTerm = recordingLog.findLastTerm();
+            snapshotLength = null == snapshot ? 0 : aeronArchive.getStopPosition(snapshot.recordingId);
+            logLength = null == lastTerm ? 0 : aeronArchive.getMaxRecordedPosition(lastTerm.recordingId) -
+                (null == snapshot ? 0 : snapshot.logPosition);
+        }
+
+        final long startNs = System.nanoTime();
+        launchClusterMember(aeronDirectoryName, clusterDir, memberId, serviceId);
+        try (AeronCluster ignore = AeronCluster.connect(new AeronCluster.Context()
+            .aeronDirectoryName(aeronDirectoryName)
+            .messageTimeoutNs(connectionTimeoutNs()));
+            PrintWriter writer = new PrintWriter(
+                Files.newBufferedWriter(logsDir.resolve(prefix + "recovery.csv"), US_ASCII)))
+        {
+            final long recoveryTimeNs = System.nanoTime() - startNs;
+            writer.println("snapshot length (bytes),log length (bytes),recovery time (ms)");
+            writer.println(snapshotLength + "," + logLength + "," + TimeUnit.NANOSECONDS.toMillis(recoveryTimeNs));
+        }
+        catch (final IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private BiFunction<NanoClock, ValueRecorder, MessageTransceiver> launchArchiveReplayMdc()
+    {
+        final ArchivingMediaDriver archivingMediaDriver = track(launchArchivingMediaDriver());
+        final AeronArchive nodeArchive = track(AeronArchive.connect());
+        final Aeron aeron = track(Aeron.connect());
+
+        startNode("archive-node", () ->
+        {
+            try (ArchiveNode node = new ArchiveNode(running, archivingMediaDriver, nodeArchive, false))
+            {
+                node.run();
+                dumpArchiveErrors(
+                    archivingMediaDriver.archive.context().archiveDir(),
+                    logsDir.resolve("archive-node-archive-errors.txt"));
+            }
+        });
+
+        final String replayChannel = replayChannel();
+        final String controlResponseChannel = AeronArchive.Configuration.controlResponseChannel();
+        for (int i = 0, receiverCount = receiverCount(); i < receiverCount; i++)
+        {
+            final int receiverIndex = i;
+            final MediaDriver nodeDriver = track(launchReceiverMediaDriver());
+            final AeronArchive nodeReplayArchive = track(AeronArchive.connect(new AeronArchive.Context()
+                .aeronDirectoryName(nodeDriver.aeronDirectoryName())
+                .controlResponseChannel(receiverChannel(controlResponseChannel, receiverIndex))));
+
+            startNode("replay-" + receiverIndex, () ->
+            {
+                try (ReplayNode node = new ReplayNode(
+                    running,
+                    null,
+                    nodeReplayArchive,
+                    false,
+                    receiverIndex,
+                    receiverChannel(replayChannel, receiverIndex)))
+                {
+                    node.run();
+                    dumpAeronStats(nodeReplayArchive.context().aeron(), "replay-node-" + receiverIndex + "-");
+                }
+            });
+        }
+
+        return (nanoClock, valueRecorder) -> new EchoMessageTransceiver(nanoClock, valueRecorder, null, aeron, false);
+    }
+
+    private static MediaDriver launchReceiverMediaDriver()
+    {
+        return MediaDriver.launch(new MediaDriver.Context()
+            .aeronDirectoryName(CommonContext.generateRandomDirName())
+            .dirDeleteOnStart(true)
+            .dirDeleteOnShutdown(true)
+            .spiesSimulateConnection(true));
+    }
+
+    private void startNode(final String name, final Runnable node)
+    {
+        final Thread thread = new Thread(
+            () ->
+            {
+                try
+                {
+                    node.run();
+                }
+                catch (final Throwable t)
+                {
+                    if (!error.compareAndSet(null, t))
+                    {
+                        error.get().addSuppressed(t);
+                    }
+                    running.set(false);
+                }
+            },
+            name);
+
+        thread.setDaemon(true);
+        nodeThreads.add(thread);
+        thread.start();
+    }
+
+    private void dumpAeronStats(final Aeron aeron, final String prefix)
+    {
+        AeronUtil.dumpAeronStats(
+            aeron.context().cncFile(),
+            logsDir.resolve(prefix + "aeron-stat.txt"),
+            logsDir.resolve(prefix + "errors.txt"));
+    }
+
+    private <T extends AutoCloseable> T track(final T resource)
+    {
+        if (null != resource)
+        {
+            resources.add(resource);
+        }
+
+        return resource;
+    }
+}
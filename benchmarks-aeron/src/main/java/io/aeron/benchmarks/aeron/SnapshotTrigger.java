@@ -0,0 +1,266 @@
+/*
+ * Copyright 2015-2025 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.aeron.benchmarks.aeron;
+
+import io.aeron.benchmarks.PersistedHistogram;
+import io.aeron.cluster.ConsensusModule;
+import io.aeron.cluster.service.Cluster;
+import io.aeron.cluster.service.ClusterControl;
+import io.aeron.cluster.service.ClusterCounters;
+import org.HdrHistogram.Histogram;
+import org.agrona.concurrent.EpochClock;
+import org.agrona.concurrent.SystemEpochClock;
+import org.agrona.concurrent.status.AtomicCounter;
+import org.agrona.concurrent.status.CountersReader;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static io.aeron.benchmarks.PersistedHistogram.FILE_EXTENSION;
+import static java.lang.System.getProperty;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.agrona.Strings.isEmpty;
+import static org.agrona.SystemUtil.parseDuration;
+import static org.agrona.concurrent.status.CountersReader.NULL_COUNTER_ID;
+
+/**
+ * Triggers a snapshot at a fixed interval via the control toggle of the consensus module, i.e. the same way as
+ * {@code ClusterTool snapshot}, while this member is the leader. The duration of every snapshot is the time from
+ * setting the toggle until the consensus module resets it, once all services and the consensus module have taken their
+ * snapshot. The start timestamps use the same epoch clock as the {@link io.aeron.benchmarks.LoggingPersistedHistogram}
+ * so that the snapshots can be correlated with the latency history of the same run.
+ */
+public final class SnapshotTrigger implements AutoCloseable
+{
+    /**
+     * Name of the system property to configure the snapshot interval, e.g. {@code 10s}. Snapshots are not triggered
+     * if not set or zero.
+     */
+    public static final String SNAPSHOT_INTERVAL_PROP_NAME = "io.aeron.benchmarks.aeron.cluster.snapshot.interval";
+
+    private static final long POLL_INTERVAL_NS = TimeUnit.MICROSECONDS.toNanos(10);
+
+    private final Histogram durationHistogram = new Histogram(3);
+    private final CountersReader countersReader;
+    private final int clusterId;
+    private final EpochClock epochClock;
+    private final PrintWriter writer;
+    private final long intervalNs;
+    private final Thread thread;
+    private AtomicCounter controlToggle;
+    private int roleCounterId = NULL_COUNTER_ID;
+    private volatile boolean snapshotInProgress;
+    private volatile long lastSnapshotEndNs;
+    private volatile boolean running = true;
+
+    SnapshotTrigger(
+        final CountersReader countersReader,
+        final int clusterId,
+        final EpochClock epochClock,
+        final Path file,
+        final long intervalNs)
+    {
+        this.countersReader = countersReader;
+        this.clusterId = clusterId;
+        this.epochClock = epochClock;
+        this.intervalNs = intervalNs;
+        this.lastSnapshotEndNs = System.nanoTime();
+
+        try
+        {
+            writer = new PrintWriter(Files.newBufferedWriter(file, US_ASCII, WRITE, CREATE, TRUNCATE_EXISTING));
+        }
+        catch (final IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+
+        writer.println("timestamp (ms),duration (us)");
+
+        thread = new Thread(this::run, "snapshot-trigger");
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Start triggering snapshots if enabled via {@link #SNAPSHOT_INTERVAL_PROP_NAME}. The snapshots are written to
+     * {@code <prefix>snapshots.csv}.
+     *
+     * @param countersReader of the media driver used by the consensus module.
+     * @param outputDir      where to write the snapshots.
+     * @param prefix         of the file name.
+     * @return running trigger or {@code null} if it is disabled.
+     */
+    public static SnapshotTrigger launchIfConfigured(
+        final CountersReader countersReader, final Path outputDir, final String prefix)
+    {
+        final String value = getProperty(SNAPSHOT_INTERVAL_PROP_NAME);
+        final long intervalNs = isEmpty(value) ? 0 : parseDuration(SNAPSHOT_INTERVAL_PROP_NAME, value);
+        if (intervalNs <= 0)
+        {
+            return null;
+        }
+
+        final SnapshotTrigger trigger = new SnapshotTrigger(
+            countersReader,
+            ConsensusModule.Configuration.clusterId(),
+            SystemEpochClock.INSTANCE,
+            outputDir.resolve(prefix + "snapshots.csv"),
+            intervalNs);
+        trigger.thread.start();
+
+        return trigger;
+    }
+
+    /**
+     * Was a snapshot in progress at any time since the timestamp, i.e. was a message sent at that time delayed by a
+     * snapshot.
+     *
+     * @param timestampNs as of {@link System#nanoTime()}.
+     * @return {@code true} if a snapshot is in progress or was completed after the timestamp.
+     */
+    public boolean isSnapshotSince(final long timestampNs)
+    {
+        return snapshotInProgress || lastSnapshotEndNs - timestampNs > 0;
+    }
+
+    /**
+     * Save the histogram of the snapshot durations as {@code <prefix>snapshot-duration.hdr}.
+     *
+     * @param outputDir where to save the histogram.
+     * @param prefix    of the file name.
+     * @return created file.
+     */
+    public Path saveDurationHistogram(final Path outputDir, final String prefix)
+    {
+        try
+        {
+            return PersistedHistogram.saveToFile(
+                durationHistogram, outputDir.resolve(prefix + "snapshot-duration" + FILE_EXTENSION));
+        }
+        catch (final IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public void close()
+    {
+        running = false;
+        LockSupport.unpark(thread);
+        try
+        {
+            thread.join();
+        }
+        catch (final InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+        }
+        finally
+        {
+            writer.close();
+        }
+    }
+
+    long snapshots()
+    {
+        return durationHistogram.getTotalCount();
+    }
+
+    private boolean isLeader()
+    {
+        if (NULL_COUNTER_ID == roleCounterId)
+        {
+            roleCounterId = ClusterCounters.find(
+                countersReader, ConsensusModule.Configuration.CLUSTER_NODE_ROLE_TYPE_ID, clusterId);
+            if (NULL_COUNTER_ID == roleCounterId)
+            {
+                return false;
+            }
+        }
+
+        return Cluster.Role.LEADER == Cluster.Role.get(countersReader.getCounterValue(roleCounterId));
+    }
+
+    private void snapshot()
+    {
+        if (null == controlToggle)
+        {
+            controlToggle = ClusterControl.findControlToggle(countersReader, clusterId);
+            if (null == controlToggle)
+            {
+                return;
+            }
+        }
+
+        final long timestampMs = epochClock.time();
+        final long startNs = System.nanoTime();
+        if (!ClusterControl.ToggleState.SNAPSHOT.toggle(controlToggle))
+        {
+            return;
+        }
+
+        snapshotInProgress = true;
+        try
+        {
+            while (running && ClusterControl.ToggleState.NEUTRAL != ClusterControl.ToggleState.get(controlToggle))
+            {
+                LockSupport.parkNanos(POLL_INTERVAL_NS);
+            }
+        }
+        finally
+        {
+            lastSnapshotEndNs = System.nanoTime();
+            snapshotInProgress = false;
+        }
+
+        final long durationNs = lastSnapshotEndNs - startNs;
+        durationHistogram.recordValue(durationNs);
+        writer.print(timestampMs);
+        writer.print(',');
+        writer.println(TimeUnit.NANOSECONDS.toMicros(durationNs));
+    }
+
+    private void run()
+    {
+        long nextSnapshotNs = System.nanoTime() + intervalNs;
+        while (running)
+        {
+            final long nowNs = System.nanoTime();
+            if (nowNs - nextSnapshotNs >= 0)
+            {
+                if (isLeader())
+                {
+                    snapshot();
+                }
+                nextSnapshotNs = System.nanoTime() + intervalNs;
+            }
+            else
+            {
+                LockSupport.parkNanos(nextSnapshotNs - nowNs);
+            }
+        }
+
+        writer.flush();
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2015-2025 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.aeron.benchmarks.aeron;
+
+import io.aeron.Aeron;
+import io.aeron.FragmentAssembler;
+import io.aeron.Subscription;
+import io.aeron.benchmarks.Configuration;
+import io.aeron.benchmarks.PersistedHistogram;
+import io.aeron.driver.MediaDriver;
+import org.HdrHistogram.Histogram;
+import org.agrona.concurrent.IdleStrategy;
+import org.agrona.concurrent.NanoClock;
+import org.agrona.concurrent.SystemNanoClock;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static io.aeron.Aeron.connect;
+import static io.aeron.CommonContext.SPY_PREFIX;
+import static io.aeron.benchmarks.PersistedHistogram.FILE_EXTENSION;
+import static io.aeron.benchmarks.PropertiesUtil.loadPropertiesFiles;
+import static io.aeron.benchmarks.PropertiesUtil.mergeWithSystemProperties;
+import static io.aeron.benchmarks.aeron.AeronUtil.*;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static org.agrona.CloseHelper.closeAll;
+import static org.agrona.PropertyAction.PRESERVE;
+import static org.agrona.PropertyAction.REPLACE;
+
+/**
+ * Passive monitoring tap which consumes a stream via a spy subscription ({@code aeron-spy:}) on the media driver of
+ * the publisher. Used together with the {@link EchoMessageTransceiver} and the {@link EchoNode} to measure the latency
+ * overhead that a tap adds to the echo path, i.e. by default it spies on the {@link AeronUtil#destinationChannel()}
+ * of the load generator which has to share the media driver with the {@code SpyNode}.
+ * <p>
+ * A spy holds back the publication if it falls behind, therefore the node also records the lag of the tap, i.e. the
+ * time between sending a message and the spy receiving it, which is saved to the logs directory once the node stops.
+ */
+public final class SpyNode implements AutoCloseable, Runnable
+{
+    private final Histogram tapLagHistogram = new Histogram(3);
+    private final FragmentAssembler fragmentHandler;
+    private final Subscription subscription;
+    private final AtomicBoolean running;
+    private final MediaDriver mediaDriver;
+    private final Aeron aeron;
+    private final boolean ownsAeronClient;
+
+    SpyNode(final AtomicBoolean running)
+    {
+        this(running, launchEmbeddedMediaDriverIfConfigured(), connect(), true, SystemNanoClock.INSTANCE);
+    }
+
+    SpyNode(
+        final AtomicBoolean running,
+        final MediaDriver mediaDriver,
+        final Aeron aeron,
+        final boolean ownsAeronClient,
+        final NanoClock nanoClock)
+    {
+        this.running = running;
+        this.mediaDriver = mediaDriver;
+        this.aeron = aeron;
+        this.ownsAeronClient = ownsAeronClient;
+
+        subscription = aeron.addSubscription(SPY_PREFIX + spyChannel(), spyStreamId());
+
+        fragmentHandler = new FragmentAssembler(
+            (buffer, offset, length, header) ->
+            {
+                final long timestamp = buffer.getLong(offset + TIMESTAMP_OFFSET, LITTLE_ENDIAN);
+                tapLagHistogram.recordValue(Math.max(0, nanoClock.nanoTime() - timestamp));
+            });
+    }
+
+    public void run()
+    {
+        awaitConnected(subscription::isConnected, connectionTimeoutNs(), SystemNanoClock.INSTANCE);
+
+        final IdleStrategy idleStrategy = idleStrategy();
+        final AtomicBoolean running = this.running;
+        final Subscription subscription = this.subscription;
+
+        while (true)
+        {
+            final int fragments = subscription.poll(fragmentHandler, FRAGMENT_LIMIT);
+            if (0 == fragments)
+            {
+                if (!running.get())
+                {
+                    return; // Abort execution
+                }
+
+                if (!subscription.isConnected())
+                {
+                    return; // Abort execution
+                }
+            }
+
+            idleStrategy.idle(fragments);
+        }
+    }
+
+    /**
+     * Histogram of the time between the message was sent and the tap received it.
+     *
+     * @return tap lag histogram in nanoseconds.
+     */
+    Histogram tapLagHistogram()
+    {
+        return tapLagHistogram;
+    }
+
+    /**
+     * Save the tap lag histogram as {@code <prefix>tap-lag.hdr}.
+     *
+     * @param outputDir where to save the histogram.
+     * @param prefix    of the file name.
+     * @return created file.
+     */
+    Path saveTapLagHistogram(final Path outputDir, final String prefix)
+    {
+        try
+        {
+            return PersistedHistogram.saveToFile(
+                tapLagHistogram, outputDir.resolve(prefix + "tap-lag" + FILE_EXTENSION));
+        }
+        catch (final IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public void close()
+    {
+        closeAll(subscription);
+
+        if (ownsAeronClient)
+        {
+            closeAll(aeron, mediaDriver);
+        }
+    }
+
+    public static void main(final String[] args)
+    {
+        mergeWithSystemProperties(PRESERVE, loadPropertiesFiles(new Properties(), REPLACE, args));
+        final Path outputDir = Configuration.resolveLogsDir();
+
+        final AtomicBoolean running = new AtomicBoolean(true);
+        installSignalHandler(() -> running.set(false));
+
+        try (SpyNode node = new SpyNode(running))
+        {
+            Thread.currentThread().setName("spy-node");
+
+            node.run();
+
+            final String prefix = "spy-node-";
+            node.saveTapLagHistogram(outputDir, prefix);
+            System.out.println("Tap lag (us):");
+            node.tapLagHistogram.outputPercentileDistribution(System.out, 1000.0);
+        }
+    }
+}
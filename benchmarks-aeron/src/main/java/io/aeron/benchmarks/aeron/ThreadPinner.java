@@ -0,0 +1,211 @@
+/*
+ * Copyright 2015-2025 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.aeron.benchmarks.aeron;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.agrona.Strings.isEmpty;
+
+/**
+ * Pins threads of the current process to CPU cores by their name, i.e. the in-process equivalent of the
+ * {@code pin_thread} function used by the remote benchmark scripts. Threads are discovered via {@code /proc/self/task}
+ * and pinned using {@code taskset}, therefore pinning is only supported on Linux.
+ * <p>
+ * Pinning happens on a background thread which waits for the named threads to appear. This allows threads such as
+ * {@code load-test-rig} to be pinned once they are renamed, i.e. after all of their child threads were started so
+ * that those do not inherit the affinity.
+ */
+final class ThreadPinner implements AutoCloseable
+{
+    /**
+     * Linux truncates thread names to 15 characters.
+     */
+    static final int MAX_THREAD_NAME_LENGTH = 15;
+
+    private static final Path TASKS_DIR = Paths.get("/proc/self/task");
+    private static final long SCAN_INTERVAL_NS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Map<String, String> cpusByThreadName;
+    private final long timeoutNs;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    ThreadPinner(final Map<String, String> cpusByThreadName, final long timeoutNs)
+    {
+        this.cpusByThreadName = new LinkedHashMap<>(cpusByThreadName);
+        this.timeoutNs = timeoutNs;
+
+        thread = new Thread(this::run, "thread-pinner");
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Parse thread affinity specification in the form of {@code name=cpu,name=cpu-cpu,...}, e.g.
+     * {@code load-test-rig=2,echo-0=3,sender=4}.
+     *
+     * @param spec to parse.
+     * @return CPU cores keyed by the thread name truncated to {@link #MAX_THREAD_NAME_LENGTH}.
+     */
+    static Map<String, String> parse(final String spec)
+    {
+        final Map<String, String> cpusByThreadName = new LinkedHashMap<>();
+        if (isEmpty(spec))
+        {
+            return cpusByThreadName;
+        }
+
+        for (final String entry : spec.split(","))
+        {
+            final String trimmed = entry.trim();
+            if (trimmed.isEmpty())
+            {
+                continue;
+            }
+
+            final int separator = trimmed.indexOf('=');
+            if (separator <= 0 || separator == trimmed.length() - 1)
+            {
+                throw new IllegalArgumentException("invalid thread affinity: '" + trimmed + "', expected name=cpu");
+            }
+
+            cpusByThreadName.put(
+                threadName(trimmed.substring(0, separator).trim()), trimmed.substring(separator + 1).trim());
+        }
+
+        return cpusByThreadName;
+    }
+
+    static String threadName(final String name)
+    {
+        return name.length() > MAX_THREAD_NAME_LENGTH ? name.substring(0, MAX_THREAD_NAME_LENGTH) : name;
+    }
+
+    ThreadPinner start()
+    {
+        if (!cpusByThreadName.isEmpty())
+        {
+            thread.start();
+        }
+
+        return this;
+    }
+
+    public void close()
+    {
+        running = false;
+        LockSupport.unpark(thread);
+        try
+        {
+            thread.join();
+        }
+        catch (final InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run()
+    {
+        if (!Files.isDirectory(TASKS_DIR))
+        {
+            System.err.println("WARNING: thread pinning is not supported on this platform: " + cpusByThreadName);
+            return;
+        }
+
+        final long deadlineNs = System.nanoTime() + timeoutNs;
+        while (running && !cpusByThreadName.isEmpty())
+        {
+            pinThreads();
+
+            if (System.nanoTime() - deadlineNs > 0)
+            {
+                System.err.println("WARNING: timed out waiting for threads to pin: " + cpusByThreadName.keySet());
+                return;
+            }
+
+            LockSupport.parkNanos(SCAN_INTERVAL_NS);
+        }
+    }
+
+    private void pinThreads()
+    {
+        try (DirectoryStream<Path> tasks = Files.newDirectoryStream(TASKS_DIR))
+        {
+            final Set<String> pinned = new HashSet<>();
+            for (final Path task : tasks)
+            {
+                final String name;
+                try
+                {
+                    name = new String(Files.readAllBytes(task.resolve("comm")), US_ASCII).trim();
+                }
+                catch (final IOException ignore)
+                {
+                    continue; // thread exited
+                }
+
+                final String cpus = cpusByThreadName.get(name);
+                if (null != cpus && pin(name, task.getFileName().toString(), cpus))
+                {
+                    pinned.add(name);
+                }
+            }
+
+            cpusByThreadName.keySet().removeAll(pinned);
+        }
+        catch (final IOException ex)
+        {
+            System.err.println("WARNING: failed to list threads: " + ex);
+        }
+    }
+
+    private static boolean pin(final String name, final String tid, final String cpus)
+    {
+        System.out.println("Pinning thread: " + name + " (tid=" + tid + ") to cpu " + cpus);
+        try
+        {
+            final Process process = new ProcessBuilder("taskset", "-p", "-c", cpus, tid).inheritIO().start();
+            final int exitCode = process.waitFor();
+            if (0 != exitCode)
+            {
+                System.err.println("WARNING: taskset exited with " + exitCode + " while pinning thread: " + name);
+            }
+
+            return true;
+        }
+        catch (final IOException ex)
+        {
+            System.err.println("WARNING: failed to pin thread " + name + ": " + ex);
+            return true;
+        }
+        catch (final InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright 2015-2025 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.aeron.benchmarks.aeron;
+
+import io.aeron.ExclusivePublication;
+import io.aeron.Image;
+import io.aeron.benchmarks.PersistedHistogram;
+import io.aeron.cluster.codecs.CloseReason;
+import io.aeron.cluster.service.ClientSession;
+import io.aeron.cluster.service.Cluster;
+import io.aeron.cluster.service.ClusteredService;
+import io.aeron.logbuffer.BufferClaim;
+import io.aeron.logbuffer.FragmentHandler;
+import io.aeron.logbuffer.Header;
+import org.HdrHistogram.Histogram;
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.collections.Long2LongHashMap;
+import org.agrona.concurrent.IdleStrategy;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static io.aeron.benchmarks.PersistedHistogram.FILE_EXTENSION;
+import static io.aeron.benchmarks.aeron.AeronUtil.FRAGMENT_LIMIT;
+import static io.aeron.benchmarks.aeron.ClusteredServiceUtil.echo;
+import static io.aeron.benchmarks.aeron.ClusteredServiceUtil.offer;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+
+/**
+ * Clustered service which schedules {@code timersPerMessage} timers, due {@code timerDelayNs} after the message
+ * timestamp, and cancels the {@code cancelsPerMessage} oldest pending timers for every message before echoing it,
+ * i.e. similar to the order expiry timers. The skew of every timer, i.e. the cluster time when it fired minus its
+ * deadline, is recorded in nanoseconds with the resolution of the cluster time unit. The snapshot contains the pending
+ * timers so that the skew of the timers fired after recovery can be recorded too.
+ */
+public final class TimerClusteredService implements ClusteredService
+{
+    static final long MISSING_VALUE = -1;
+    static final int ENTRY_LENGTH = SIZE_OF_LONG + SIZE_OF_LONG;
+    static final int SNAPSHOT_HEADER_LENGTH = 3 * SIZE_OF_LONG;
+
+    private final BufferClaim bufferClaim = new BufferClaim();
+    private final FragmentHandler snapshotHandler = this::onSnapshotFragment;
+    private final Histogram skewHistogram = new Histogram(3);
+    private final Long2LongHashMap deadlineByCorrelationId = new Long2LongHashMap(MISSING_VALUE);
+    private final int timersPerMessage;
+    private final int cancelsPerMessage;
+    private final long timerDelayNs;
+    private Cluster cluster;
+    private IdleStrategy idleStrategy;
+    private TimeUnit timeUnit;
+    private long timerDelay;
+    private long nextCorrelationId;
+    private long nextCorrelationIdToCancel;
+    private long snapshotEntries;
+
+    public TimerClusteredService(final int timersPerMessage, final int cancelsPerMessage, final long timerDelayNs)
+    {
+        if (timersPerMessage < 0)
+        {
+            throw new IllegalArgumentException("timersPerMessage must not be negative: " + timersPerMessage);
+        }
+
+        if (cancelsPerMessage < 0 || cancelsPerMessage > timersPerMessage)
+        {
+            throw new IllegalArgumentException(
+                "cancelsPerMessage must be in [0, " + timersPerMessage + "]: " + cancelsPerMessage);
+        }
+
+        if (timerDelayNs < 0)
+        {
+            throw new IllegalArgumentException("timerDelayNs must not be negative: " + timerDelayNs);
+        }
+
+        this.timersPerMessage = timersPerMessage;
+        this.cancelsPerMessage = cancelsPerMessage;
+        this.timerDelayNs = timerDelayNs;
+    }
+
+    public void onStart(final Cluster cluster, final Image snapshotImage)
+    {
+        this.cluster = cluster;
+        idleStrategy = cluster.idleStrategy();
+
+        if (null != snapshotImage)
+        {
+            loadSnapshot(snapshotImage);
+        }
+    }
+
+    public void onSessionOpen(final ClientSession session, final long timestamp)
+    {
+    }
+
+    public void onSessionClose(final ClientSession session, final long timestamp, final CloseReason closeReason)
+    {
+    }
+
+    public void onSessionMessage(
+        final ClientSession session,
+        final long timestamp,
+        final DirectBuffer buffer,
+        final int offset,
+        final int length,
+        final Header header)
+    {
+        if (null == session)
+        {
+            return; // skip non-client calls
+        }
+
+        scheduleTimers(timestamp);
+
+        echo(session, bufferClaim, idleStrategy, buffer, offset, length, header.flags());
+    }
+
+    public void onTimerEvent(final long correlationId, final long timestamp)
+    {
+        final long deadline = deadlineByCorrelationId.remove(correlationId);
+        if (MISSING_VALUE != deadline)
+        {
+            skewHistogram.recordValue(Math.max(0, timeUnit().toNanos(timestamp - deadline)));
+        }
+    }
+
+    public void onTakeSnapshot(final ExclusivePublication snapshotPublication)
+    {
+        final MutableDirectBuffer buffer = new UnsafeBuffer(new byte[snapshotPublication.maxPayloadLength()]);
+        final int batchLength = buffer.capacity() - (buffer.capacity() % ENTRY_LENGTH);
+
+        buffer.putLong(0, nextCorrelationId, LITTLE_ENDIAN);
+        buffer.putLong(SIZE_OF_LONG, nextCorrelationIdToCancel, LITTLE_ENDIAN);
+        buffer.putLong(2 * SIZE_OF_LONG, deadlineByCorrelationId.size(), LITTLE_ENDIAN);
+        offer(snapshotPublication, buffer, SNAPSHOT_HEADER_LENGTH, idleStrategy);
+
+        int length = 0;
+        final Long2LongHashMap.EntryIterator iterator = deadlineByCorrelationId.entrySet().iterator();
+        while (iterator.hasNext())
+        {
+            iterator.next();
+            buffer.putLong(length, iterator.getLongKey(), LITTLE_ENDIAN);
+            buffer.putLong(length + SIZE_OF_LONG, iterator.getLongValue(), LITTLE_ENDIAN);
+            length += ENTRY_LENGTH;
+
+            if (batchLength == length)
+            {
+                offer(snapshotPublication, buffer, length, idleStrategy);
+                length = 0;
+            }
+        }
+
+        if (length > 0)
+        {
+            offer(snapshotPublication, buffer, length, idleStrategy);
+        }
+    }
+
+    public void onRoleChange(final Cluster.Role newRole)
+    {
+    }
+
+    public void onTerminate(final Cluster cluster)
+    {
+    }
+
+    /**
+     * Save the histogram of the timer skew as {@code <prefix>timer-skew.hdr}.
+     *
+     * @param outputDir where to save the histogram.
+     * @param prefix    of the file name.
+     * @return created file.
+     */
+    public Path saveSkewHistogram(final Path outputDir, final String prefix)
+    {
+        try
+        {
+            return PersistedHistogram.saveToFile(
+                skewHistogram, outputDir.resolve(prefix + "timer-skew" + FILE_EXTENSION));
+        }
+        catch (final IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    Histogram skewHistogram()
+    {
+        return skewHistogram;
+    }
+
+    int pendingTimers()
+    {
+        return deadlineByCorrelationId.size();
+    }
+
+    // the correlation ids are assigned in the log order, so that every member schedules and cancels the same timers
+    void scheduleTimers(final long timestamp)
+    {
+        final long deadline = timestamp + timerDelay();
+        for (int i = 0; i < timersPerMessage; i++)
+        {
+            final long correlationId = nextCorrelationId++;
+            idleStrategy.reset();
+            while (!cluster.scheduleTimer(correlationId, deadline))
+            {
+                idleStrategy.idle();
+            }
+            deadlineByCorrelationId.put(correlationId, deadline);
+        }
+
+        int cancelled = 0;
+        while (cancelled < cancelsPerMessage && nextCorrelationIdToCancel < nextCorrelationId)
+        {
+            final long correlationId = nextCorrelationIdToCancel++;
+            if (MISSING_VALUE != deadlineByCorrelationId.remove(correlationId))
+            {
+                idleStrategy.reset();
+                while (!cluster.cancelTimer(correlationId))
+                {
+                    idleStrategy.idle();
+                }
+                cancelled++;
+            }
+        }
+    }
+
+    // the time unit is only known once the log has been joined or the snapshot loaded, i.e. not yet in onStart
+    private TimeUnit timeUnit()
+    {
+        if (null == timeUnit)
+        {
+            timeUnit = cluster.timeUnit();
+            timerDelay = timeUnit.convert(timerDelayNs, TimeUnit.NANOSECONDS);
+        }
+
+        return timeUnit;
+    }
+
+    private long timerDelay()
+    {
+        timeUnit();
+        return timerDelay;
+    }
+
+    private void loadSnapshot(final Image snapshotImage)
+    {
+        deadlineByCorrelationId.clear();
+        snapshotEntries = MISSING_VALUE;
+
+        idleStrategy.reset();
+        while (MISSING_VALUE == snapshotEntries || deadlineByCorrelationId.size() < snapshotEntries)
+        {
+            final int fragments = snapshotImage.poll(snapshotHandler, FRAGMENT_LIMIT);
+            if (0 == fragments && (snapshotImage.isClosed() || snapshotImage.isEndOfStream()))
+            {
+                throw new IllegalStateException(
+                    "snapshot ended after " + deadlineByCorrelationId.size() + " of " + snapshotEntries + " timers");
+            }
+
+            idleStrategy.idle(fragments);
+        }
+    }
+
+    private void onSnapshotFragment(
+        final DirectBuffer buffer, final int offset, final int length, final Header header)
+    {
+        if (MISSING_VALUE == snapshotEntries)
+        {
+            nextCorrelationId = buffer.getLong(offset, LITTLE_ENDIAN);
+            nextCorrelationIdToCancel = buffer.getLong(offset + SIZE_OF_LONG, LITTLE_ENDIAN);
+            snapshotEntries = buffer.getLong(offset + 2 * SIZE_OF_LONG, LITTLE_ENDIAN);
+            return;
+        }
+
+        final int end = offset + length;
+        for (int i = offset; i < end; i += ENTRY_LENGTH)
+        {
+            deadlineByCorrelationId.put(
+                buffer.getLong(i, LITTLE_ENDIAN), buffer.getLong(i + SIZE_OF_LONG, LITTLE_ENDIAN));
+        }
+    }
+}
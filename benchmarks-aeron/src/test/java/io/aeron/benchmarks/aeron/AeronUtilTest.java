@@ -15,6 +15,7 @@
  */
 package io.aeron.benchmarks.aeron;
 
+import io.aeron.ChannelUri;
 import io.aeron.CncFileDescriptor;
 import io.aeron.archive.ArchiveMarkFile;
 import io.aeron.archive.codecs.mark.MarkFileHeaderEncoder;
@@ -54,7 +55,13 @@ import java.util.function.BooleanSupplier;
 
 import static io.aeron.CncFileDescriptor.createCountersMetaDataBuffer;
 import static io.aeron.CncFileDescriptor.createCountersValuesBuffer;
+import static io.aeron.CommonContext.ENDPOINT_PARAM_NAME;
 import static io.aeron.CommonContext.IPC_CHANNEL;
+import static io.aeron.CommonContext.LINGER_PARAM_NAME;
+import static io.aeron.CommonContext.MTU_LENGTH_PARAM_NAME;
+import static io.aeron.CommonContext.RECEIVER_WINDOW_LENGTH_PARAM_NAME;
+import static io.aeron.CommonContext.SOCKET_SNDBUF_PARAM_NAME;
+import static io.aeron.CommonContext.TERM_LENGTH_PARAM_NAME;
 import static java.lang.System.clearProperty;
 import static java.lang.System.setProperty;
 import static java.nio.charset.StandardCharsets.US_ASCII;
@@ -81,6 +88,91 @@ class AeronUtilTest
         clearProperty(REPLAY_STREAM_PROP_NAME);
         clearProperty(EMBEDDED_MEDIA_DRIVER_PROP_NAME);
         clearProperty(IDLE_STRATEGY_PROP_NAME);
+        clearProperty(SPY_CHANNEL_PROP_NAME);
+        clearProperty(SPY_STREAM_PROP_NAME);
+        clearProperty(ECHO_PROCESSING_DELAY_PROP_NAME);
+        clearProperty(ECHO_PAUSE_INTERVAL_PROP_NAME);
+        clearProperty(ECHO_PAUSE_DURATION_PROP_NAME);
+        clearProperty(ECHO_PASSIVE_PROP_NAME);
+        clearProperty(REPLAY_CHANNEL_TUNING_PROP_NAME);
+    }
+
+    @Test
+    void slowReceiverIsDisabledByDefault()
+    {
+        assertEquals(0, echoProcessingDelayNs());
+        assertEquals(0, echoPauseIntervalNs());
+        assertEquals(0, echoPauseDurationNs());
+        assertFalse(echoPassive());
+        assertFalse(EchoNode.SlowReceiver.fromSystemProperties().isSlow());
+
+        setProperty(ECHO_PROCESSING_DELAY_PROP_NAME, "10us");
+        setProperty(ECHO_PAUSE_INTERVAL_PROP_NAME, "5s");
+        setProperty(ECHO_PAUSE_DURATION_PROP_NAME, "50ms");
+
+        final EchoNode.SlowReceiver slowReceiver = EchoNode.SlowReceiver.fromSystemProperties();
+        assertEquals(MICROSECONDS.toNanos(10), slowReceiver.processingDelayNs);
+        assertEquals(SECONDS.toNanos(5), slowReceiver.pauseIntervalNs);
+        assertEquals(MILLISECONDS.toNanos(50), slowReceiver.pauseDurationNs);
+        assertFalse(slowReceiver.passive);
+        assertTrue(slowReceiver.isSlow());
+        assertTrue(slowReceiver.asPassive().passive);
+    }
+
+    @Test
+    void spyShouldDefaultToDestination()
+    {
+        setProperty(DESTINATION_CHANNEL_PROP_NAME, "aeron:udp?endpoint=localhost:5001");
+        setProperty(DESTINATION_STREAM_PROP_NAME, "100");
+
+        assertEquals("aeron:udp?endpoint=localhost:5001", spyChannel());
+        assertEquals(100, spyStreamId());
+
+        setProperty(SPY_CHANNEL_PROP_NAME, "aeron:udp?endpoint=localhost:8001");
+        setProperty(SPY_STREAM_PROP_NAME, "200");
+
+        assertEquals("aeron:udp?endpoint=localhost:8001", spyChannel());
+        assertEquals(200, spyStreamId());
+    }
+
+    @Test
+    void shouldOffsetEndpointPortByReceiverIndex()
+    {
+        final String channel = "aeron:udp?endpoint=localhost:8020|term-length=64k";
+
+        assertEquals(channel, receiverChannel(channel, 0));
+        final ChannelUri uri = ChannelUri.parse(receiverChannel(channel, 3));
+        assertEquals("localhost:8023", uri.get(ENDPOINT_PARAM_NAME));
+        assertEquals("64k", uri.get(TERM_LENGTH_PARAM_NAME));
+        assertEquals(
+            "aeron:udp?endpoint=localhost:0", receiverChannel("aeron:udp?endpoint=localhost:0", 2));
+        assertEquals("aeron:ipc", receiverChannel("aeron:ipc", 1));
+    }
+
+    @Test
+    void shouldApplyReplayChannelTuning()
+    {
+        final String channel = "aeron:udp?endpoint=localhost:8020|mtu=1408";
+        assertEquals(channel, tuneReplayChannel(channel));
+
+        setProperty(REPLAY_CHANNEL_TUNING_PROP_NAME, "mtu=8k|term-length=1m|so-sndbuf=2m|linger=0|rcv-wnd=4m");
+
+        final ChannelUri replayUri = ChannelUri.parse(tuneReplayChannel(channel));
+        assertEquals("localhost:8020", replayUri.get(ENDPOINT_PARAM_NAME));
+        assertEquals("8k", replayUri.get(MTU_LENGTH_PARAM_NAME));
+        assertEquals("1m", replayUri.get(TERM_LENGTH_PARAM_NAME));
+        assertEquals("2m", replayUri.get(SOCKET_SNDBUF_PARAM_NAME));
+        assertEquals("0", replayUri.get(LINGER_PARAM_NAME));
+        assertEquals("4m", replayUri.get(RECEIVER_WINDOW_LENGTH_PARAM_NAME));
+
+        final ChannelUri recordUri = ChannelUri.parse(tuneRecordChannel(IPC_CHANNEL));
+        assertEquals("8k", recordUri.get(MTU_LENGTH_PARAM_NAME));
+        assertEquals("1m", recordUri.get(TERM_LENGTH_PARAM_NAME));
+        assertNull(recordUri.get(SOCKET_SNDBUF_PARAM_NAME));
+        assertNull(recordUri.get(RECEIVER_WINDOW_LENGTH_PARAM_NAME));
+
+        setProperty(REPLAY_CHANNEL_TUNING_PROP_NAME, "mtu=8k|ttl=4");
+        assertThrows(IllegalArgumentException.class, () -> tuneReplayChannel(channel));
     }
 
     @Test
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2015-2025 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.aeron.benchmarks.aeron;
+
+import org.agrona.concurrent.status.CountersReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static io.aeron.Aeron.NULL_VALUE;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BackupLagSamplerTest
+{
+    @Test
+    void shouldRecordTheLagAndTheCatchUpTime(final @TempDir Path tempDir) throws IOException
+    {
+        final BackupLagSampler sampler = new BackupLagSampler(
+            () -> 42, tempDir.resolve("backup-lag.csv"), Throwable::printStackTrace, 1, 1000);
+
+        sampler.onLiveLogProgress(1, CountersReader.NULL_COUNTER_ID, 100);
+        sampler.sample(1000, 2000);
+        assertEquals(NULL_VALUE, sampler.catchUpTimeNs());
+
+        sampler.onLiveLogProgress(1, CountersReader.NULL_COUNTER_ID, 1000);
+        sampler.sample(1500, 5000);
+        assertEquals(4000, sampler.catchUpTimeNs());
+
+        sampler.close();
+        sampler.saveResults(tempDir, "");
+
+        assertEquals(2, sampler.lagHistogram().getTotalCount());
+        assertEquals(900, sampler.lagHistogram().getMaxValue());
+        assertTrue(Files.exists(tempDir.resolve("backup-lag.hdr")));
+
+        final List<String> samples = Files.readAllLines(tempDir.resolve("backup-lag.csv"), US_ASCII);
+        assertEquals(List.of(
+            "timestamp (ms),source position (bytes),backup position (bytes),lag (bytes)",
+            "42,1000,100,900",
+            "42,1500,1000,500"), samples);
+
+        final List<String> catchUp = Files.readAllLines(tempDir.resolve("backup-catch-up.csv"), US_ASCII);
+        assertEquals(List.of("catch-up position (bytes),catch-up time (ms)", "1000,0"), catchUp);
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2015-2025 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.aeron.benchmarks.aeron;
+
+import io.aeron.archive.Archive;
+import io.aeron.archive.client.AeronArchive;
+import org.agrona.IoUtil;
+import org.agrona.concurrent.SystemNanoClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static io.aeron.archive.Archive.Configuration.ARCHIVE_DIR_DELETE_ON_START_PROP_NAME;
+import static io.aeron.benchmarks.aeron.AeronUtil.findHighestRecordingId;
+import static io.aeron.benchmarks.aeron.AeronUtil.findLastRecordingId;
+import static io.aeron.benchmarks.aeron.AeronUtil.recordingChannelFragment;
+import static io.aeron.benchmarks.aeron.ArchivingMediaDriver.launchArchiveWithEmbeddedDriver;
+import static io.aeron.driver.Configuration.DIR_DELETE_ON_SHUTDOWN_PROP_NAME;
+import static io.aeron.driver.Configuration.DIR_DELETE_ON_START_PROP_NAME;
+import static java.lang.System.clearProperty;
+import static java.lang.System.setProperty;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogBenchmarkTest
+{
+    private File archiveDir;
+
+    @BeforeEach
+    void before()
+    {
+        setProperty(DIR_DELETE_ON_START_PROP_NAME, "true");
+        setProperty(DIR_DELETE_ON_SHUTDOWN_PROP_NAME, "true");
+        setProperty(ARCHIVE_DIR_DELETE_ON_START_PROP_NAME, "true");
+        setProperty(AeronArchive.Configuration.CONTROL_CHANNEL_PROP_NAME,
+            "aeron:udp?endpoint=localhost:8010|term-length=64k");
+        setProperty(AeronArchive.Configuration.CONTROL_RESPONSE_CHANNEL_PROP_NAME,
+            "aeron:udp?endpoint=localhost:8020");
+        setProperty(Archive.Configuration.REPLICATION_CHANNEL_PROP_NAME, "aeron:udp?endpoint=localhost:8040");
+    }
+
+    @AfterEach
+    void after()
+    {
+        clearProperty(DIR_DELETE_ON_START_PROP_NAME);
+        clearProperty(DIR_DELETE_ON_SHUTDOWN_PROP_NAME);
+        clearProperty(ARCHIVE_DIR_DELETE_ON_START_PROP_NAME);
+        clearProperty(AeronArchive.Configuration.CONTROL_CHANNEL_PROP_NAME);
+        clearProperty(AeronArchive.Configuration.CONTROL_RESPONSE_CHANNEL_PROP_NAME);
+        clearProperty(Archive.Configuration.REPLICATION_CHANNEL_PROP_NAME);
+        IoUtil.delete(archiveDir, true);
+    }
+
+    @Test
+    void shouldRejectInvalidConfiguration()
+    {
+        assertThrows(IllegalArgumentException.class, () -> new CatalogConfiguration.Builder().lookups(0).build());
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> new CatalogConfiguration.Builder().fillerStreamId(1).targetStreamId(1).build());
+    }
+
+    @Timeout(30)
+    @Test
+    void shouldLookUpNewestRecordingInPopulatedCatalog(final @TempDir Path tempDir) throws Exception
+    {
+        final CatalogConfiguration configuration = new CatalogConfiguration.Builder()
+            .recordings(1500)
+            .lookups(3)
+            .build();
+
+        try (ArchivingMediaDriver driver = launchArchiveWithEmbeddedDriver();
+            AeronArchive aeronArchive = AeronArchive.connect())
+        {
+            archiveDir = driver.archive.context().archiveDir();
+            final AtomicBoolean running = new AtomicBoolean(true);
+            final String targetChannel = recordingChannelFragment(CatalogBenchmark.TARGET_CHANNEL);
+
+            try (CatalogBenchmark benchmark = new CatalogBenchmark(
+                configuration, running, null, aeronArchive, false, SystemNanoClock.INSTANCE))
+            {
+                final long firstTargetRecordingId = benchmark.populate();
+                assertEquals(1500, firstTargetRecordingId);
+                assertEquals(firstTargetRecordingId, findHighestRecordingId(aeronArchive));
+
+                final long targetRecordingId = benchmark.populate();
+                assertEquals(firstTargetRecordingId + 1, targetRecordingId);
+                assertEquals(
+                    targetRecordingId,
+                    findLastRecordingId(aeronArchive, targetChannel, configuration.targetStreamId()));
+
+                benchmark.run(tempDir, "test-");
+                benchmark.saveHistograms(tempDir, "test-");
+
+                assertEquals(6, benchmark.histograms().size());
+                assertTrue(Files.exists(tempDir.resolve("test-find-last-recording-id.hdr")));
+            }
+
+            final List<String> lines = Files.readAllLines(tempDir.resolve("test-catalog.csv"), US_ASCII);
+            assertEquals(7, lines.size());
+            for (final String line : lines.subList(1, lines.size()))
+            {
+                final String[] values = line.split(",");
+                assertEquals(1502, Long.parseLong(values[1]), line);
+                assertEquals(3, Long.parseLong(values[2]), line);
+            }
+        }
+    }
+}
@@ -19,8 +19,10 @@ import io.aeron.archive.Archive;
 import io.aeron.archive.client.AeronArchive;
 import io.aeron.cluster.ConsensusModule;
 import io.aeron.cluster.client.AeronCluster;
+import io.aeron.cluster.service.ClusteredService;
 import io.aeron.cluster.service.ClusteredServiceContainer;
 import org.HdrHistogram.Histogram;
+import org.HdrHistogram.ValueRecorder;
 import org.agrona.concurrent.NanoClock;
 import org.agrona.concurrent.NoOpLock;
 import org.agrona.concurrent.SystemNanoClock;
@@ -31,22 +33,29 @@ import org.junit.jupiter.api.Timeout;
 import org.junit.jupiter.api.io.TempDir;
 import io.aeron.benchmarks.Configuration;
 import io.aeron.benchmarks.LoadTestRig;
+import io.aeron.benchmarks.MessageTransceiver;
 import io.aeron.benchmarks.PersistedHistogram;
 import io.aeron.benchmarks.SinglePersistedHistogram;
 
 import java.io.PrintStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
 
 import static io.aeron.CommonContext.AERON_DIR_PROP_NAME;
 import static io.aeron.driver.Configuration.DIR_DELETE_ON_SHUTDOWN_PROP_NAME;
 import static io.aeron.driver.Configuration.DIR_DELETE_ON_START_PROP_NAME;
 import static java.lang.System.clearProperty;
 import static java.lang.System.setProperty;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static io.aeron.benchmarks.aeron.AeronUtil.*;
 
 class ClusterTest
 {
+    private long snapshots;
+
     @BeforeEach
     void before()
     {
@@ -69,6 +78,10 @@ class ClusterTest
         clearProperty(AeronArchive.Configuration.RECORDING_EVENTS_ENABLED_PROP_NAME);
         clearProperty(AeronArchive.Configuration.CONTROL_CHANNEL_PROP_NAME);
         clearProperty(AeronArchive.Configuration.LOCAL_CONTROL_CHANNEL_PROP_NAME);
+        clearProperty(SnapshotTrigger.SNAPSHOT_INTERVAL_PROP_NAME);
+        clearProperty(CLUSTER_SESSIONS_PROP_NAME);
+        clearProperty(CLUSTER_INGRESS_BATCH_SIZE_PROP_NAME);
+        clearProperty(CLUSTER_IN_CLUSTER_TIME_PROP_NAME);
     }
 
     @Timeout(30)
@@ -92,12 +105,114 @@ class ClusterTest
         test(100, 1344, 1, tempDir);
     }
 
-    @SuppressWarnings("MethodLength")
+    @Timeout(30)
+    @Test
+    void keyValueService(final @TempDir Path tempDir) throws Exception
+    {
+        test(1000, 288, 5, tempDir, new KeyValueClusteredService(10_000, 4));
+    }
+
+    @Timeout(30)
+    @Test
+    void timerService(final @TempDir Path tempDir) throws Exception
+    {
+        final TimerClusteredService service = new TimerClusteredService(10, 5, TimeUnit.MILLISECONDS.toNanos(1));
+
+        // fresh start without a snapshot, i.e. the cluster time unit is not known in onStart
+        assertFalse(Files.exists(tempDir.resolve("consensus-module")));
+        test(1000, 64, 5, tempDir, service);
+
+        assertTrue(service.skewHistogram().getTotalCount() > 0);
+    }
+
+    @Timeout(30)
+    @Test
+    void triggerSnapshots(final @TempDir Path tempDir) throws Exception
+    {
+        setProperty(SnapshotTrigger.SNAPSHOT_INTERVAL_PROP_NAME, "200ms");
+
+        test(1000, 288, 5, tempDir, new KeyValueClusteredService(10_000, 4));
+
+        assertTrue(snapshots > 0);
+        assertTrue(Files.exists(tempDir.resolve("snapshots.csv")));
+        assertTrue(Files.exists(tempDir.resolve("aeron_rate=1K_batch=5_length=288-during-snapshot.hdr")));
+    }
+
+    @Timeout(30)
+    @Test
+    void ingressBatching(final @TempDir Path tempDir) throws Exception
+    {
+        setProperty(CLUSTER_INGRESS_BATCH_SIZE_PROP_NAME, "4");
+        setProperty(CLUSTER_IN_CLUSTER_TIME_PROP_NAME, "true");
+
+        final EchoClusteredService service = new EchoClusteredService(DEFAULT_SNAPSHOT_SIZE, false, true, true);
+        test(1000, 64, 10, tempDir, service);
+
+        assertTrue(service.consensusHistogram().getTotalCount() > 0);
+    }
+
+    @Timeout(30)
+    @Test
+    void ingressBatchingWithReplyPerMessage(final @TempDir Path tempDir) throws Exception
+    {
+        setProperty(CLUSTER_INGRESS_BATCH_SIZE_PROP_NAME, "4");
+
+        test(1000, 64, 10, tempDir, new EchoClusteredService(DEFAULT_SNAPSHOT_SIZE, true));
+    }
+
+    @Timeout(30)
+    @Test
+    void multipleSessions(final @TempDir Path tempDir) throws Exception
+    {
+        setProperty(CLUSTER_SESSIONS_PROP_NAME, "3");
+
+        test(
+            1000,
+            288,
+            5,
+            tempDir,
+            new EchoClusteredService(DEFAULT_SNAPSHOT_SIZE),
+            (nc, vr, ctx, trigger) -> new MultiSessionClusterMessageTransceiver(nc, vr, null, ctx));
+
+        for (int i = 0; i < 3; i++)
+        {
+            assertTrue(Files.exists(tempDir.resolve("aeron_rate=1K_batch=5_length=288-session-" + i + ".hdr")));
+        }
+    }
+
     protected final void test(
         final int messages,
         final int messageLength,
         final int burstSize,
         final Path tempDir) throws Exception
+    {
+        test(messages, messageLength, burstSize, tempDir, new EchoClusteredService(DEFAULT_SNAPSHOT_SIZE));
+    }
+
+    protected final void test(
+        final int messages,
+        final int messageLength,
+        final int burstSize,
+        final Path tempDir,
+        final ClusteredService clusteredService) throws Exception
+    {
+        test(
+            messages,
+            messageLength,
+            burstSize,
+            tempDir,
+            clusteredService,
+            (nc, vr, ctx, trigger) -> new ClusterMessageTransceiver(nc, vr, null, ctx, trigger));
+    }
+
+    @SuppressWarnings("MethodLength")
+    protected final void test(
+        final int messages,
+        final int messageLength,
+        final int burstSize,
+        final Path tempDir,
+        final ClusteredService clusteredService,
+        final TransceiverFactory transceiverFactory) throws Exception
     {
         final String aeronDirectoryName = tempDir.resolve("driver").toString();
         setProperty(AERON_DIR_PROP_NAME, aeronDirectoryName);
@@ -129,6 +244,7 @@ class ClusterTest
 
         final ConsensusModule.Context consensusModuleContext = new ConsensusModule.Context()
             .clusterMemberId(0)
+            .clusterClock(AeronUtil.clusterClock())
             .clusterMembers("0,localhost:20000,localhost:20001,localhost:20002,localhost:20003,localhost:8010")
             .ingressChannel("aeron:udp?term-length=64k")
             .logChannel("aeron:udp?term-length=64k|control-mode=manual|control=localhost:20002")
@@ -139,7 +255,7 @@ class ClusterTest
             .clusterDirectoryName(clusterDirectoryName);
 
         final ClusteredServiceContainer.Context serviceContainerContext = new ClusteredServiceContainer.Context()
-            .clusteredService(new EchoClusteredService(DEFAULT_SNAPSHOT_SIZE))
+            .clusteredService(clusteredService)
             .errorHandler(AeronUtil.printingErrorHandler("service-container"))
             .archiveContext(aeronArchiveContext.clone())
             .aeronDirectoryName(aeronDirectoryName)
@@ -153,7 +269,9 @@ class ClusterTest
         try (ArchivingMediaDriver driver = launchArchivingMediaDriver();
             ConsensusModule consensusModule = ConsensusModule.launch(consensusModuleContext);
             ClusteredServiceContainer clusteredServiceContainer = ClusteredServiceContainer.launch(
-                serviceContainerContext))
+                serviceContainerContext);
+            SnapshotTrigger snapshotTrigger = SnapshotTrigger.launchIfConfigured(
+                driver.archive.context().aeron().countersReader(), tempDir, ""))
         {
             final NanoClock nanoClock = SystemNanoClock.INSTANCE;
             final PersistedHistogram persistedHistogram = new SinglePersistedHistogram(new Histogram(3));
@@ -161,9 +279,21 @@ class ClusterTest
                 configuration,
                 nanoClock,
                 persistedHistogram,
-                (nc, vr) -> new ClusterMessageTransceiver(nc, vr, null, aeronClusterContext),
+                (nc, vr) -> transceiverFactory.create(nc, vr, aeronClusterContext, snapshotTrigger),
                 mock(PrintStream.class));
             loadTestRig.run();
+
+            snapshots = null == snapshotTrigger ? 0 : snapshotTrigger.snapshots();
         }
     }
+
+    @FunctionalInterface
+    interface TransceiverFactory
+    {
+        MessageTransceiver create(
+            NanoClock nanoClock,
+            ValueRecorder valueRecorder,
+            AeronCluster.Context aeronClusterContext,
+            SnapshotTrigger snapshotTrigger);
+    }
 }
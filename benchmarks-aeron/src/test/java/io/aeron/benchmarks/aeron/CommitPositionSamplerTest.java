@@ -0,0 +1,66 @@
+/*
+ * Copyright 2015-2025 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.aeron.benchmarks.aeron;
+
+import io.aeron.cluster.service.Cluster;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.status.CountersManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommitPositionSamplerTest
+{
+    @Test
+    void shouldRecordTheCommitLagPerRole(final @TempDir Path tempDir) throws IOException
+    {
+        final CountersManager countersManager = new CountersManager(
+            new UnsafeBuffer(ByteBuffer.allocateDirect(16 * 1024)),
+            new UnsafeBuffer(ByteBuffer.allocateDirect(4 * 1024)));
+
+        final CommitPositionSampler sampler = new CommitPositionSampler(
+            countersManager, 0, tempDir.toFile(), 0, () -> 42, tempDir.resolve("commit-position.csv"), 1);
+
+        sampler.sample(Cluster.Role.FOLLOWER, 1024, 1000);
+        sampler.sample(Cluster.Role.CANDIDATE, 1024, 1024);
+        sampler.sample(Cluster.Role.LEADER, 2048, 1536);
+        sampler.close();
+        sampler.saveLagHistograms(tempDir, "");
+
+        assertEquals(1, sampler.followerLagHistogram().getTotalCount());
+        assertEquals(24, sampler.followerLagHistogram().getMaxValue());
+        assertEquals(1, sampler.leaderLagHistogram().getTotalCount());
+        assertEquals(512, sampler.leaderLagHistogram().getMaxValue());
+        assertTrue(Files.exists(tempDir.resolve("leader-commit-lag.hdr")));
+        assertTrue(Files.exists(tempDir.resolve("follower-commit-lag.hdr")));
+
+        final List<String> samples = Files.readAllLines(tempDir.resolve("commit-position.csv"), US_ASCII);
+        assertEquals(List.of(
+            "timestamp (ms),role,append position (bytes),commit position (bytes),lag (bytes)",
+            "42,FOLLOWER,1024,1000,24",
+            "42,CANDIDATE,1024,1024,0",
+            "42,LEADER,2048,1536,512"), samples);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2015-2025 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.aeron.benchmarks.aeron;
+
+import io.aeron.AeronCounters;
+import io.aeron.driver.status.SystemCounterDescriptor;
+import org.agrona.concurrent.CachedEpochClock;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.status.AtomicCounter;
+import org.agrona.concurrent.status.CountersManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static java.lang.System.clearProperty;
+import static java.lang.System.setProperty;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountersSamplerTest
+{
+    @AfterEach
+    void after()
+    {
+        clearProperty(CountersSampler.SAMPLE_INTERVAL_PROP_NAME);
+    }
+
+    @Test
+    void sampleIntervalDependsOnHistoryTrackingByDefault()
+    {
+        assertEquals(0, CountersSampler.sampleIntervalNs(false));
+        assertEquals(SECONDS.toNanos(1), CountersSampler.sampleIntervalNs(true));
+    }
+
+    @Test
+    void explicitSampleIntervalTakesPrecedence()
+    {
+        setProperty(CountersSampler.SAMPLE_INTERVAL_PROP_NAME, "250ms");
+        assertEquals(MILLISECONDS.toNanos(250), CountersSampler.sampleIntervalNs(false));
+
+        setProperty(CountersSampler.SAMPLE_INTERVAL_PROP_NAME, "0");
+        assertEquals(0, CountersSampler.sampleIntervalNs(true));
+    }
+
+    @Test
+    void shouldWriteCounterDeltasPerSample(final @TempDir Path tempDir) throws IOException
+    {
+        final CountersManager countersManager = new CountersManager(
+            new UnsafeBuffer(ByteBuffer.allocateDirect(64 * 1024)),
+            new UnsafeBuffer(ByteBuffer.allocateDirect(16 * 1024)));
+
+        int maxSystemCounterId = 0;
+        for (final SystemCounterDescriptor descriptor : SystemCounterDescriptor.values())
+        {
+            maxSystemCounterId = Math.max(maxSystemCounterId, descriptor.id());
+        }
+
+        final AtomicCounter[] systemCounters = new AtomicCounter[maxSystemCounterId + 1];
+        for (int i = 0; i <= maxSystemCounterId; i++)
+        {
+            systemCounters[i] = countersManager.newCounter("system " + i, AeronCounters.DRIVER_SYSTEM_COUNTER_TYPE_ID);
+        }
+        final AtomicCounter bpe1 = countersManager.newCounter("bpe 1", AeronCounters.DRIVER_SENDER_BPE_TYPE_ID);
+        final AtomicCounter bpe2 = countersManager.newCounter("bpe 2", AeronCounters.DRIVER_SENDER_BPE_TYPE_ID);
+
+        systemCounters[SystemCounterDescriptor.NAK_MESSAGES_SENT.id()].set(5);
+        bpe1.set(100);
+
+        final Path file = tempDir.resolve("test" + CountersSampler.FILE_SUFFIX);
+        final CachedEpochClock epochClock = new CachedEpochClock();
+        final CountersSampler sampler = new CountersSampler(countersManager, epochClock, file, 1);
+
+        systemCounters[SystemCounterDescriptor.NAK_MESSAGES_SENT.id()].increment();
+        systemCounters[SystemCounterDescriptor.NAK_MESSAGES_SENT.id()].increment();
+        systemCounters[SystemCounterDescriptor.RETRANSMITS_SENT.id()].set(3);
+        bpe1.increment();
+        bpe2.set(6);
+        epochClock.update(1000);
+        sampler.sample();
+
+        systemCounters[SystemCounterDescriptor.ERRORS.id()].increment();
+        epochClock.update(2000);
+        sampler.sample();
+        sampler.close();
+
+        final List<String> lines = Files.readAllLines(file, US_ASCII);
+        assertEquals(3, lines.size());
+
+        final String header = lines.get(0);
+        assertTrue(header.startsWith(
+            "timestamp (ms),\"" + SystemCounterDescriptor.NAK_MESSAGES_SENT.label() + "\","), header);
+        assertTrue(header.endsWith(",\"Sender back-pressure events\""), header);
+
+        final String[] first = lines.get(1).split(",");
+        assertEquals(CountersSampler.SAMPLED_COUNTERS.length + 2, first.length);
+        assertEquals("1000", first[0]);
+        assertEquals(2, valueOf(first, SystemCounterDescriptor.NAK_MESSAGES_SENT));
+        assertEquals(3, valueOf(first, SystemCounterDescriptor.RETRANSMITS_SENT));
+        assertEquals(0, valueOf(first, SystemCounterDescriptor.ERRORS));
+        assertEquals("7", first[first.length - 1]);
+
+        final String[] second = lines.get(2).split(",");
+        assertEquals("2000", second[0]);
+        assertEquals(0, valueOf(second, SystemCounterDescriptor.NAK_MESSAGES_SENT));
+        assertEquals(1, valueOf(second, SystemCounterDescriptor.ERRORS));
+        assertEquals("0", second[second.length - 1]);
+    }
+
+    private static long valueOf(final String[] row, final SystemCounterDescriptor descriptor)
+    {
+        for (int i = 0; i < CountersSampler.SAMPLED_COUNTERS.length; i++)
+        {
+            if (CountersSampler.SAMPLED_COUNTERS[i] == descriptor)
+            {
+                return Long.parseLong(row[i + 1]);
+            }
+        }
+
+        throw new IllegalArgumentException("not sampled: " + descriptor);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2015-2025 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.aeron.benchmarks.aeron;
+
+import io.aeron.cluster.client.AeronCluster;
+import io.aeron.cluster.service.ClientSession;
+import io.aeron.cluster.service.Cluster;
+import io.aeron.logbuffer.BufferClaim;
+import io.aeron.logbuffer.Header;
+import io.aeron.protocol.DataHeaderFlyweight;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.YieldingIdleStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.aeron.benchmarks.aeron.AeronUtil.CLUSTER_INGRESS_TIME_OFFSET;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EchoClusteredServiceTest
+{
+    @Test
+    void shouldRecordTheInClusterTimeOnlyOnTheLeader()
+    {
+        final Cluster cluster = mock(Cluster.class);
+        when(cluster.idleStrategy()).thenReturn(YieldingIdleStrategy.INSTANCE);
+        when(cluster.timeUnit()).thenReturn(TimeUnit.NANOSECONDS);
+        when(cluster.role()).thenReturn(Cluster.Role.LEADER);
+
+        final ClientSession session = mockSession();
+        final EchoClusteredService service = new EchoClusteredService(0, false, false, true, () -> 1800);
+        service.onStart(cluster, null);
+
+        final UnsafeBuffer message = new UnsafeBuffer(new byte[32]);
+        message.putLong(CLUSTER_INGRESS_TIME_OFFSET, 1000, LITTLE_ENDIAN);
+
+        service.onSessionMessage(session, 1500, message, 0, message.capacity(), mock(Header.class));
+
+        assertEquals(1, service.ingressHistogram().getTotalCount());
+        assertEquals(500, service.ingressHistogram().getMaxValue());
+        assertEquals(300, service.consensusHistogram().getMaxValue());
+        assertEquals(1, service.processingHistogram().getTotalCount());
+        assertTrue(service.inClusterHistogram().getMaxValue() >= 800);
+
+        service.onRoleChange(Cluster.Role.FOLLOWER);
+        service.onSessionMessage(session, 1600, message, 0, message.capacity(), mock(Header.class));
+
+        verify(session, times(2)).tryClaim(anyInt(), any(BufferClaim.class));
+        assertEquals(1, service.ingressHistogram().getTotalCount());
+        assertEquals(1, service.inClusterHistogram().getTotalCount());
+    }
+
+    @Test
+    void shouldOnlyRecordTheProcessingAndTotalTimeForACoarseClusterTimeUnit()
+    {
+        final Cluster cluster = mock(Cluster.class);
+        when(cluster.idleStrategy()).thenReturn(YieldingIdleStrategy.INSTANCE);
+        when(cluster.timeUnit()).thenReturn(TimeUnit.MILLISECONDS);
+        when(cluster.role()).thenReturn(Cluster.Role.LEADER);
+
+        final EchoClusteredService service = new EchoClusteredService(0, false, false, true, () -> 1800);
+        service.onStart(cluster, null);
+
+        final UnsafeBuffer message = new UnsafeBuffer(new byte[32]);
+        message.putLong(CLUSTER_INGRESS_TIME_OFFSET, 1000, LITTLE_ENDIAN);
+        service.onSessionMessage(mockSession(), 1, message, 0, message.capacity(), mock(Header.class));
+
+        assertEquals(0, service.ingressHistogram().getTotalCount());
+        assertEquals(0, service.consensusHistogram().getTotalCount());
+        assertEquals(1, service.processingHistogram().getTotalCount());
+        assertEquals(1, service.inClusterHistogram().getTotalCount());
+    }
+
+    @Test
+    void shouldNotRecordUnlessEnabled()
+    {
+        final Cluster cluster = mock(Cluster.class);
+        when(cluster.idleStrategy()).thenReturn(YieldingIdleStrategy.INSTANCE);
+        when(cluster.role()).thenReturn(Cluster.Role.LEADER);
+
+        final EchoClusteredService service = new EchoClusteredService(0, false, false, false, () -> 1800);
+        service.onStart(cluster, null);
+
+        final UnsafeBuffer message = new UnsafeBuffer(new byte[32]);
+        service.onSessionMessage(mockSession(), 1, message, 0, message.capacity(), mock(Header.class));
+
+        assertEquals(0, service.inClusterHistogram().getTotalCount());
+    }
+
+    private static ClientSession mockSession()
+    {
+        final ClientSession session = mock(ClientSession.class);
+        when(session.tryClaim(anyInt(), any(BufferClaim.class))).thenAnswer(invocation ->
+        {
+            final int length = DataHeaderFlyweight.HEADER_LENGTH + AeronCluster.SESSION_HEADER_LENGTH +
+                invocation.<Integer>getArgument(0);
+            invocation.<BufferClaim>getArgument(1).wrap(new UnsafeBuffer(new byte[length]), 0, length);
+            return 64L;
+        });
+
+        return session;
+    }
+}
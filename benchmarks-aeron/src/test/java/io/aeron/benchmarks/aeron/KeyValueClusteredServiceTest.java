@@ -0,0 +1,84 @@
+/*
+ * Copyright 2015-2025 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.aeron.benchmarks.aeron;
+
+import io.aeron.Aeron;
+import io.aeron.ExclusivePublication;
+import io.aeron.Image;
+import io.aeron.Subscription;
+import io.aeron.cluster.service.Cluster;
+import io.aeron.driver.MediaDriver;
+import io.aeron.driver.ThreadingMode;
+import org.agrona.concurrent.YieldingIdleStrategy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class KeyValueClusteredServiceTest
+{
+    private static final String SNAPSHOT_CHANNEL = "aeron:ipc?term-length=64k";
+    private static final int SNAPSHOT_STREAM_ID = 1;
+
+    @Test
+    void shouldRejectEmptyWorkingSet()
+    {
+        assertThrows(IllegalArgumentException.class, () -> new KeyValueClusteredService(0, 1));
+    }
+
+    @Timeout(30)
+    @Test
+    void shouldLoadTheStateFromTheSnapshot(final @TempDir Path tempDir)
+    {
+        final Cluster cluster = mock(Cluster.class);
+        when(cluster.idleStrategy()).thenReturn(YieldingIdleStrategy.INSTANCE);
+
+        final KeyValueClusteredService service = new KeyValueClusteredService(1000, 1);
+        service.onStart(cluster, null);
+        assertEquals(1000, service.state().size());
+        service.state().put(7, 42);
+        service.state().put(999, 3);
+
+        final KeyValueClusteredService restoredService = new KeyValueClusteredService(1000, 1);
+
+        try (MediaDriver mediaDriver = MediaDriver.launch(new MediaDriver.Context()
+            .aeronDirectoryName(tempDir.resolve("driver").toString())
+            .threadingMode(ThreadingMode.SHARED)
+            .dirDeleteOnStart(true));
+            Aeron aeron = Aeron.connect(new Aeron.Context().aeronDirectoryName(mediaDriver.aeronDirectoryName()));
+            Subscription subscription = aeron.addSubscription(SNAPSHOT_CHANNEL, SNAPSHOT_STREAM_ID);
+            ExclusivePublication publication = aeron.addExclusivePublication(SNAPSHOT_CHANNEL, SNAPSHOT_STREAM_ID))
+        {
+            Image image;
+            while (null == (image = subscription.imageBySessionId(publication.sessionId())))
+            {
+                Thread.yield();
+            }
+
+            service.onTakeSnapshot(publication);
+            restoredService.onStart(cluster, image);
+        }
+
+        assertEquals(service.state(), restoredService.state());
+        assertEquals(42, restoredService.state().get(7));
+    }
+}
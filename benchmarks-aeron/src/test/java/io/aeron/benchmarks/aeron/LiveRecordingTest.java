@@ -23,16 +23,23 @@ import org.agrona.IoUtil;
 import org.agrona.concurrent.NanoClock;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static io.aeron.CommonContext.IPC_CHANNEL;
 import static io.aeron.archive.client.AeronArchive.Configuration.RECORDING_EVENTS_CHANNEL_PROP_NAME;
 import static io.aeron.archive.client.AeronArchive.Configuration.RECORDING_EVENTS_ENABLED_PROP_NAME;
 import static io.aeron.archive.client.AeronArchive.connect;
+import static io.aeron.benchmarks.aeron.AeronUtil.LIVE_RECORDING_POSITION_COUNTER_PROP_NAME;
 import static java.lang.System.clearProperty;
 import static java.lang.System.setProperty;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static io.aeron.benchmarks.aeron.ArchivingMediaDriver.launchArchiveWithEmbeddedDriver;
 
 class LiveRecordingTest extends
@@ -63,6 +70,33 @@ class LiveRecordingTest extends
         IoUtil.delete(archiveDir, true);
     }
 
+    @Timeout(30)
+    @Test
+    void shouldSaveRecordingLagHistogram(final @TempDir Path tempDir) throws Exception
+    {
+        test(1000, 288, 5, tempDir);
+
+        assertTrue(Files.exists(tempDir.resolve("logs").resolve("live-recording-client-recording-lag.hdr")));
+        assertTrue(Files.exists(tempDir.resolve("aeron_rate=1K_batch=5_length=288-persist-latency.hdr")));
+    }
+
+    @Timeout(30)
+    @Test
+    void shouldReadRecordingPositionCounter(final @TempDir Path tempDir) throws Exception
+    {
+        setProperty(LIVE_RECORDING_POSITION_COUNTER_PROP_NAME, "true");
+        try
+        {
+            test(1000, 288, 5, tempDir);
+        }
+        finally
+        {
+            clearProperty(LIVE_RECORDING_POSITION_COUNTER_PROP_NAME);
+        }
+
+        assertTrue(Files.exists(tempDir.resolve("aeron_rate=1K_batch=5_length=288-persist-latency.hdr")));
+    }
+
     protected EchoNode createNode(
         final AtomicBoolean running, final ArchivingMediaDriver archivingMediaDriver, final AeronArchive aeronArchive)
     {
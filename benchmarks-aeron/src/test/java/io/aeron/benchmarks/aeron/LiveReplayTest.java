@@ -23,13 +23,23 @@ import org.agrona.IoUtil;
 import org.agrona.concurrent.NanoClock;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
+import java.nio.file.Path;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static io.aeron.archive.client.AeronArchive.connect;
+import static io.aeron.benchmarks.aeron.AeronUtil.ARCHIVE_NODE_BLOCK_PIPE_PROP_NAME;
+import static io.aeron.benchmarks.aeron.AeronUtil.DESTINATION_CHANNEL_PROP_NAME;
+import static io.aeron.benchmarks.aeron.AeronUtil.RECORD_CHANNEL_PROP_NAME;
+import static io.aeron.benchmarks.aeron.AeronUtil.RECORD_STREAM_PROP_NAME;
+import static io.aeron.benchmarks.aeron.AeronUtil.destinationStreamId;
 import static java.lang.System.clearProperty;
 import static java.lang.System.setProperty;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static io.aeron.benchmarks.aeron.ArchivingMediaDriver.launchArchiveWithEmbeddedDriver;
 
 class LiveReplayTest extends
@@ -37,6 +47,7 @@ class LiveReplayTest extends
 {
 
     private File archiveDir;
+    private volatile ArchiveNode archiveNode;
 
     @BeforeEach
     void before()
@@ -54,13 +65,34 @@ class LiveReplayTest extends
         clearProperty(AeronArchive.Configuration.CONTROL_CHANNEL_PROP_NAME);
         clearProperty(AeronArchive.Configuration.CONTROL_RESPONSE_CHANNEL_PROP_NAME);
         clearProperty(Archive.Configuration.REPLICATION_CHANNEL_PROP_NAME);
+        clearProperty(ARCHIVE_NODE_BLOCK_PIPE_PROP_NAME);
+        clearProperty(DESTINATION_CHANNEL_PROP_NAME);
+        clearProperty(RECORD_CHANNEL_PROP_NAME);
+        clearProperty(RECORD_STREAM_PROP_NAME);
         IoUtil.delete(archiveDir, true);
     }
 
+    @Timeout(30)
+    @Test
+    void shouldPipeBlocksIntoTheRecording(final @TempDir Path tempDir) throws Exception
+    {
+        setProperty(ARCHIVE_NODE_BLOCK_PIPE_PROP_NAME, "true");
+        setProperty(DESTINATION_CHANNEL_PROP_NAME, "aeron:udp?endpoint=localhost:13333|mtu=1408|term-length=64k");
+        setProperty(RECORD_CHANNEL_PROP_NAME, "aeron:ipc");
+        setProperty(RECORD_STREAM_PROP_NAME, Integer.toString(destinationStreamId()));
+
+        test(1000, 288, 5, tempDir);
+
+        final PipeStatistics pipeStatistics = archiveNode.pipeStatistics();
+        assertTrue(pipeStatistics.bytes() > 64 * 1024);
+        assertTrue(pipeStatistics.polls() > 0);
+    }
+
     protected ArchiveNode createNode(
         final AtomicBoolean running, final ArchivingMediaDriver archivingMediaDriver, final AeronArchive aeronArchive)
     {
-        return new ArchiveNode(running, archivingMediaDriver, aeronArchive, false);
+        archiveNode = new ArchiveNode(running, archivingMediaDriver, aeronArchive, false);
+        return archiveNode;
     }
 
     protected ArchivingMediaDriver createDriver()
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2015-2025 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.aeron.benchmarks.aeron;
+
+import io.aeron.RethrowingErrorHandler;
+import io.aeron.archive.Archive;
+import io.aeron.archive.client.AeronArchive;
+import org.HdrHistogram.ValueRecorder;
+import org.agrona.IoUtil;
+import org.agrona.concurrent.NanoClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static io.aeron.archive.client.AeronArchive.connect;
+import static io.aeron.benchmarks.aeron.AeronUtil.*;
+import static io.aeron.benchmarks.aeron.ArchivingMediaDriver.launchArchiveWithEmbeddedDriver;
+import static java.lang.System.clearProperty;
+import static java.lang.System.setProperty;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplayMergeTest extends
+    AbstractTest<ArchivingMediaDriver, AeronArchive, ReplayMergeMessageTransceiver, ArchiveNode>
+{
+    private File archiveDir;
+
+    @BeforeEach
+    void before()
+    {
+        setProperty(AeronArchive.Configuration.CONTROL_CHANNEL_PROP_NAME,
+            "aeron:udp?endpoint=localhost:8010|term-length=64k");
+        setProperty(AeronArchive.Configuration.CONTROL_RESPONSE_CHANNEL_PROP_NAME,
+            "aeron:udp?endpoint=localhost:8020");
+        setProperty(Archive.Configuration.REPLICATION_CHANNEL_PROP_NAME, "aeron:udp?endpoint=localhost:8040");
+        setProperty(RECORD_CHANNEL_PROP_NAME, "aeron:udp?control=localhost:8150|control-mode=dynamic|term-length=64k");
+        setProperty(REPLAY_MERGE_LIVE_DESTINATION_PROP_NAME,
+            "aeron:udp?endpoint=localhost:8151|control=localhost:8150");
+        setProperty(REPLAY_MERGE_JOIN_DELAY_PROP_NAME, "200ms");
+    }
+
+    @AfterEach
+    void after()
+    {
+        clearProperty(AeronArchive.Configuration.CONTROL_CHANNEL_PROP_NAME);
+        clearProperty(AeronArchive.Configuration.CONTROL_RESPONSE_CHANNEL_PROP_NAME);
+        clearProperty(Archive.Configuration.REPLICATION_CHANNEL_PROP_NAME);
+        clearProperty(RECORD_CHANNEL_PROP_NAME);
+        clearProperty(REPLAY_MERGE_LIVE_DESTINATION_PROP_NAME);
+        clearProperty(REPLAY_MERGE_JOIN_DELAY_PROP_NAME);
+        IoUtil.delete(archiveDir, true);
+    }
+
+    @Timeout(30)
+    @Test
+    void shouldMergeWithoutDuplicatesOrGaps(final @TempDir Path tempDir) throws Exception
+    {
+        test(1000, 288, 5, tempDir);
+
+        final List<String> lines =
+            Files.readAllLines(tempDir.resolve("aeron_rate=1K_batch=5_length=288-merge.csv"), US_ASCII);
+        assertEquals(2, lines.size());
+        final String[] values = lines.get(1).split(",");
+        assertTrue(Long.parseLong(values[1]) > 0, lines.get(1));
+        assertTrue(Long.parseLong(values[2]) > 0, lines.get(1));
+        assertEquals(0, Long.parseLong(values[3]), lines.get(1));
+        assertEquals(0, Long.parseLong(values[4]), lines.get(1));
+        assertTrue(Files.exists(tempDir.resolve("aeron_rate=1K_batch=5_length=288-after-merge.hdr")));
+    }
+
+    protected ArchiveNode createNode(
+        final AtomicBoolean running, final ArchivingMediaDriver archivingMediaDriver, final AeronArchive aeronArchive)
+    {
+        return new ArchiveNode(running, archivingMediaDriver, aeronArchive, false);
+    }
+
+    protected ArchivingMediaDriver createDriver()
+    {
+        final ArchivingMediaDriver driver = launchArchiveWithEmbeddedDriver();
+        archiveDir = driver.archive.context().archiveDir();
+        return driver;
+    }
+
+    protected AeronArchive connectToDriver()
+    {
+        return connect(new AeronArchive.Context().errorHandler(new RethrowingErrorHandler()));
+    }
+
+    protected Class<ReplayMergeMessageTransceiver> messageTransceiverClass()
+    {
+        return ReplayMergeMessageTransceiver.class;
+    }
+
+    protected ReplayMergeMessageTransceiver createMessageTransceiver(
+        final NanoClock nanoClock,
+        final ValueRecorder valueRecorder,
+        final ArchivingMediaDriver archivingMediaDriver,
+        final AeronArchive aeronArchive)
+    {
+        return new ReplayMergeMessageTransceiver(nanoClock, valueRecorder, null, aeronArchive, false);
+    }
+}
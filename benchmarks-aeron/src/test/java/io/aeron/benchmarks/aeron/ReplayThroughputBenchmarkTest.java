@@ -0,0 +1,165 @@
+/*
+ * Copyright 2015-2025 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.aeron.benchmarks.aeron;
+
+import io.aeron.archive.Archive;
+import io.aeron.archive.client.AeronArchive;
+import org.agrona.IoUtil;
+import org.agrona.concurrent.SystemNanoClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static io.aeron.archive.Archive.Configuration.ARCHIVE_DIR_DELETE_ON_START_PROP_NAME;
+import static io.aeron.benchmarks.aeron.AeronUtil.*;
+import static io.aeron.benchmarks.aeron.ArchivingMediaDriver.launchArchiveWithEmbeddedDriver;
+import static io.aeron.driver.Configuration.DIR_DELETE_ON_SHUTDOWN_PROP_NAME;
+import static io.aeron.driver.Configuration.DIR_DELETE_ON_START_PROP_NAME;
+import static java.lang.System.clearProperty;
+import static java.lang.System.setProperty;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayThroughputBenchmarkTest
+{
+    private File archiveDir;
+
+    @BeforeEach
+    void before()
+    {
+        setProperty(DIR_DELETE_ON_START_PROP_NAME, "true");
+        setProperty(DIR_DELETE_ON_SHUTDOWN_PROP_NAME, "true");
+        setProperty(ARCHIVE_DIR_DELETE_ON_START_PROP_NAME, "true");
+        setProperty(AeronArchive.Configuration.CONTROL_CHANNEL_PROP_NAME,
+            "aeron:udp?endpoint=localhost:8010|term-length=64k");
+        setProperty(AeronArchive.Configuration.CONTROL_RESPONSE_CHANNEL_PROP_NAME,
+            "aeron:udp?endpoint=localhost:8020");
+        setProperty(Archive.Configuration.REPLICATION_CHANNEL_PROP_NAME, "aeron:udp?endpoint=localhost:8040");
+        setProperty(RECORD_CHANNEL_PROP_NAME, "aeron:ipc?term-length=64k");
+        setProperty(REPLAY_CHANNEL_PROP_NAME, "aeron:ipc");
+    }
+
+    @AfterEach
+    void after()
+    {
+        clearProperty(DIR_DELETE_ON_START_PROP_NAME);
+        clearProperty(DIR_DELETE_ON_SHUTDOWN_PROP_NAME);
+        clearProperty(ARCHIVE_DIR_DELETE_ON_START_PROP_NAME);
+        clearProperty(AeronArchive.Configuration.CONTROL_CHANNEL_PROP_NAME);
+        clearProperty(AeronArchive.Configuration.CONTROL_RESPONSE_CHANNEL_PROP_NAME);
+        clearProperty(Archive.Configuration.REPLICATION_CHANNEL_PROP_NAME);
+        clearProperty(RECORD_CHANNEL_PROP_NAME);
+        clearProperty(REPLAY_CHANNEL_PROP_NAME);
+        IoUtil.delete(archiveDir, true);
+    }
+
+    @Test
+    void shouldRejectReplayLongerThanRecording()
+    {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> new ReplayThroughputConfiguration.Builder().recordingLength(1024).replayLength(2048).build());
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> new ReplayThroughputConfiguration.Builder().replayCount(0).build());
+    }
+
+    @Test
+    void shouldParseConcurrency()
+    {
+        assertArrayEquals(
+            new int[]{ 1, 2, 4, 64 }, ReplayThroughputConfiguration.parseConcurrency("1, 2,4 ,64"));
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> new ReplayThroughputConfiguration.Builder().concurrency(1, 0).build());
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> new ReplayThroughputConfiguration.Builder().archiveNode(true).recordings(2).build());
+    }
+
+    @Timeout(30)
+    @Test
+    void shouldReplayConcurrentlyFromRandomPositionsAndReuseRecordings(final @TempDir Path tempDir) throws Exception
+    {
+        final ReplayThroughputConfiguration configuration = new ReplayThroughputConfiguration.Builder()
+            .recordingLength(1024 * 1024)
+            .replayLength(128 * 1024)
+            .replayCount(2)
+            .concurrency(1, 3)
+            .recordings(2)
+            .messageLength(288)
+            .build();
+
+        try (ArchivingMediaDriver driver = launchArchiveWithEmbeddedDriver();
+            AeronArchive aeronArchive = AeronArchive.connect())
+        {
+            archiveDir = driver.archive.context().archiveDir();
+            final AtomicBoolean running = new AtomicBoolean(true);
+
+            final List<Long> recordingIds = new ArrayList<>();
+            try (ReplayThroughputBenchmark benchmark = new ReplayThroughputBenchmark(
+                configuration, running, null, aeronArchive, false, SystemNanoClock.INSTANCE))
+            {
+                for (final ReplayThroughputBenchmark.Recording recording : benchmark.prepareRecordings())
+                {
+                    recordingIds.add(recording.recordingId);
+                }
+                benchmark.run(tempDir, "test-");
+
+                assertEquals(2, recordingIds.size());
+                assertEquals(8, benchmark.replays());
+                assertEquals(8, benchmark.timeToFirstByteHistogram().getTotalCount());
+                assertTrue(Files.exists(benchmark.saveTimeToFirstByteHistogram(tempDir, "test-")));
+            }
+
+            final List<String> replays = Files.readAllLines(tempDir.resolve("test-replays.csv"), US_ASCII);
+            assertEquals(9, replays.size());
+            for (final String line : replays.subList(1, replays.size()))
+            {
+                final String[] values = line.split(",");
+                assertTrue(recordingIds.contains(Long.parseLong(values[1])), line);
+                assertEquals(0, Long.parseLong(values[2]) % (64 * 1024), line);
+                assertEquals(128 * 1024, Long.parseLong(values[3]), line);
+            }
+
+            final List<String> bandwidth = Files.readAllLines(tempDir.resolve("test-bandwidth.csv"), US_ASCII);
+            assertEquals(3, bandwidth.size());
+            assertTrue(bandwidth.get(1).startsWith("1,2,"), bandwidth.get(1));
+            assertTrue(bandwidth.get(2).startsWith("3,6,"), bandwidth.get(2));
+
+            try (ReplayThroughputBenchmark benchmark = new ReplayThroughputBenchmark(
+                configuration, running, null, aeronArchive, false, SystemNanoClock.INSTANCE))
+            {
+                final List<Long> reusedRecordingIds = new ArrayList<>();
+                for (final ReplayThroughputBenchmark.Recording recording : benchmark.prepareRecordings())
+                {
+                    reusedRecordingIds.add(recording.recordingId);
+                }
+
+                assertEquals(recordingIds, reusedRecordingIds);
+            }
+        }
+    }
+}
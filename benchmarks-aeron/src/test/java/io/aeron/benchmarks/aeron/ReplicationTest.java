@@ -0,0 +1,130 @@
+/*
+ * Copyright 2015-2025 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.aeron.benchmarks.aeron;
+
+import io.aeron.CommonContext;
+import io.aeron.RethrowingErrorHandler;
+import io.aeron.archive.Archive;
+import io.aeron.archive.client.AeronArchive;
+import io.aeron.driver.MediaDriver;
+import org.HdrHistogram.ValueRecorder;
+import org.agrona.IoUtil;
+import org.agrona.concurrent.NanoClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static io.aeron.archive.client.AeronArchive.connect;
+import static io.aeron.benchmarks.aeron.AeronUtil.REPLICATION_SOURCE_CONTROL_CHANNEL_PROP_NAME;
+import static io.aeron.benchmarks.aeron.ArchivingMediaDriver.launchArchiveWithEmbeddedDriver;
+import static java.lang.System.clearProperty;
+import static java.lang.System.setProperty;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReplicationTest extends
+    AbstractTest<ArchivingMediaDriver, AeronArchive, ReplicationMessageTransceiver, ArchiveNode>
+{
+    private static final String SOURCE_CONTROL_CHANNEL = "aeron:udp?endpoint=localhost:8110|term-length=64k";
+    private static final String SOURCE_CONTROL_RESPONSE_CHANNEL = "aeron:udp?endpoint=localhost:8120";
+
+    private File archiveDir;
+    private File sourceArchiveDir;
+
+    @BeforeEach
+    void before()
+    {
+        setProperty(AeronArchive.Configuration.CONTROL_CHANNEL_PROP_NAME,
+            "aeron:udp?endpoint=localhost:8010|term-length=64k");
+        setProperty(AeronArchive.Configuration.CONTROL_RESPONSE_CHANNEL_PROP_NAME,
+            "aeron:udp?endpoint=localhost:8020");
+        setProperty(Archive.Configuration.REPLICATION_CHANNEL_PROP_NAME, "aeron:udp?endpoint=localhost:8040");
+        setProperty(REPLICATION_SOURCE_CONTROL_CHANNEL_PROP_NAME, SOURCE_CONTROL_CHANNEL);
+    }
+
+    @AfterEach
+    void after()
+    {
+        clearProperty(AeronArchive.Configuration.CONTROL_CHANNEL_PROP_NAME);
+        clearProperty(AeronArchive.Configuration.CONTROL_RESPONSE_CHANNEL_PROP_NAME);
+        clearProperty(Archive.Configuration.REPLICATION_CHANNEL_PROP_NAME);
+        clearProperty(REPLICATION_SOURCE_CONTROL_CHANNEL_PROP_NAME);
+        IoUtil.delete(archiveDir, true);
+        IoUtil.delete(sourceArchiveDir, true);
+    }
+
+    @Test
+    void shouldPadToTheNextTermIfFrameDoesNotFit()
+    {
+        assertEquals(64, ReplicationMessageTransceiver.nextPosition(0, 64, 1024));
+        assertEquals(1024, ReplicationMessageTransceiver.nextPosition(960, 64, 1024));
+        assertEquals(1024 + 96, ReplicationMessageTransceiver.nextPosition(992, 96, 1024));
+        assertEquals(2048 + 32, ReplicationMessageTransceiver.nextPosition(2048, 32, 1024));
+    }
+
+    protected ArchiveNode createNode(
+        final AtomicBoolean running, final ArchivingMediaDriver archivingMediaDriver, final AeronArchive aeronArchive)
+    {
+        final String aeronDirectoryName = CommonContext.getAeronDirectoryName() + "-source";
+        final ArchivingMediaDriver sourceArchivingMediaDriver = launchArchiveWithEmbeddedDriver(
+            new MediaDriver.Context()
+                .aeronDirectoryName(aeronDirectoryName)
+                .dirDeleteOnStart(true)
+                .dirDeleteOnShutdown(true)
+                .spiesSimulateConnection(true),
+            new Archive.Context()
+                .archiveDir(sourceArchiveDir)
+                .deleteArchiveOnStart(true)
+                .controlChannel(SOURCE_CONTROL_CHANNEL)
+                .replicationChannel("aeron:udp?endpoint=localhost:8140"));
+
+        final AeronArchive sourceArchive = connect(new AeronArchive.Context()
+            .aeronDirectoryName(aeronDirectoryName)
+            .controlRequestChannel(SOURCE_CONTROL_CHANNEL)
+            .controlResponseChannel(SOURCE_CONTROL_RESPONSE_CHANNEL));
+
+        return new ArchiveNode(running, sourceArchivingMediaDriver, sourceArchive, true);
+    }
+
+    protected ArchivingMediaDriver createDriver()
+    {
+        final ArchivingMediaDriver driver = launchArchiveWithEmbeddedDriver();
+        archiveDir = driver.archive.context().archiveDir();
+        sourceArchiveDir = new File(archiveDir.getAbsolutePath() + "-source");
+        return driver;
+    }
+
+    protected AeronArchive connectToDriver()
+    {
+        return connect(new AeronArchive.Context().errorHandler(new RethrowingErrorHandler()));
+    }
+
+    protected Class<ReplicationMessageTransceiver> messageTransceiverClass()
+    {
+        return ReplicationMessageTransceiver.class;
+    }
+
+    protected ReplicationMessageTransceiver createMessageTransceiver(
+        final NanoClock nanoClock,
+        final ValueRecorder valueRecorder,
+        final ArchivingMediaDriver archivingMediaDriver,
+        final AeronArchive aeronArchive)
+    {
+        return new ReplicationMessageTransceiver(nanoClock, valueRecorder, archivingMediaDriver, aeronArchive, false);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2015-2025 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.aeron.benchmarks.aeron;
+
+import io.aeron.cluster.service.ClusteredService;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class RoutingClusteredServiceTest
+{
+    @Test
+    void shouldRejectServiceIdOutOfRange()
+    {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> new RoutingClusteredService(
+                mock(ClusteredService.class), RoutingClusteredService.Rule.PARTITION, 3, 3));
+    }
+
+    @Test
+    void shouldParseTheRule()
+    {
+        assertEquals(RoutingClusteredService.Rule.PARTITION, RoutingClusteredService.Rule.fromName(null));
+        assertEquals(RoutingClusteredService.Rule.FIRST, RoutingClusteredService.Rule.fromName("first"));
+        assertThrows(IllegalArgumentException.class, () -> RoutingClusteredService.Rule.fromName("random"));
+    }
+
+    @Test
+    void shouldRouteEveryMessageToExactlyOneService()
+    {
+        final int serviceCount = 3;
+        final RoutingClusteredService[] services = new RoutingClusteredService[serviceCount];
+        for (int i = 0; i < serviceCount; i++)
+        {
+            services[i] = new RoutingClusteredService(
+                mock(ClusteredService.class), RoutingClusteredService.Rule.PARTITION, i, serviceCount);
+        }
+
+        final int[] routed = new int[serviceCount];
+        for (long position = 0; position < 32 * 3000; position += 32)
+        {
+            int count = 0;
+            for (int i = 0; i < serviceCount; i++)
+            {
+                if (services[i].isRouted(position))
+                {
+                    routed[i]++;
+                    count++;
+                }
+            }
+            assertEquals(1, count);
+        }
+
+        for (final int messages : routed)
+        {
+            assertTrue(messages > 0);
+        }
+    }
+
+    @Test
+    void shouldRouteAllMessagesToTheFirstService()
+    {
+        final RoutingClusteredService first = new RoutingClusteredService(
+            mock(ClusteredService.class), RoutingClusteredService.Rule.FIRST, 0, 2);
+        final RoutingClusteredService second = new RoutingClusteredService(
+            mock(ClusteredService.class), RoutingClusteredService.Rule.FIRST, 1, 2);
+
+        assertTrue(first.isRouted(64));
+        assertFalse(second.isRouted(64));
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2015-2025 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.aeron.benchmarks.aeron;
+
+import io.aeron.benchmarks.Configuration;
+import io.aeron.benchmarks.aeron.SingleHostBenchmark.Scenario;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static io.aeron.benchmarks.aeron.AeronUtil.*;
+import static io.aeron.driver.Configuration.DIR_DELETE_ON_SHUTDOWN_PROP_NAME;
+import static io.aeron.driver.Configuration.DIR_DELETE_ON_START_PROP_NAME;
+import static java.lang.System.clearProperty;
+import static java.lang.System.setProperty;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleHostBenchmarkTest
+{
+    @BeforeEach
+    void before()
+    {
+        setProperty(EMBEDDED_MEDIA_DRIVER_PROP_NAME, "true");
+        setProperty(DIR_DELETE_ON_START_PROP_NAME, "true");
+        setProperty(DIR_DELETE_ON_SHUTDOWN_PROP_NAME, "true");
+    }
+
+    @AfterEach
+    void after()
+    {
+        clearProperty(EMBEDDED_MEDIA_DRIVER_PROP_NAME);
+        clearProperty(DIR_DELETE_ON_START_PROP_NAME);
+        clearProperty(DIR_DELETE_ON_SHUTDOWN_PROP_NAME);
+        clearProperty(SOURCE_CHANNEL_PROP_NAME);
+        clearProperty(DESTINATION_CHANNEL_PROP_NAME);
+        clearProperty(NUMBER_OF_RECEIVERS_PROP_NAME);
+        clearProperty(ECHO_PROCESSING_DELAY_PROP_NAME);
+        clearProperty(ECHO_PAUSE_INTERVAL_PROP_NAME);
+        clearProperty(ECHO_PAUSE_DURATION_PROP_NAME);
+    }
+
+    @Test
+    void shouldResolveScenarioByName()
+    {
+        for (final Scenario scenario : Scenario.values())
+        {
+            assertSame(scenario, Scenario.fromName(scenario.scenarioName));
+        }
+
+        assertEquals(Scenario.ARCHIVE_REPLAY_MDC, Scenario.fromName("archive-replay-mdc"));
+        assertThrows(IllegalArgumentException.class, () -> Scenario.fromName("ECHO"));
+    }
+
+    @Test
+    void shouldParseThreadAffinity()
+    {
+        final Map<String, String> affinity =
+            ThreadPinner.parse(" load-test-rig=2, echo-0=3 ,driver-conductor=4-5,");
+
+        assertEquals(3, affinity.size());
+        assertEquals("2", affinity.get("load-test-rig"));
+        assertEquals("3", affinity.get("echo-0"));
+        assertEquals("4-5", affinity.get("driver-conducto"));
+        assertTrue(ThreadPinner.parse(null).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> ThreadPinner.parse("echo-0"));
+        assertThrows(IllegalArgumentException.class, () -> ThreadPinner.parse("echo-0="));
+    }
+
+    @Timeout(30)
+    @Test
+    void shouldRunEchoScenario(final @TempDir Path tempDir) throws Exception
+    {
+        setProperty(SOURCE_CHANNEL_PROP_NAME, "aeron:ipc");
+        setProperty(DESTINATION_CHANNEL_PROP_NAME, "aeron:ipc");
+
+        runScenario(Scenario.ECHO, tempDir);
+    }
+
+    @Timeout(30)
+    @Test
+    void shouldRunEchoIpcScenarioWithMultipleReceiversOnSharedDriver(final @TempDir Path tempDir) throws Exception
+    {
+        setProperty(NUMBER_OF_RECEIVERS_PROP_NAME, "2");
+
+        runScenario(Scenario.ECHO_IPC, tempDir);
+
+        assertEquals("aeron:ipc", sourceChannel());
+        assertEquals("aeron:ipc", destinationChannel());
+    }
+
+    @Timeout(30)
+    @Test
+    void shouldRunEchoSpyScenario(final @TempDir Path tempDir) throws Exception
+    {
+        setProperty(SOURCE_CHANNEL_PROP_NAME, "aeron:ipc");
+        setProperty(DESTINATION_CHANNEL_PROP_NAME, "aeron:udp?endpoint=localhost:13353");
+
+        runScenario(Scenario.ECHO_SPY, tempDir);
+
+        assertTrue(Files.exists(tempDir.resolve("logs").resolve("spy-node-tap-lag.hdr")));
+    }
+
+    @Timeout(30)
+    @Test
+    void shouldRunEchoMdsScenarioWithMultipleSources(final @TempDir Path tempDir) throws Exception
+    {
+        setProperty(NUMBER_OF_RECEIVERS_PROP_NAME, "3");
+        setProperty(SOURCE_CHANNEL_PROP_NAME, "aeron:udp?endpoint=localhost:13364|term-length=64k");
+        setProperty(DESTINATION_CHANNEL_PROP_NAME, "aeron:ipc");
+
+        runScenario(Scenario.ECHO_MDS, tempDir);
+    }
+
+    @Timeout(30)
+    @Test
+    void shouldRunEchoMdcScenarioWithPassiveSlowReceiver(final @TempDir Path tempDir) throws Exception
+    {
+        setProperty(SOURCE_CHANNEL_PROP_NAME, "aeron:udp?endpoint=localhost:13374");
+        setProperty(
+            DESTINATION_CHANNEL_PROP_NAME,
+            "aeron:udp?control=localhost:13373|control-mode=dynamic|fc=min|term-length=64k");
+        setProperty(ECHO_PROCESSING_DELAY_PROP_NAME, "5us");
+        setProperty(ECHO_PAUSE_INTERVAL_PROP_NAME, "200ms");
+        setProperty(ECHO_PAUSE_DURATION_PROP_NAME, "1ms");
+
+        runScenario(Scenario.ECHO_MDC, tempDir);
+
+        assertTrue(Files.exists(tempDir.resolve("logs").resolve("echo-node-slow-aeron-stat.txt")));
+    }
+
+    @Test
+    void shouldRejectNonIpcChannelForEchoIpcScenario(final @TempDir Path tempDir)
+    {
+        setProperty(DESTINATION_CHANNEL_PROP_NAME, "aeron:udp?endpoint=localhost:13333");
+
+        assertThrows(IllegalArgumentException.class, () -> runScenario(Scenario.ECHO_IPC, tempDir));
+    }
+
+    private static void runScenario(final Scenario scenario, final Path tempDir) throws Exception
+    {
+        final Configuration configuration = new Configuration.Builder()
+            .warmupIterations(0)
+            .iterations(1)
+            .messageRate(1000)
+            .messageLength(64)
+            .messageTransceiverClass(scenario.messageTransceiverClass)
+            .outputDirectory(tempDir)
+            .outputFileNamePrefix("aeron-single-host")
+            .build();
+
+        try (SingleHostBenchmark benchmark = new SingleHostBenchmark(scenario, configuration))
+        {
+            benchmark.run();
+        }
+
+        try (Stream<Path> files = Files.list(tempDir))
+        {
+            assertTrue(files.anyMatch((file) -> file.getFileName().toString().startsWith("aeron-single-host")));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2015-2025 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.aeron.benchmarks.aeron;
+
+import io.aeron.cluster.service.Cluster;
+import org.agrona.concurrent.YieldingIdleStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TimerClusteredServiceTest
+{
+    @Test
+    void shouldRejectMoreCancelsThanTimers()
+    {
+        assertThrows(IllegalArgumentException.class, () -> new TimerClusteredService(1, 2, 0));
+    }
+
+    @Test
+    void shouldScheduleAndCancelTimersAndRecordTheSkew()
+    {
+        final Cluster cluster = mock(Cluster.class);
+        when(cluster.idleStrategy()).thenReturn(YieldingIdleStrategy.INSTANCE);
+        when(cluster.timeUnit()).thenReturn(null);
+        when(cluster.scheduleTimer(anyLong(), anyLong())).thenReturn(true);
+        when(cluster.cancelTimer(anyLong())).thenReturn(true);
+
+        final TimerClusteredService service = new TimerClusteredService(3, 1, TimeUnit.MILLISECONDS.toNanos(10));
+        service.onStart(cluster, null); // fresh start, i.e. the time unit is not known yet
+        verify(cluster, never()).timeUnit();
+        when(cluster.timeUnit()).thenReturn(TimeUnit.MILLISECONDS);
+
+        service.scheduleTimers(100);
+        verify(cluster).scheduleTimer(0, 110);
+        verify(cluster).scheduleTimer(1, 110);
+        verify(cluster).scheduleTimer(2, 110);
+        verify(cluster).cancelTimer(0);
+        assertEquals(2, service.pendingTimers());
+
+        service.onTimerEvent(1, 112);
+        service.scheduleTimers(200);
+        verify(cluster).cancelTimer(2);
+        verify(cluster, times(2)).cancelTimer(anyLong());
+        assertEquals(3, service.pendingTimers());
+
+        assertEquals(1, service.skewHistogram().getTotalCount());
+        assertEquals(
+            TimeUnit.MILLISECONDS.toNanos(2),
+            service.skewHistogram().getMaxValue(),
+            TimeUnit.MILLISECONDS.toNanos(2) / 1000.0);
+    }
+}
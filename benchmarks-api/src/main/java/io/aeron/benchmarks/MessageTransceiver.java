@@ -153,9 +153,21 @@ public abstract class MessageTransceiver extends MessageTransceiverRhsPadding
         RECEIVED_MESSAGES_UPDATER.getAndIncrement(this);
     }
 
+    /**
+     * Callback method to be invoked once the warmup is complete, i.e. after all of the warmup messages were received
+     * and before the measurement starts.
+     *
+     * @implNote Implementations which record anything in addition to the RTT latencies should reset it here, so that
+     * it excludes the warmup.
+     */
+    protected void onWarmupComplete()
+    {
+    }
+
     final void reset()
     {
         valueRecorder.reset();
         RECEIVED_MESSAGES_UPDATER.set(this, 0);
+        onWarmupComplete();
     }
 }
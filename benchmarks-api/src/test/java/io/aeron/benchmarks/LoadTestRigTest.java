@@ -150,6 +150,7 @@ class LoadTestRigTest
         inOrder.verify(messageTransceiver).send(1, configuration.messageLength(), nanoTime, CHECKSUM);
         inOrder.verify(progressReporter).reportProgress(nanoTime, nanoTime, 1, 1);
         inOrder.verify(messageTransceiver).reset();
+        inOrder.verify(messageTransceiver).onWarmupComplete();
         inOrder.verify(persistedHistogram).reset();
         inOrder.verify(progressReporter).reset();
         inOrder.verify(out).printf("%nRunning measurement for %,d iterations of %,d messages each, with %,d bytes" +
@@ -21,16 +21,20 @@ DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" >/dev/null 2>&1 && pwd)"
 AERON_SCRIPT_HOME=${DIR}/../../aeron
 
 function usage() {
-  echo "$0 [-t echo|failover]" 1>&2
+  echo "$0 [-t echo|failover] [-n 1|3|5|7]" 1>&2
   exit 2
 }
 
 TYPE=echo
-while getopts ":t:" opt; do
+MEMBERS=3
+while getopts ":t:n:" opt; do
   case "${opt}" in
     t)
       TYPE=$OPTARG
       ;;
+    n)
+      MEMBERS=$OPTARG
+      ;;
     *)
       usage
       ;;
@@ -53,9 +57,23 @@ case "$TYPE" in
     ;;
 esac
 
+if [[ "${MEMBERS}" -lt 1 || "${MEMBERS}" -gt 7 ]]; then
+  echo "Number of members must be in [1, 7]: ${MEMBERS}"
+  exit 2
+fi
+
+# The member n listens on the ports 2n000 to 2n004, i.e. the same as in the cluster.properties.
+CLUSTER_MEMBERS=""
+INGRESS_ENDPOINTS=""
+for (( n=0; n<MEMBERS; n++ )); do
+  CLUSTER_MEMBERS+="${CLUSTER_MEMBERS:+|}${n},localhost:2${n}000,localhost:2${n}001,localhost:2${n}002,localhost:2${n}003,localhost:2${n}004"
+  INGRESS_ENDPOINTS+="${INGRESS_ENDPOINTS:+,}${n}=localhost:2${n}000"
+done
+CLUSTER_OPTS="-Daeron.cluster.members=${CLUSTER_MEMBERS} -Daeron.cluster.ingress.endpoints=${INGRESS_ENDPOINTS}"
+
 function startNode() {
   node=$1
-  JVM_OPTS="-Xms16M"
+  JVM_OPTS="-Xms16M ${CLUSTER_OPTS}"
 # Useful for logging...
 #  JVM_OPTS="${JVM_OPTS} -javaagent:${HOME}/.m2/repository/io/aeron/aeron-agent/1.38.1-SNAPSHOT/aeron-agent-1.38.1-SNAPSHOT.jar"
   JVM_OPTS="${JVM_OPTS} -Daeron.event.cluster.log=all -Daeron.event.cluster.log.disable=APPEND_POSITION,COMMIT_POSITION"
@@ -67,16 +85,17 @@ function startNode() {
 
 JVM_OPTS="-Xms16M"
 echo "Starting media drivers"
-${AERON_SCRIPT_HOME}/media-driver ${DIR}/cluster.properties ${DIR}/node0.properties > md_node0.out &
-${AERON_SCRIPT_HOME}/media-driver ${DIR}/cluster.properties ${DIR}/node1.properties > md_node1.out &
-${AERON_SCRIPT_HOME}/media-driver ${DIR}/cluster.properties ${DIR}/node2.properties > md_node2.out &
+for (( n=0; n<MEMBERS; n++ )); do
+  ${AERON_SCRIPT_HOME}/media-driver ${DIR}/cluster.properties "${DIR}/node${n}.properties" > "md_node${n}.out" &
+done
 ${AERON_SCRIPT_HOME}/media-driver ${DIR}/cluster.properties ${DIR}/client.properties > md_client.out &
 
 echo "Cluster nodes"
-startNode 0
-startNode 1
-startNode 2
+for (( n=0; n<MEMBERS; n++ )); do
+  startNode ${n}
+done
 
 echo "Start client"
-export JVM_OPTS="-Xms16M"
+# The latency is reported per number of members, e.g. with `results-plotter.py --group-by members`.
+export JVM_OPTS="-Xms16M ${CLUSTER_OPTS} -Dio.aeron.benchmarks.output.file=aeron-cluster_localhost_members=${MEMBERS}"
 ${AERON_SCRIPT_HOME}/${TYPE_CLIENT} ${DIR}/cluster.properties ${DIR}/client.properties $TYPE_CONFIG